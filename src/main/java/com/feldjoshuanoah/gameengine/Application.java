@@ -16,7 +16,13 @@
 package com.feldjoshuanoah.gameengine;
 
 import com.feldjoshuanoah.gameengine.event.EventManager;
+import com.feldjoshuanoah.gameengine.event.EventQueue;
+import com.feldjoshuanoah.gameengine.input.Input;
+import com.feldjoshuanoah.gameengine.input.InputRecorder;
+import com.feldjoshuanoah.gameengine.render.DynamicResolution;
+import com.feldjoshuanoah.gameengine.render.RenderTarget;
 import com.feldjoshuanoah.gameengine.render.Window;
+import com.feldjoshuanoah.gameengine.render.backend.RenderContext;
 import com.feldjoshuanoah.gameengine.render.scene.AbstractScene;
 import com.feldjoshuanoah.gameengine.render.scene.SceneManager;
 import org.lwjgl.glfw.GLFW;
@@ -24,6 +30,8 @@ import org.lwjgl.glfw.GLFWErrorCallback;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.system.MemoryUtil;
 
+import java.nio.file.Path;
+
 /**
  * Represents an application.
  */
@@ -49,6 +57,21 @@ public class Application {
      */
     private final EventManager eventManager;
 
+    /**
+     * The event queue the window callbacks post their events to.
+     */
+    private final EventQueue eventQueue;
+
+    /**
+     * The polled input state service.
+     */
+    private final Input input;
+
+    /**
+     * The recorder the input is written to, or {@code null} if the input is not recorded.
+     */
+    private InputRecorder recorder;
+
     /**
      * The scene manager.
      */
@@ -59,6 +82,22 @@ public class Application {
      */
     private final float deltaTime = 1.0f / 60.0f;
 
+    /**
+     * The factor the window resolution is multiplied with to get the internal resolution.
+     */
+    private float renderScale;
+
+    /**
+     * The dynamic resolution controller, or {@code null} if the render scale is fixed.
+     */
+    private DynamicResolution dynamicResolution;
+
+    /**
+     * The render target the scene is rendered into at a reduced internal resolution, or
+     * {@code null} if it has not been needed yet.
+     */
+    private RenderTarget sceneTarget;
+
     /**
      * Create a new application.
      */
@@ -69,14 +108,24 @@ public class Application {
         }
         window = new Window(DEFAULT_WIDTH, DEFAULT_HEIGHT, "Game Engine", MemoryUtil.NULL);
         eventManager = new EventManager();
+        eventQueue = new EventQueue(eventManager);
+        eventManager.getMetrics().setQueueDepthSource(eventQueue::size);
+        input = new Input();
         sceneManager = new SceneManager();
+        renderScale = 1.0f;
     }
 
     /**
      * Terminate the application.
      */
     public void terminate() {
+        stopRecording();
+        if (sceneTarget != null) {
+            sceneTarget.delete();
+        }
         window.destroy();
+        eventManager.getMetrics().unregisterMBean();
+        eventManager.shutdown();
         GLFW.glfwTerminate();
         GLFW.glfwSetErrorCallback(null).free();
     }
@@ -95,16 +144,54 @@ public class Application {
             accumulator += frameTime;
             while(accumulator >= deltaTime) {
                 GLFW.glfwPollEvents();
+                if (recorder != null) {
+                    recorder.advance();
+                }
+                input.update();
+                eventQueue.drain();
                 scene.update();
                 scene.updateEntities();
+                scene.updateAnimations(deltaTime);
                 accumulator -= deltaTime;
             }
-            GL11.glClear(GL11.GL_COLOR_BUFFER_BIT | GL11.GL_DEPTH_BUFFER_BIT);
-            scene.render();
+            if (dynamicResolution != null) {
+                renderScale = dynamicResolution.update(frameTime);
+            }
+            renderScene(scene);
             window.swapBuffers();
         }
     }
 
+    /**
+     * Render the scene. If the render scale is below one, the scene is rendered into a smaller
+     * render target which is then stretched to the window.
+     *
+     * @param scene The scene.
+     */
+    private void renderScene(final AbstractScene scene) {
+        final int width = window.getFramebufferWidth();
+        final int height = window.getFramebufferHeight();
+        RenderTarget.setDefaultViewport(width, height);
+        final int scaledWidth = Math.max(1, Math.round(width * renderScale));
+        final int scaledHeight = Math.max(1, Math.round(height * renderScale));
+        if (renderScale >= 1.0f || scaledWidth >= width && scaledHeight >= height) {
+            RenderContext.getBackend().clear(GL11.GL_COLOR_BUFFER_BIT
+                    | GL11.GL_DEPTH_BUFFER_BIT);
+            scene.render();
+            return;
+        }
+        if (sceneTarget == null) {
+            sceneTarget = new RenderTarget(scaledWidth, scaledHeight);
+        } else {
+            sceneTarget.resize(scaledWidth, scaledHeight);
+        }
+        sceneTarget.bind();
+        RenderContext.getBackend().clear(GL11.GL_COLOR_BUFFER_BIT | GL11.GL_DEPTH_BUFFER_BIT);
+        scene.render();
+        sceneTarget.unbind();
+        sceneTarget.blit(0, 0, width, height, GL11.GL_LINEAR);
+    }
+
     /**
      * Get the window.
      *
@@ -123,6 +210,63 @@ public class Application {
         return eventManager;
     }
 
+    /**
+     * Get the event queue the window callbacks post their events to. In queued mode it is drained
+     * once per tick.
+     *
+     * @return The event queue.
+     */
+    public EventQueue getEventQueue() {
+        return eventQueue;
+    }
+
+    /**
+     * Get the polled input state service, which publishes a new snapshot once per tick.
+     *
+     * @return The input service.
+     */
+    public Input getInput() {
+        return input;
+    }
+
+    /**
+     * Start recording the input into a log file, which can be played back with an
+     * {@link com.feldjoshuanoah.gameengine.input.InputReplay}. A running recording is stopped.
+     *
+     * @param file The log file.
+     */
+    public void startRecording(final Path file) {
+        stopRecording();
+        recorder = new InputRecorder(file);
+        eventQueue.setRecorder(recorder);
+    }
+
+    /**
+     * Stop recording the input and close the log file. Does nothing if the input is not
+     * recorded.
+     */
+    public void stopRecording() {
+        if (recorder != null) {
+            eventQueue.setRecorder(null);
+            recorder.close();
+            recorder = null;
+        }
+    }
+
+    /**
+     * Enable or disable the event dispatch metrics. Enabling them also registers them on the
+     * platform MBean server, where they stay until the application is terminated, so a JMX
+     * client can inspect them and turn them off and on again.
+     *
+     * @param enabled {@code true} to enable the metrics.
+     */
+    public void setMetricsEnabled(final boolean enabled) {
+        eventManager.getMetrics().setEnabled(enabled);
+        if (enabled) {
+            eventManager.getMetrics().registerMBean();
+        }
+    }
+
     /**
      * Get the scene manager.
      *
@@ -141,6 +285,39 @@ public class Application {
         return deltaTime;
     }
 
+    /**
+     * Get the factor the window resolution is multiplied with to get the internal resolution.
+     *
+     * @return The render scale.
+     */
+    public float getRenderScale() {
+        return renderScale;
+    }
+
+    /**
+     * Set the factor the window resolution is multiplied with to get the internal resolution.
+     * This disables dynamic resolution.
+     *
+     * @param renderScale The render scale, in the range (0, 1].
+     */
+    public void setRenderScale(final float renderScale) {
+        if (renderScale <= 0.0f || renderScale > 1.0f) {
+            throw new IllegalArgumentException("The render scale must be in the range (0, 1]");
+        }
+        this.renderScale = renderScale;
+        dynamicResolution = null;
+    }
+
+    /**
+     * Set the dynamic resolution controller which adjusts the render scale every frame.
+     *
+     * @param dynamicResolution The dynamic resolution controller, or {@code null} to keep the
+     *                          current render scale.
+     */
+    public void setDynamicResolution(final DynamicResolution dynamicResolution) {
+        this.dynamicResolution = dynamicResolution;
+    }
+
     /**
      * Get the application instance.
      *
@@ -45,6 +45,26 @@ public class Entity {
      */
     private boolean dirty;
 
+    /**
+     * Whether the entity is baked into static geometry.
+     */
+    private boolean staticGeometry;
+
+    /**
+     * The table the texture coordinates are taken from instead of the sprite, or {@code null}.
+     */
+    private float[] textureCoordinates;
+
+    /**
+     * The offset of the texture coordinates in the table.
+     */
+    private int textureCoordinatesOffset;
+
+    /**
+     * Dirty flag for the texture coordinates only.
+     */
+    private boolean textureDirty;
+
     /**
      * Create a new entity.
      *
@@ -73,8 +93,13 @@ public class Entity {
      * @param <T> The component type.
      */
     public <T extends AbstractComponent> T getComponent(final Class<T> componentClass) {
-        return components.stream().filter(component -> componentClass.isAssignableFrom(component
-                .getClass())).findFirst().map(componentClass::cast).orElse(null);
+        for (int i = 0; i < components.size(); i++) {
+            final AbstractComponent component = components.get(i);
+            if (componentClass.isInstance(component)) {
+                return componentClass.cast(component);
+            }
+        }
+        return null;
     }
 
     /**
@@ -145,4 +170,75 @@ public class Entity {
     public void setDirty(final boolean dirty) {
         this.dirty = dirty;
     }
+
+    /**
+     * Get the table the texture coordinates are taken from instead of the sprite.
+     *
+     * @return The table, or {@code null} if the texture coordinates of the sprite are used.
+     */
+    public float[] getTextureCoordinates() {
+        return textureCoordinates;
+    }
+
+    /**
+     * Get the offset of the texture coordinates in the table.
+     *
+     * @return The offset.
+     */
+    public int getTextureCoordinatesOffset() {
+        return textureCoordinatesOffset;
+    }
+
+    /**
+     * Take the texture coordinates from a table instead of the sprite. The table holds the eight
+     * coordinates of the top right, bottom right, bottom left and top left corner from the offset
+     * onwards and must refer to the texture of the sprite. Only the texture coordinates of the
+     * quad are rewritten, not the whole quad.
+     *
+     * @param textureCoordinates The table, or {@code null} to use the sprite again.
+     * @param offset The offset of the texture coordinates in the table.
+     */
+    public void setTextureCoordinates(final float[] textureCoordinates, final int offset) {
+        this.textureCoordinates = textureCoordinates;
+        textureCoordinatesOffset = offset;
+        textureDirty = true;
+    }
+
+    /**
+     * Return {@code true} if the dirty flag for the texture coordinates is active.
+     *
+     * @return {@code true} if the dirty flag for the texture coordinates is active.
+     */
+    public boolean isTextureDirty() {
+        return textureDirty;
+    }
+
+    /**
+     * Set the dirty flag for the texture coordinates.
+     *
+     * @param textureDirty The dirty flag for the texture coordinates.
+     */
+    public void setTextureDirty(final boolean textureDirty) {
+        this.textureDirty = textureDirty;
+    }
+
+    /**
+     * Return {@code true} if the entity is baked into static geometry.
+     *
+     * @return {@code true} if the entity is baked into static geometry.
+     */
+    public boolean isStatic() {
+        return staticGeometry;
+    }
+
+    /**
+     * Set whether the entity is baked into static geometry. Static entities are never checked
+     * for changes; they are only rewritten when an entity is added to or removed from the static
+     * geometry of the renderer. The flag has to be set before the entity is added to a scene.
+     *
+     * @param staticGeometry Whether the entity is baked into static geometry.
+     */
+    public void setStatic(final boolean staticGeometry) {
+        this.staticGeometry = staticGeometry;
+    }
 }
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.entity.component;
+
+import com.feldjoshuanoah.gameengine.entity.AbstractComponent;
+import com.feldjoshuanoah.gameengine.render.animation.AnimationClip;
+import com.feldjoshuanoah.gameengine.render.animation.AnimationSystem;
+
+/**
+ * Represents an animation component. The animation is not advanced by {@link #update()}, but by
+ * the {@link AnimationSystem} of the scene, which advances all animations in one pass and only
+ * rewrites the texture coordinates of the entities whose frame changed. The entity needs a
+ * {@link SpriteComponent}, which provides the texture of the frames.
+ */
+public class AnimationComponent extends AbstractComponent {
+
+    /**
+     * The clip.
+     */
+    private AnimationClip clip;
+
+    /**
+     * The time since the clip started, in seconds.
+     */
+    private float time;
+
+    /**
+     * The current frame, or {@code -1} if no frame has been shown yet.
+     */
+    private int frame;
+
+    /**
+     * Whether the clip is playing.
+     */
+    private boolean playing;
+
+    /**
+     * Create a new animation component that plays the given clip.
+     *
+     * @param clip The clip.
+     */
+    public AnimationComponent(final AnimationClip clip) {
+        super();
+        this.clip = clip;
+        frame = -1;
+        playing = true;
+    }
+
+    @Override
+    public void update() {
+        // This is empty intentionally.
+    }
+
+    /**
+     * Play a clip from its first frame. If the sprite of the entity uses a different texture than
+     * the clip, the sprite is replaced by the first frame of the clip.
+     *
+     * @param clip The clip.
+     */
+    public void play(final AnimationClip clip) {
+        this.clip = clip;
+        time = 0.0f;
+        frame = -1;
+        playing = true;
+        final SpriteComponent spriteComponent = getEntity() == null ? null
+                : getEntity().getComponent(SpriteComponent.class);
+        if (spriteComponent != null && spriteComponent.getSprite().getTexture()
+                != clip.getFirstSprite().getTexture()) {
+            spriteComponent.setSprite(clip.getFirstSprite());
+        }
+    }
+
+    /**
+     * Pause the clip at its current frame.
+     */
+    public void pause() {
+        playing = false;
+    }
+
+    /**
+     * Resume the clip from its current frame.
+     */
+    public void resume() {
+        playing = true;
+    }
+
+    /**
+     * Advance the clip by a time step.
+     *
+     * @param deltaTime The time step, in seconds.
+     * @return {@code true} if the current frame changed.
+     */
+    public boolean advance(final float deltaTime) {
+        if (!playing && frame >= 0) {
+            return false;
+        }
+        if (playing) {
+            time += deltaTime;
+        }
+        final int frameCount = clip.getFrameCount();
+        int next = (int) (time / clip.getFrameDuration());
+        if (next >= frameCount) {
+            if (clip.isLooping()) {
+                time %= frameCount * clip.getFrameDuration();
+                next = Math.min(frameCount - 1, (int) (time / clip.getFrameDuration()));
+            } else {
+                next = frameCount - 1;
+                playing = false;
+            }
+        }
+        if (next == frame) {
+            return false;
+        }
+        frame = next;
+        return true;
+    }
+
+    /**
+     * Get the clip.
+     *
+     * @return The clip.
+     */
+    public AnimationClip getClip() {
+        return clip;
+    }
+
+    /**
+     * Get the current frame.
+     *
+     * @return The current frame, or {@code -1} if no frame has been shown yet.
+     */
+    public int getFrame() {
+        return frame;
+    }
+
+    /**
+     * Return {@code true} if the clip is playing.
+     *
+     * @return {@code true} if the clip is playing.
+     */
+    public boolean isPlaying() {
+        return playing;
+    }
+}
@@ -16,35 +16,25 @@
 package com.feldjoshuanoah.gameengine.event;
 
 import com.feldjoshuanoah.gameengine.Application;
-import com.feldjoshuanoah.gameengine.event.input.keyboard.KeyPressEvent;
-import com.feldjoshuanoah.gameengine.event.input.keyboard.KeyReleaseEvent;
-import com.feldjoshuanoah.gameengine.event.input.keyboard.KeyRepeatEvent;
-import com.feldjoshuanoah.gameengine.event.input.mouse.ButtonPressEvent;
-import com.feldjoshuanoah.gameengine.event.input.mouse.ButtonReleaseEvent;
-import com.feldjoshuanoah.gameengine.event.input.mouse.CursorEnterEvent;
-import com.feldjoshuanoah.gameengine.event.input.mouse.CursorLeaveEvent;
-import com.feldjoshuanoah.gameengine.event.input.mouse.CursorMoveEvent;
-import com.feldjoshuanoah.gameengine.event.input.mouse.ScrollEvent;
-import com.feldjoshuanoah.gameengine.event.window.WindowCloseEvent;
-import com.feldjoshuanoah.gameengine.event.window.WindowGainFocusEvent;
-import com.feldjoshuanoah.gameengine.event.window.WindowIconifyEvent;
-import com.feldjoshuanoah.gameengine.event.window.WindowLoseFocusEvent;
-import com.feldjoshuanoah.gameengine.event.window.WindowMaximizeEvent;
-import com.feldjoshuanoah.gameengine.event.window.WindowMoveEvent;
-import com.feldjoshuanoah.gameengine.event.window.WindowRefreshEvent;
-import com.feldjoshuanoah.gameengine.event.window.WindowResizeEvent;
-import com.feldjoshuanoah.gameengine.event.window.WindowRestoreEvent;
+import com.feldjoshuanoah.gameengine.input.Input;
 import org.lwjgl.glfw.GLFW;
 
 /**
- * An adapter to let the event system interact with GLFW.
+ * An adapter to let the event system interact with GLFW. The callbacks post their events to the
+ * application event queue, which either fires them immediately or queues them until the next tick.
+ * The keyboard and mouse callbacks also feed the polled input state.
  */
 public final class CallbackEventAdapter {
 
     /**
-     * The application event manager.
+     * The application event queue.
      */
-    private static final EventManager EVENT_MANAGER = Application.getInstance().getEventManager();
+    private static final EventQueue EVENT_QUEUE = Application.getInstance().getEventQueue();
+
+    /**
+     * The application input service.
+     */
+    private static final Input INPUT = Application.getInstance().getInput();
 
     /**
      * The previous cursor x-coordinate, relative to the left edge of the content area.
@@ -72,7 +62,7 @@ public final class CallbackEventAdapter {
      *          area of the window.
      */
     public static void windowPositionCallback(final long window, final int x, final int y) {
-        EVENT_MANAGER.fire(new WindowMoveEvent(x, y));
+        EVENT_QUEUE.post(EventQueue.WINDOW_MOVE, x, y);
     }
 
     /**
@@ -83,7 +73,7 @@ public final class CallbackEventAdapter {
      * @param height The new height, in screen coordinates, of the window.
      */
     public static void windowSizeCallback(final long window, final int width, final int height) {
-        EVENT_MANAGER.fire(new WindowResizeEvent(width, height));
+        EVENT_QUEUE.post(EventQueue.WINDOW_RESIZE, width, height);
     }
 
     /**
@@ -93,7 +83,7 @@ public final class CallbackEventAdapter {
      * @param window The window that received the event.
      */
     public static void windowCloseCallback(final long window) {
-        EVENT_MANAGER.fire(new WindowCloseEvent());
+        EVENT_QUEUE.post(EventQueue.WINDOW_CLOSE);
     }
 
     /**
@@ -103,7 +93,7 @@ public final class CallbackEventAdapter {
      * @param window The window that received the event.
      */
     public static void windowRefreshCallback(final long window) {
-        EVENT_MANAGER.fire(new WindowRefreshEvent());
+        EVENT_QUEUE.post(EventQueue.WINDOW_REFRESH);
     }
 
     /**
@@ -113,7 +103,7 @@ public final class CallbackEventAdapter {
      * @param focus {@code true} if the window was given input focus, or {@code false} if it's lost.
      */
     public static void windowFocusCallback(final long window, final boolean focus) {
-        EVENT_MANAGER.fire(focus ? new WindowGainFocusEvent() : new WindowLoseFocusEvent());
+        EVENT_QUEUE.post(focus ? EventQueue.WINDOW_GAIN_FOCUS : EventQueue.WINDOW_LOSE_FOCUS);
     }
 
     /**
@@ -124,7 +114,7 @@ public final class CallbackEventAdapter {
      *                  restored.
      */
     public static void windowIconifyCallback(final long window, final boolean iconified) {
-        EVENT_MANAGER.fire(iconified ? new WindowIconifyEvent() : new WindowRestoreEvent());
+        EVENT_QUEUE.post(iconified ? EventQueue.WINDOW_ICONIFY : EventQueue.WINDOW_RESTORE);
     }
 
     /**
@@ -135,7 +125,7 @@ public final class CallbackEventAdapter {
      *                  restored.
      */
     public static void windowMaximizeCallback(final long window, final boolean maximized) {
-        EVENT_MANAGER.fire(maximized ? new WindowMaximizeEvent() : new WindowRestoreEvent());
+        EVENT_QUEUE.post(maximized ? EventQueue.WINDOW_MAXIMIZE : EventQueue.WINDOW_RESTORE);
     }
 
     /**
@@ -149,10 +139,13 @@ public final class CallbackEventAdapter {
      */
     public static void keyCallback(final long window, final int key, final int scanCode,
             final int action, final int mods) {
+        INPUT.onKey(key, action);
         switch (action) {
-            case GLFW.GLFW_PRESS -> EVENT_MANAGER.fire(new KeyPressEvent(key, scanCode, mods));
-            case GLFW.GLFW_RELEASE -> EVENT_MANAGER.fire(new KeyReleaseEvent(key, scanCode, mods));
-            case GLFW.GLFW_REPEAT -> EVENT_MANAGER.fire(new KeyRepeatEvent(key, scanCode, mods));
+            case GLFW.GLFW_PRESS -> EVENT_QUEUE.post(EventQueue.KEY_PRESS, key, scanCode, mods, 0);
+            case GLFW.GLFW_RELEASE ->
+                    EVENT_QUEUE.post(EventQueue.KEY_RELEASE, key, scanCode, mods, 0);
+            case GLFW.GLFW_REPEAT ->
+                    EVENT_QUEUE.post(EventQueue.KEY_REPEAT, key, scanCode, mods, 0);
         }
     }
 
@@ -164,7 +157,8 @@ public final class CallbackEventAdapter {
      * @param y The new cursor y-coordinate, relative to the top edge of the content area.
      */
     public static void cursorPositionCallback(final long window, final double x, final double y) {
-        EVENT_MANAGER.fire(new CursorMoveEvent(x, y, previousX, previousY));
+        INPUT.onCursor(x, y);
+        EVENT_QUEUE.post(EventQueue.CURSOR_MOVE, x, y, previousX, previousY);
         previousX = x;
         previousY = y;
     }
@@ -177,7 +171,7 @@ public final class CallbackEventAdapter {
      *                if it left it.
      */
     public static void cursorEnterCallback(final long window, final boolean entered) {
-        EVENT_MANAGER.fire(entered ? new CursorEnterEvent() : new CursorLeaveEvent());
+        EVENT_QUEUE.post(entered ? EventQueue.CURSOR_ENTER : EventQueue.CURSOR_LEAVE);
     }
 
     /**
@@ -190,9 +184,10 @@ public final class CallbackEventAdapter {
      */
     public static void mouseButtonCallback(final long window, final int button, final int action,
             final int mods) {
+        INPUT.onButton(button, action);
         switch (action) {
-            case GLFW.GLFW_RELEASE -> EVENT_MANAGER.fire(new ButtonReleaseEvent(button, mods));
-            case GLFW.GLFW_PRESS -> EVENT_MANAGER.fire(new ButtonPressEvent(button, mods));
+            case GLFW.GLFW_RELEASE -> EVENT_QUEUE.post(EventQueue.BUTTON_RELEASE, button, mods);
+            case GLFW.GLFW_PRESS -> EVENT_QUEUE.post(EventQueue.BUTTON_PRESS, button, mods);
         }
     }
 
@@ -206,6 +201,7 @@ public final class CallbackEventAdapter {
      */
     public static void scrollCallback(final long window, final double xOffset,
             final double yOffset) {
-        EVENT_MANAGER.fire(new ScrollEvent(xOffset, yOffset));
+        INPUT.onScroll(xOffset, yOffset);
+        EVENT_QUEUE.post(EventQueue.SCROLL, xOffset, yOffset);
     }
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.event;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The generated listener dispatchers by listener class. The dispatchers are loaded with the
+ * {@link ServiceLoader} once, when the first listener is registered, so looking up a dispatcher
+ * is a single map lookup.
+ */
+final class DispatcherRegistry {
+
+    /**
+     * The logger for the dispatcher registry.
+     */
+    private static final Logger LOGGER = Logger.getLogger(DispatcherRegistry.class.getName());
+
+    /**
+     * The dispatchers by listener class.
+     */
+    private static final Map<Class<? extends Listener>, ListenerDispatcher> DISPATCHERS =
+            load();
+
+    /**
+     * Since this is a utility class, we do not want any outer classes creating an instance of it.
+     */
+    private DispatcherRegistry() {
+    }
+
+    /**
+     * Get the generated dispatcher of a listener class.
+     *
+     * @param listenerClass The listener class.
+     * @return The dispatcher, or {@code null} if none was generated for the class.
+     */
+    static ListenerDispatcher get(final Class<? extends Listener> listenerClass) {
+        return DISPATCHERS.get(listenerClass);
+    }
+
+    /**
+     * Load the generated dispatchers. Dispatchers that cannot be loaded are logged and skipped,
+     * so their listeners fall back to reflection.
+     *
+     * @return The dispatchers by listener class.
+     */
+    private static Map<Class<? extends Listener>, ListenerDispatcher> load() {
+        final Map<Class<? extends Listener>, ListenerDispatcher> dispatchers = new HashMap<>();
+        try {
+            for (final ListenerDispatcher dispatcher
+                    : ServiceLoader.load(ListenerDispatcher.class)) {
+                dispatchers.put(dispatcher.getListenerClass(), dispatcher);
+            }
+        } catch (final ServiceConfigurationError error) {
+            if (LOGGER.isLoggable(Level.WARNING)) {
+                LOGGER.log(Level.WARNING, "Failed to load the listener dispatchers.", error);
+            }
+        }
+        return Map.copyOf(dispatchers);
+    }
+}
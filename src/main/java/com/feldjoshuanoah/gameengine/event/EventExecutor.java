@@ -0,0 +1,33 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.event;
+
+/**
+ * Represents an event handler method bound to its listener. Executors are generated once when a
+ * listener is registered, so firing an event is a plain interface call instead of a reflective
+ * invocation.
+ */
+@FunctionalInterface
+public interface EventExecutor {
+
+    /**
+     * Call the event handler method with an event.
+     *
+     * @param event The event, which is an instance of the parameter type of the handler method.
+     * @throws Exception If the handler method throws an exception.
+     */
+    void execute(Event event) throws Exception;
+}
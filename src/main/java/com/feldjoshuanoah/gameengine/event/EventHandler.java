@@ -26,4 +26,14 @@ import java.lang.annotation.Target;
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface EventHandler {
+
+    /**
+     * Whether the handler is called on a background thread instead of the thread that fires the
+     * event. The asynchronous handlers of a listener receive the events in the order they were
+     * fired. The event must not be mutated or reused after it was fired, so asynchronous
+     * handlers must not be combined with the pooled mode of the event queue.
+     *
+     * @return {@code true} if the handler is asynchronous.
+     */
+    boolean async() default false;
 }
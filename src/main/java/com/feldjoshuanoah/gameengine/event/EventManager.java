@@ -15,14 +15,39 @@
  */
 package com.feldjoshuanoah.gameengine.event;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.ref.ReferenceQueue;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * A manager that handles the events and listeners.
+ * A manager that handles the events and listeners. The handlers for every concrete event class,
+ * including the handlers of its supertypes, are flattened into an array the first time an event
+ * of the class is fired. The arrays are discarded whenever the registered listeners change.
+ *
+ * <p>The registered listeners are kept in a copy-on-write array. Registering and unregistering
+ * replace the array and the dispatch table under a lock, while firing reads both without locking,
+ * so handlers may register or unregister listeners while an event is being fired. The firing
+ * continues with the handlers that were registered when it started. Weakly registered listeners
+ * are removed automatically once they have been garbage collected.
+ *
+ * <p>Handlers marked as {@link EventHandler#async() asynchronous} run on a fixed pool of daemon
+ * threads. Firing only queues their deliveries, so the firing thread never waits for them. Each
+ * listener has its own mailbox, which keeps the deliveries to a listener in order. Events that
+ * are reused once firing returns, such as the pooled events of an {@link EventQueue}, are copied
+ * for asynchronous handlers.
+ *
+ * <p>The {@link EventMetrics dispatch metrics} are applied when the dispatch table is built, so
+ * firing takes the same path whether they are enabled or not.
  */
 public final class EventManager {
 
@@ -32,15 +57,87 @@ public final class EventManager {
     private static final Logger LOGGER = Logger.getLogger(EventManager.class.getName());
 
     /**
-     * The registered listeners.
+     * The number of threads the asynchronous handlers run on by default.
+     */
+    private static final int DEFAULT_ASYNC_THREADS = 2;
+
+    /**
+     * The number of seconds to wait for the pending asynchronous deliveries on shutdown.
+     */
+    private static final long SHUTDOWN_TIMEOUT = 5L;
+
+    /**
+     * An empty array of registered listeners.
+     */
+    private static final RegisteredListener[] NO_LISTENERS = new RegisteredListener[0];
+
+    /**
+     * The lock that is held while the registered listeners are changed.
+     */
+    private final Object lock;
+
+    /**
+     * The registered listeners, in registration order. The array is never modified, only
+     * replaced.
+     */
+    private volatile RegisteredListener[] listeners;
+
+    /**
+     * The executors of the handlers for every concrete event class that has been fired, in
+     * registration order. The table is replaced whenever the registered listeners change.
+     */
+    private volatile Map<Class<? extends Event>, EventExecutor[]> dispatchTable;
+
+    /**
+     * The queue the references to weakly registered listeners are enqueued in once the listeners
+     * have been garbage collected.
+     */
+    private final ReferenceQueue<Listener> collected;
+
+    /**
+     * The executor the asynchronous handlers run on.
+     */
+    private final ExecutorService asyncExecutor;
+
+    /**
+     * The number of pending asynchronous deliveries.
      */
-    private final List<RegisteredListener> listeners;
+    private final AtomicInteger asyncBacklog;
+
+    /**
+     * The dispatch metrics.
+     */
+    private final EventMetrics metrics;
 
     /**
      * Create a new event manager.
      */
     public EventManager() {
-        listeners = new ArrayList<>();
+        this(DEFAULT_ASYNC_THREADS);
+    }
+
+    /**
+     * Create a new event manager.
+     *
+     * @param asyncThreads The number of threads the asynchronous handlers run on.
+     * @throws IllegalArgumentException If the number of threads is not positive.
+     */
+    public EventManager(final int asyncThreads) {
+        if (asyncThreads <= 0) {
+            throw new IllegalArgumentException("The number of threads must be positive");
+        }
+        lock = new Object();
+        listeners = NO_LISTENERS;
+        dispatchTable = new ConcurrentHashMap<>();
+        collected = new ReferenceQueue<>();
+        final AtomicInteger threads = new AtomicInteger();
+        asyncExecutor = Executors.newFixedThreadPool(asyncThreads, runnable -> {
+            final Thread thread = new Thread(runnable, "event-async-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        asyncBacklog = new AtomicInteger();
+        metrics = new EventMetrics(this);
     }
 
     /**
@@ -49,17 +146,33 @@ public final class EventManager {
      * @param event The event to fire.
      */
     public void fire(final Event event) {
-        listeners.forEach(listener -> listener.getHandlers().stream().filter(
-                handler -> handler.getParameterTypes()[0].isAssignableFrom(event.getClass()))
-                .forEach(handler -> {
-            try {
-                handler.invoke(listener.getListener(), event);
-            } catch (final IllegalAccessException | InvocationTargetException exception) {
-                if (LOGGER.isLoggable(Level.SEVERE)) {
-                    LOGGER.log(Level.SEVERE, "Failed to fire an event.", exception);
-                }
-            }
-        }));
+        fire(event, null);
+    }
+
+    /**
+     * Fire an event that is reused once firing returns. Synchronous handlers receive the event
+     * itself, while every asynchronous handler receives a copy, since it runs later.
+     *
+     * @param event The event to fire.
+     * @param copier The function that copies the event, or {@code null} if the event is not
+     *               reused.
+     */
+    void fire(final Event event, final UnaryOperator<Event> copier) {
+        if (collected.poll() != null) {
+            purge();
+        }
+        // The table is read before the listeners, so a table that is built from outdated
+        // listeners always belongs to a table that has already been replaced.
+        final Map<Class<? extends Event>, EventExecutor[]> table = dispatchTable;
+        EventExecutor[] executors = table.get(event.getClass());
+        if (executors == null) {
+            executors = resolve(event.getClass());
+            table.put(event.getClass(), executors);
+        }
+        for (final EventExecutor executor : executors) {
+            execute(executor, copier != null && ListenerMailbox.isPosting(executor)
+                    ? copier.apply(event) : event);
+        }
     }
 
     /**
@@ -68,6 +181,168 @@ public final class EventManager {
      * @param listener The listener to register.
      */
     public void register(final Listener listener) {
-        listeners.add(new RegisteredListener(listener));
+        add(new RegisteredListener(listener));
+    }
+
+    /**
+     * Register a listener with its handlers without keeping it reachable. The listener is
+     * unregistered automatically once it has been garbage collected, which suits listeners whose
+     * lifetime is bound to a scene.
+     *
+     * @param listener The listener to register.
+     */
+    public void registerWeak(final Listener listener) {
+        add(new RegisteredListener(listener, collected));
+    }
+
+    /**
+     * Unregister every registration of a listener. Unregistering a listener that is not
+     * registered has no effect.
+     *
+     * @param listener The listener to unregister.
+     */
+    public void unregister(final Listener listener) {
+        synchronized (lock) {
+            final List<RegisteredListener> remaining = new ArrayList<>(listeners.length);
+            for (final RegisteredListener registeredListener : listeners) {
+                if (registeredListener.getListener() != listener) {
+                    remaining.add(registeredListener);
+                }
+            }
+            replace(remaining);
+        }
+    }
+
+    /**
+     * Get the number of asynchronous deliveries that have been queued but not yet handled.
+     *
+     * @return The asynchronous backlog.
+     */
+    public int getAsyncBacklog() {
+        return asyncBacklog.get();
+    }
+
+    /**
+     * Get the dispatch metrics, which are disabled initially.
+     *
+     * @return The metrics.
+     */
+    public EventMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Stop the threads of the asynchronous handlers, waiting a few seconds for the pending
+     * deliveries. Events fired afterwards are not delivered to asynchronous handlers.
+     */
+    public void shutdown() {
+        asyncExecutor.shutdown();
+        try {
+            if (!asyncExecutor.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS)
+                    && LOGGER.isLoggable(Level.WARNING)) {
+                LOGGER.log(Level.WARNING, "Dropping {0} asynchronous event deliveries.",
+                        asyncBacklog.get());
+            }
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Add a registered listener, creating its mailbox if it has asynchronous handlers. The
+     * mailbox is set before the listener is published, so every dispatch table that contains the
+     * listener sees it.
+     *
+     * @param registeredListener The registered listener.
+     */
+    private void add(final RegisteredListener registeredListener) {
+        for (final RegisteredHandler handler : registeredListener.getHandlers()) {
+            if (handler.isAsync()) {
+                registeredListener.setMailbox(new ListenerMailbox(asyncExecutor, asyncBacklog));
+                break;
+            }
+        }
+        synchronized (lock) {
+            final List<RegisteredListener> registeredListeners =
+                    new ArrayList<>(Arrays.asList(listeners));
+            registeredListeners.add(registeredListener);
+            replace(registeredListeners);
+        }
+    }
+
+    /**
+     * Remove the weakly registered listeners that have been garbage collected.
+     */
+    private void purge() {
+        synchronized (lock) {
+            while (collected.poll() != null) {
+                // The listeners are found by their cleared references below.
+            }
+            final List<RegisteredListener> remaining = new ArrayList<>(listeners.length);
+            for (final RegisteredListener registeredListener : listeners) {
+                if (registeredListener.getListener() != null) {
+                    remaining.add(registeredListener);
+                }
+            }
+            replace(remaining);
+        }
+    }
+
+    /**
+     * Discard the dispatch table, so it is rebuilt with the current metrics settings.
+     */
+    void invalidate() {
+        synchronized (lock) {
+            dispatchTable = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * Replace the registered listeners and discard the dispatch table. The lock must be held.
+     *
+     * @param registeredListeners The new registered listeners.
+     */
+    private void replace(final List<RegisteredListener> registeredListeners) {
+        listeners = registeredListeners.toArray(NO_LISTENERS);
+        dispatchTable = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Collect the executors of all handlers that accept events of a class.
+     *
+     * @param eventClass The concrete event class.
+     * @return The executors, in registration order.
+     */
+    private EventExecutor[] resolve(final Class<? extends Event> eventClass) {
+        final List<EventExecutor> executors = new ArrayList<>();
+        for (final RegisteredListener listener : listeners) {
+            for (final RegisteredHandler handler : listener.getHandlers()) {
+                if (handler.getEventType().isAssignableFrom(eventClass)) {
+                    final EventExecutor executor = metrics.isEnabled()
+                            ? metrics.instrument(handler, handler.getExecutor())
+                            : handler.getExecutor();
+                    executors.add(handler.isAsync() ? listener.getMailbox().wrap(executor)
+                            : executor);
+                }
+            }
+        }
+        return executors.toArray(new EventExecutor[0]);
+    }
+
+    /**
+     * Call an event handler, logging the exceptions it throws so that the remaining handlers
+     * still receive the event.
+     *
+     * @param executor The executor of the handler.
+     * @param event The event.
+     */
+    private static void execute(final EventExecutor executor, final Event event) {
+        try {
+            executor.execute(event);
+        } catch (final Exception exception) {
+            if (LOGGER.isLoggable(Level.SEVERE)) {
+                LOGGER.log(Level.SEVERE, "Failed to fire an event.", exception);
+            }
+        }
     }
 }
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.event;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * The dispatch metrics of an event manager. While the metrics are enabled, the executors in the
+ * dispatch table are wrapped in executors that count the invocations of every handler method and
+ * record their latencies in a {@link LatencyHistogram}. While they are disabled, the dispatch
+ * table contains the plain executors, so the metrics cost nothing. The measurements of all
+ * listeners of a class are combined per handler method.
+ */
+public final class EventMetrics implements EventMetricsMXBean {
+
+    /**
+     * The logger for the event metrics.
+     */
+    private static final Logger LOGGER = Logger.getLogger(EventMetrics.class.getName());
+
+    /**
+     * The name the metrics are registered with on the platform MBean server.
+     */
+    private static final String OBJECT_NAME = "com.feldjoshuanoah.gameengine:type=EventMetrics";
+
+    /**
+     * The event manager.
+     */
+    private final EventManager eventManager;
+
+    /**
+     * The latency histograms of the handler methods by name.
+     */
+    private final Map<String, LatencyHistogram> histograms;
+
+    /**
+     * The source of the number of records waiting in the event queue, or {@code null}.
+     */
+    private volatile IntSupplier queueDepth;
+
+    /**
+     * Whether the handler invocations are measured.
+     */
+    private volatile boolean enabled;
+
+    /**
+     * The name the metrics are registered with, or {@code null} if they are not registered.
+     */
+    private ObjectName objectName;
+
+    /**
+     * Create new event metrics.
+     *
+     * @param eventManager The event manager.
+     */
+    EventMetrics(final EventManager eventManager) {
+        this.eventManager = eventManager;
+        histograms = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(final boolean enabled) {
+        if (this.enabled != enabled) {
+            this.enabled = enabled;
+            eventManager.invalidate();
+        }
+    }
+
+    /**
+     * Set the source of the number of records waiting in the event queue. The source is read
+     * from the monitoring thread, so the depth is approximate.
+     *
+     * @param queueDepth The source, or {@code null} if there is no event queue.
+     */
+    public void setQueueDepthSource(final IntSupplier queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    @Override
+    public int getQueueDepth() {
+        final IntSupplier source = queueDepth;
+        return source == null ? 0 : source.getAsInt();
+    }
+
+    @Override
+    public int getAsyncBacklog() {
+        return eventManager.getAsyncBacklog();
+    }
+
+    @Override
+    public List<HandlerStatistics> getHandlerStatistics() {
+        final List<HandlerStatistics> statistics = new ArrayList<>(histograms.size());
+        histograms.forEach((name, histogram) ->
+                statistics.add(new HandlerStatistics(name, histogram)));
+        statistics.sort(Comparator.comparing(HandlerStatistics::getName));
+        return statistics;
+    }
+
+    @Override
+    public void reset() {
+        histograms.values().forEach(LatencyHistogram::reset);
+    }
+
+    /**
+     * Register the metrics on the platform MBean server, so they can be inspected with JMX
+     * clients. Registering them again has no effect. A failure, such as the metrics of another
+     * event manager being registered already, is logged and otherwise ignored.
+     */
+    public synchronized void registerMBean() {
+        if (objectName != null) {
+            return;
+        }
+        try {
+            final ObjectName name = new ObjectName(OBJECT_NAME);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            objectName = name;
+        } catch (final JMException exception) {
+            if (LOGGER.isLoggable(Level.WARNING)) {
+                LOGGER.log(Level.WARNING, "Failed to register the event metrics.", exception);
+            }
+        }
+    }
+
+    /**
+     * Unregister the metrics from the platform MBean server, so the metrics of another event
+     * manager can be registered. Unregistering metrics that are not registered has no effect.
+     */
+    public synchronized void unregisterMBean() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (final JMException exception) {
+            if (LOGGER.isLoggable(Level.WARNING)) {
+                LOGGER.log(Level.WARNING, "Failed to unregister the event metrics.", exception);
+            }
+        }
+        objectName = null;
+    }
+
+    /**
+     * Return {@code true} if the metrics are registered on the platform MBean server.
+     *
+     * @return {@code true} if the metrics are registered.
+     */
+    public synchronized boolean isMBeanRegistered() {
+        return objectName != null;
+    }
+
+    /**
+     * Wrap the executor of a handler in an executor that measures its invocations.
+     *
+     * @param handler The handler.
+     * @param executor The executor of the handler.
+     * @return The measuring executor.
+     */
+    EventExecutor instrument(final RegisteredHandler handler, final EventExecutor executor) {
+        final LatencyHistogram histogram = histograms.computeIfAbsent(handler.getName(),
+                name -> new LatencyHistogram());
+        return event -> {
+            final long start = System.nanoTime();
+            try {
+                executor.execute(event);
+            } finally {
+                histogram.record(System.nanoTime() - start);
+            }
+        };
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.event;
+
+import java.util.List;
+
+/**
+ * The management interface of the event dispatch metrics.
+ */
+public interface EventMetricsMXBean {
+
+    /**
+     * Return {@code true} if the handler invocations are measured.
+     *
+     * @return {@code true} if the metrics are enabled.
+     */
+    boolean isEnabled();
+
+    /**
+     * Set whether the handler invocations are measured.
+     *
+     * @param enabled {@code true} to enable the metrics.
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * Get the number of records waiting in the event queue.
+     *
+     * @return The queue depth.
+     */
+    int getQueueDepth();
+
+    /**
+     * Get the number of asynchronous deliveries that have been queued but not yet handled.
+     *
+     * @return The asynchronous backlog.
+     */
+    int getAsyncBacklog();
+
+    /**
+     * Get a snapshot of the metrics of every measured handler method.
+     *
+     * @return The handler statistics, sorted by name.
+     */
+    List<HandlerStatistics> getHandlerStatistics();
+
+    /**
+     * Remove all recorded measurements.
+     */
+    void reset();
+}
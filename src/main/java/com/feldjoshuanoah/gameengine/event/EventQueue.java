@@ -0,0 +1,563 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.event;
+
+import com.feldjoshuanoah.gameengine.event.input.keyboard.KeyEventPool;
+import com.feldjoshuanoah.gameengine.event.input.keyboard.KeyPressEvent;
+import com.feldjoshuanoah.gameengine.event.input.keyboard.KeyReleaseEvent;
+import com.feldjoshuanoah.gameengine.event.input.keyboard.KeyRepeatEvent;
+import com.feldjoshuanoah.gameengine.event.input.mouse.ButtonPressEvent;
+import com.feldjoshuanoah.gameengine.event.input.mouse.ButtonReleaseEvent;
+import com.feldjoshuanoah.gameengine.event.input.mouse.CursorEnterEvent;
+import com.feldjoshuanoah.gameengine.event.input.mouse.CursorLeaveEvent;
+import com.feldjoshuanoah.gameengine.event.input.mouse.CursorMoveEvent;
+import com.feldjoshuanoah.gameengine.event.input.mouse.MouseEventPool;
+import com.feldjoshuanoah.gameengine.event.input.mouse.ScrollEvent;
+import com.feldjoshuanoah.gameengine.event.window.WindowCloseEvent;
+import com.feldjoshuanoah.gameengine.event.window.WindowEventPool;
+import com.feldjoshuanoah.gameengine.event.window.WindowGainFocusEvent;
+import com.feldjoshuanoah.gameengine.event.window.WindowIconifyEvent;
+import com.feldjoshuanoah.gameengine.event.window.WindowLoseFocusEvent;
+import com.feldjoshuanoah.gameengine.event.window.WindowMaximizeEvent;
+import com.feldjoshuanoah.gameengine.event.window.WindowMoveEvent;
+import com.feldjoshuanoah.gameengine.event.window.WindowRefreshEvent;
+import com.feldjoshuanoah.gameengine.event.window.WindowResizeEvent;
+import com.feldjoshuanoah.gameengine.event.window.WindowRestoreEvent;
+
+import com.feldjoshuanoah.gameengine.input.InputRecorder;
+
+import java.util.Arrays;
+import java.util.function.UnaryOperator;
+
+/**
+ * A queue of the events reported by the GLFW callbacks. Every event is stored as a primitive
+ * record in a ring buffer: a type and up to {@link #RECORD_SIZE} values. The records are turned
+ * into events and fired when the queue is drained.
+ *
+ * <p>In queued mode the queue is drained once per tick. Cursor move, scroll and window resize
+ * events are coalesced: a new record of such a type is merged into the latest record of the same
+ * type unless a discrete record, such as a key press, was added after it. Cursor moves keep the
+ * previous position of the first move, scrolls accumulate their offsets and resizes keep the
+ * latest size, so discrete events keep their order relative to everything else. In direct mode
+ * every record is fired as soon as it is added.
+ *
+ * <p>In pooled mode the queue keeps one event per record type and refills it for every record
+ * instead of allocating a new event, so dispatching input produces no garbage. The events with
+ * data are refilled by the event pools of their packages, which are the only code that can change
+ * them. A pooled event is only valid until the handler that received it returns. Listeners that
+ * need the data later must copy it out of the event instead of keeping a reference to it, while
+ * asynchronous handlers receive a newly allocated copy of the event.
+ *
+ * <p>If a recorder is set, every posted record is written to it before it is coalesced, so a
+ * replay posts the same records and coalesces them the same way.
+ *
+ * <p>The queue is not thread-safe. Records are added by the GLFW callbacks, which run on the main
+ * thread, and the queue must be drained on that thread as well.
+ */
+public final class EventQueue {
+
+    /**
+     * The record type of a {@link WindowMoveEvent}.
+     */
+    public static final int WINDOW_MOVE = 0;
+
+    /**
+     * The record type of a {@link WindowResizeEvent}.
+     */
+    public static final int WINDOW_RESIZE = 1;
+
+    /**
+     * The record type of a {@link WindowCloseEvent}.
+     */
+    public static final int WINDOW_CLOSE = 2;
+
+    /**
+     * The record type of a {@link WindowRefreshEvent}.
+     */
+    public static final int WINDOW_REFRESH = 3;
+
+    /**
+     * The record type of a {@link WindowGainFocusEvent}.
+     */
+    public static final int WINDOW_GAIN_FOCUS = 4;
+
+    /**
+     * The record type of a {@link WindowLoseFocusEvent}.
+     */
+    public static final int WINDOW_LOSE_FOCUS = 5;
+
+    /**
+     * The record type of a {@link WindowIconifyEvent}.
+     */
+    public static final int WINDOW_ICONIFY = 6;
+
+    /**
+     * The record type of a {@link WindowMaximizeEvent}.
+     */
+    public static final int WINDOW_MAXIMIZE = 7;
+
+    /**
+     * The record type of a {@link WindowRestoreEvent}.
+     */
+    public static final int WINDOW_RESTORE = 8;
+
+    /**
+     * The record type of a {@link KeyPressEvent}.
+     */
+    public static final int KEY_PRESS = 9;
+
+    /**
+     * The record type of a {@link KeyReleaseEvent}.
+     */
+    public static final int KEY_RELEASE = 10;
+
+    /**
+     * The record type of a {@link KeyRepeatEvent}.
+     */
+    public static final int KEY_REPEAT = 11;
+
+    /**
+     * The record type of a {@link CursorMoveEvent}.
+     */
+    public static final int CURSOR_MOVE = 12;
+
+    /**
+     * The record type of a {@link CursorEnterEvent}.
+     */
+    public static final int CURSOR_ENTER = 13;
+
+    /**
+     * The record type of a {@link CursorLeaveEvent}.
+     */
+    public static final int CURSOR_LEAVE = 14;
+
+    /**
+     * The record type of a {@link ButtonPressEvent}.
+     */
+    public static final int BUTTON_PRESS = 15;
+
+    /**
+     * The record type of a {@link ButtonReleaseEvent}.
+     */
+    public static final int BUTTON_RELEASE = 16;
+
+    /**
+     * The record type of a {@link ScrollEvent}.
+     */
+    public static final int SCROLL = 17;
+
+    /**
+     * The number of record types.
+     */
+    public static final int TYPE_COUNT = 18;
+
+    /**
+     * The maximum number of values of a record.
+     */
+    public static final int RECORD_SIZE = 4;
+
+    /**
+     * The number of records the queue can hold initially.
+     */
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * The event manager the events are fired with.
+     */
+    private final EventManager eventManager;
+
+    /**
+     * The reusable event of every record type without data, created when it is first needed in
+     * pooled mode.
+     */
+    private final Event[] pool;
+
+    /**
+     * The reusable key events.
+     */
+    private final KeyEventPool keyEvents;
+
+    /**
+     * The reusable mouse events.
+     */
+    private final MouseEventPool mouseEvents;
+
+    /**
+     * The reusable window events.
+     */
+    private final WindowEventPool windowEvents;
+
+    /**
+     * The function that copies the pooled event of the record being drained for the asynchronous
+     * handlers.
+     */
+    private final UnaryOperator<Event> copier;
+
+    /**
+     * The type of the record being drained.
+     */
+    private int currentType;
+
+    /**
+     * The values of the record being drained.
+     */
+    private final double[] current;
+
+    /**
+     * The sequence number of the latest record of every type, or {@code -1} if there is none.
+     */
+    private final long[] latest;
+
+    /**
+     * The types of the records.
+     */
+    private int[] types;
+
+    /**
+     * The values of the records, {@link #RECORD_SIZE} per record.
+     */
+    private double[] values;
+
+    /**
+     * The sequence number of the first queued record.
+     */
+    private long head;
+
+    /**
+     * The sequence number after the last queued record.
+     */
+    private long tail;
+
+    /**
+     * The sequence number after the last discrete record. Records before it cannot be coalesced.
+     */
+    private long barrier;
+
+    /**
+     * Whether records are queued until the queue is drained instead of being fired immediately.
+     */
+    private boolean queued;
+
+    /**
+     * Whether the events are reused instead of being allocated for every record.
+     */
+    private boolean pooled;
+
+    /**
+     * Whether the queue is being drained.
+     */
+    private boolean draining;
+
+    /**
+     * The recorder the posted records are written to, or {@code null}.
+     */
+    private InputRecorder recorder;
+
+    /**
+     * Create a new event queue in direct mode.
+     *
+     * @param eventManager The event manager to fire the events with.
+     */
+    public EventQueue(final EventManager eventManager) {
+        this.eventManager = eventManager;
+        pool = new Event[TYPE_COUNT];
+        keyEvents = new KeyEventPool();
+        mouseEvents = new MouseEventPool();
+        windowEvents = new WindowEventPool();
+        current = new double[RECORD_SIZE];
+        copier = event -> createEvent(currentType, current[0], current[1], current[2],
+                current[3]);
+        latest = new long[TYPE_COUNT];
+        Arrays.fill(latest, -1L);
+        types = new int[INITIAL_CAPACITY];
+        values = new double[INITIAL_CAPACITY * RECORD_SIZE];
+    }
+
+    /**
+     * Add a record without values.
+     *
+     * @param type The record type.
+     */
+    public void post(final int type) {
+        post(type, 0.0, 0.0, 0.0, 0.0);
+    }
+
+    /**
+     * Add a record with two values.
+     *
+     * @param type The record type.
+     * @param first The first value.
+     * @param second The second value.
+     */
+    public void post(final int type, final double first, final double second) {
+        post(type, first, second, 0.0, 0.0);
+    }
+
+    /**
+     * Add a record. In queued mode, cursor move, scroll and window resize records may be merged
+     * into an earlier record of the same type. In direct mode, the record is fired immediately.
+     *
+     * @param type The record type.
+     * @param first The first value.
+     * @param second The second value.
+     * @param third The third value.
+     * @param fourth The fourth value.
+     * @throws IllegalArgumentException If the record type is unknown.
+     */
+    public void post(final int type, final double first, final double second, final double third,
+            final double fourth) {
+        if (type < 0 || type >= TYPE_COUNT) {
+            throw new IllegalArgumentException("Unknown record type " + type);
+        }
+        if (recorder != null) {
+            recorder.record(type, first, second, third, fourth);
+        }
+        if (queued && coalesce(type, first, second)) {
+            return;
+        }
+        if (tail - head == types.length) {
+            grow();
+        }
+        final int index = (int) (tail & (types.length - 1));
+        types[index] = type;
+        final int offset = index * RECORD_SIZE;
+        values[offset] = first;
+        values[offset + 1] = second;
+        values[offset + 2] = third;
+        values[offset + 3] = fourth;
+        latest[type] = tail;
+        tail++;
+        if (!isCoalescable(type)) {
+            barrier = tail;
+        }
+        if (!queued) {
+            drain();
+        }
+    }
+
+    /**
+     * Fire the events of all queued records in the order they were added. Records that are
+     * posted by a handler while the queue is being drained are fired after the current event has
+     * been handled, so a pooled event is never refilled while it is being dispatched.
+     */
+    public void drain() {
+        if (draining) {
+            return;
+        }
+        draining = true;
+        try {
+            while (head < tail) {
+                final int index = (int) (head & (types.length - 1));
+                final int offset = index * RECORD_SIZE;
+                final int type = types[index];
+                head++;
+                final double first = values[offset];
+                final double second = values[offset + 1];
+                final double third = values[offset + 2];
+                final double fourth = values[offset + 3];
+                if (pooled) {
+                    currentType = type;
+                    System.arraycopy(values, offset, current, 0, RECORD_SIZE);
+                    eventManager.fire(reuseEvent(type, first, second, third, fourth), copier);
+                } else {
+                    eventManager.fire(createEvent(type, first, second, third, fourth));
+                }
+            }
+        } finally {
+            draining = false;
+        }
+    }
+
+    /**
+     * Get the number of queued records.
+     *
+     * @return The number of records.
+     */
+    public int size() {
+        return (int) (tail - head);
+    }
+
+    /**
+     * Return {@code true} if records are queued until the queue is drained.
+     *
+     * @return {@code true} if the queue is in queued mode.
+     */
+    public boolean isQueued() {
+        return queued;
+    }
+
+    /**
+     * Set whether records are queued until the queue is drained. Leaving queued mode drains the
+     * queue.
+     *
+     * @param queued {@code true} to queue records, {@code false} to fire them immediately.
+     */
+    public void setQueued(final boolean queued) {
+        this.queued = queued;
+        if (!queued) {
+            drain();
+        }
+    }
+
+    /**
+     * Return {@code true} if the events are reused instead of being allocated for every record.
+     *
+     * @return {@code true} if the queue is in pooled mode.
+     */
+    public boolean isPooled() {
+        return pooled;
+    }
+
+    /**
+     * Set whether the events are reused instead of being allocated for every record. In pooled
+     * mode, listeners must not retain an event after their handler returns. Asynchronous
+     * handlers are not affected, since they receive a copy.
+     *
+     * @param pooled {@code true} to reuse the events, {@code false} to allocate them.
+     */
+    public void setPooled(final boolean pooled) {
+        this.pooled = pooled;
+    }
+
+    /**
+     * Set the recorder the posted records are written to.
+     *
+     * @param recorder The recorder, or {@code null} to stop recording.
+     */
+    public void setRecorder(final InputRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Create the event of a record.
+     *
+     * @param type The record type.
+     * @param first The first value.
+     * @param second The second value.
+     * @param third The third value.
+     * @param fourth The fourth value.
+     * @return The event.
+     * @throws IllegalArgumentException If the record type is unknown.
+     */
+    public static Event createEvent(final int type, final double first, final double second,
+            final double third, final double fourth) {
+        return switch (type) {
+            case WINDOW_MOVE -> new WindowMoveEvent((int) first, (int) second);
+            case WINDOW_RESIZE -> new WindowResizeEvent((int) first, (int) second);
+            case WINDOW_CLOSE -> new WindowCloseEvent();
+            case WINDOW_REFRESH -> new WindowRefreshEvent();
+            case WINDOW_GAIN_FOCUS -> new WindowGainFocusEvent();
+            case WINDOW_LOSE_FOCUS -> new WindowLoseFocusEvent();
+            case WINDOW_ICONIFY -> new WindowIconifyEvent();
+            case WINDOW_MAXIMIZE -> new WindowMaximizeEvent();
+            case WINDOW_RESTORE -> new WindowRestoreEvent();
+            case KEY_PRESS -> new KeyPressEvent((int) first, (int) second, (int) third);
+            case KEY_RELEASE -> new KeyReleaseEvent((int) first, (int) second, (int) third);
+            case KEY_REPEAT -> new KeyRepeatEvent((int) first, (int) second, (int) third);
+            case CURSOR_MOVE -> new CursorMoveEvent(first, second, third, fourth);
+            case CURSOR_ENTER -> new CursorEnterEvent();
+            case CURSOR_LEAVE -> new CursorLeaveEvent();
+            case BUTTON_PRESS -> new ButtonPressEvent((int) first, (int) second);
+            case BUTTON_RELEASE -> new ButtonReleaseEvent((int) first, (int) second);
+            case SCROLL -> new ScrollEvent(first, second);
+            default -> throw new IllegalArgumentException("Unknown record type " + type);
+        };
+    }
+
+    /**
+     * Refill the pooled event of a record type with the values of a record.
+     *
+     * @param type The record type.
+     * @param first The first value.
+     * @param second The second value.
+     * @param third The third value.
+     * @param fourth The fourth value.
+     * @return The pooled event.
+     */
+    private Event reuseEvent(final int type, final double first, final double second,
+            final double third, final double fourth) {
+        return switch (type) {
+            case WINDOW_MOVE -> windowEvents.move((int) first, (int) second);
+            case WINDOW_RESIZE -> windowEvents.resize((int) first, (int) second);
+            case KEY_PRESS -> keyEvents.press((int) first, (int) second, (int) third);
+            case KEY_RELEASE -> keyEvents.release((int) first, (int) second, (int) third);
+            case KEY_REPEAT -> keyEvents.repeat((int) first, (int) second, (int) third);
+            case CURSOR_MOVE -> mouseEvents.cursorMove(first, second, third, fourth);
+            case BUTTON_PRESS -> mouseEvents.buttonPress((int) first, (int) second);
+            case BUTTON_RELEASE -> mouseEvents.buttonRelease((int) first, (int) second);
+            case SCROLL -> mouseEvents.scroll(first, second);
+            default -> {
+                // The other events carry no data, so one instance of each is enough.
+                if (pool[type] == null) {
+                    pool[type] = createEvent(type, first, second, third, fourth);
+                }
+                yield pool[type];
+            }
+        };
+    }
+
+    /**
+     * Return {@code true} if records of a type may be merged.
+     *
+     * @param type The record type.
+     * @return {@code true} if the type is coalescable.
+     */
+    private static boolean isCoalescable(final int type) {
+        return type == CURSOR_MOVE || type == SCROLL || type == WINDOW_RESIZE;
+    }
+
+    /**
+     * Merge a record into the latest queued record of the same type if possible.
+     *
+     * @param type The record type.
+     * @param first The first value.
+     * @param second The second value.
+     * @return {@code true} if the record was merged.
+     */
+    private boolean coalesce(final int type, final double first, final double second) {
+        final long sequence = latest[type];
+        if (!isCoalescable(type) || sequence < head || sequence < barrier) {
+            return false;
+        }
+        final int offset = (int) (sequence & (types.length - 1)) * RECORD_SIZE;
+        if (type == SCROLL) {
+            values[offset] += first;
+            values[offset + 1] += second;
+        } else {
+            values[offset] = first;
+            values[offset + 1] = second;
+        }
+        return true;
+    }
+
+    /**
+     * Double the capacity of the ring buffer, keeping every record at its sequence number.
+     */
+    private void grow() {
+        final int capacity = types.length * 2;
+        final int[] newTypes = new int[capacity];
+        final double[] newValues = new double[capacity * RECORD_SIZE];
+        for (long sequence = head; sequence < tail; sequence++) {
+            final int from = (int) (sequence & (types.length - 1));
+            final int to = (int) (sequence & (capacity - 1));
+            newTypes[to] = types[from];
+            System.arraycopy(values, from * RECORD_SIZE, newValues, to * RECORD_SIZE,
+                    RECORD_SIZE);
+        }
+        types = newTypes;
+        values = newValues;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.event;
+
+/**
+ * Describes an event handler method of a listener class, independent of a listener instance.
+ */
+public final class HandlerDescriptor {
+
+    /**
+     * The name of the handler method, made of the listener class and the method.
+     */
+    private final String name;
+
+    /**
+     * The type of events the handler method accepts.
+     */
+    private final Class<? extends Event> eventType;
+
+    /**
+     * Whether the handler method is called on a background thread.
+     */
+    private final boolean async;
+
+    /**
+     * The executor that calls the handler method on a listener.
+     */
+    private final ListenerExecutor executor;
+
+    /**
+     * Create a new handler descriptor.
+     *
+     * @param name The name of the handler method, made of the listener class and the method.
+     * @param eventType The type of events the handler method accepts.
+     * @param async Whether the handler method is called on a background thread.
+     * @param executor The executor that calls the handler method on a listener.
+     */
+    public HandlerDescriptor(final String name, final Class<? extends Event> eventType,
+            final boolean async, final ListenerExecutor executor) {
+        this.name = name;
+        this.eventType = eventType;
+        this.async = async;
+        this.executor = executor;
+    }
+
+    /**
+     * Get the name of the handler method, made of the listener class and the method.
+     *
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the type of events the handler method accepts.
+     *
+     * @return The event type.
+     */
+    public Class<? extends Event> getEventType() {
+        return eventType;
+    }
+
+    /**
+     * Return {@code true} if the handler method is called on a background thread.
+     *
+     * @return {@code true} if the handler is asynchronous.
+     */
+    public boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * Get the executor that calls the handler method on a listener.
+     *
+     * @return The executor.
+     */
+    public ListenerExecutor getExecutor() {
+        return executor;
+    }
+}
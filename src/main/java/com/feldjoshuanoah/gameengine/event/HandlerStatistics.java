@@ -0,0 +1,121 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.event;
+
+/**
+ * Represents an immutable snapshot of the dispatch metrics of an event handler method.
+ */
+public final class HandlerStatistics {
+
+    /**
+     * The name of the handler method.
+     */
+    private final String name;
+
+    /**
+     * The number of invocations.
+     */
+    private final long count;
+
+    /**
+     * The mean latency, in nanoseconds.
+     */
+    private final double mean;
+
+    /**
+     * The median latency, in nanoseconds.
+     */
+    private final long median;
+
+    /**
+     * The 99th percentile of the latency, in nanoseconds.
+     */
+    private final long percentile99;
+
+    /**
+     * The maximum latency, in nanoseconds.
+     */
+    private final long max;
+
+    /**
+     * Create a new snapshot of the metrics of a handler method.
+     *
+     * @param name The name of the handler method.
+     * @param histogram The latency histogram of the handler method.
+     */
+    HandlerStatistics(final String name, final LatencyHistogram histogram) {
+        this.name = name;
+        count = histogram.getCount();
+        mean = histogram.getMean();
+        median = histogram.getValueAtPercentile(50.0);
+        percentile99 = histogram.getValueAtPercentile(99.0);
+        max = histogram.getMax();
+    }
+
+    /**
+     * Get the name of the handler method.
+     *
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the number of invocations.
+     *
+     * @return The count.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Get the mean latency.
+     *
+     * @return The mean latency, in nanoseconds.
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Get the median latency.
+     *
+     * @return The median latency, in nanoseconds.
+     */
+    public long getMedian() {
+        return median;
+    }
+
+    /**
+     * Get the 99th percentile of the latency.
+     *
+     * @return The 99th percentile, in nanoseconds.
+     */
+    public long getPercentile99() {
+        return percentile99;
+    }
+
+    /**
+     * Get the maximum latency.
+     *
+     * @return The maximum latency, in nanoseconds.
+     */
+    public long getMax() {
+        return max;
+    }
+}
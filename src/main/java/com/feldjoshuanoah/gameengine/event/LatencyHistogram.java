@@ -0,0 +1,179 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of latencies in nanoseconds with log-linear buckets, in the style of HdrHistogram.
+ * Every power of two is split into {@link #SUB_BUCKETS} linear buckets, so a recorded value is
+ * reported with a relative error of at most one in {@link #SUB_BUCKETS}. Recording does not
+ * allocate and may happen on any number of threads.
+ */
+public final class LatencyHistogram {
+
+    /**
+     * The number of bits of a value that select the linear bucket within its power of two.
+     */
+    private static final int SUB_BUCKET_BITS = 4;
+
+    /**
+     * The number of linear buckets per power of two.
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * The number of buckets, which covers every non-negative long.
+     */
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    /**
+     * The number of recorded values in every bucket.
+     */
+    private final AtomicLongArray counts;
+
+    /**
+     * The number of recorded values.
+     */
+    private final AtomicLong count;
+
+    /**
+     * The sum of the recorded values.
+     */
+    private final AtomicLong sum;
+
+    /**
+     * The largest recorded value.
+     */
+    private final AtomicLong max;
+
+    /**
+     * Create a new empty latency histogram.
+     */
+    public LatencyHistogram() {
+        counts = new AtomicLongArray(BUCKET_COUNT);
+        count = new AtomicLong();
+        sum = new AtomicLong();
+        max = new AtomicLong();
+    }
+
+    /**
+     * Record a latency. Negative latencies are recorded as zero.
+     *
+     * @param nanos The latency, in nanoseconds.
+     */
+    public void record(final long nanos) {
+        final long value = Math.max(0L, nanos);
+        counts.incrementAndGet(getBucket(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Get the number of recorded latencies.
+     *
+     * @return The count.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Get the mean of the recorded latencies.
+     *
+     * @return The mean, in nanoseconds, or {@code 0} if nothing was recorded.
+     */
+    public double getMean() {
+        final long recorded = count.get();
+        return recorded == 0L ? 0.0 : (double) sum.get() / recorded;
+    }
+
+    /**
+     * Get the largest recorded latency.
+     *
+     * @return The maximum, in nanoseconds.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Get the latency below or at which a percentage of the recorded latencies fall.
+     *
+     * @param percentile The percentage, in the range [0, 100].
+     * @return The largest latency of the bucket containing the percentile, in nanoseconds, or
+     *         {@code 0} if nothing was recorded.
+     */
+    public long getValueAtPercentile(final double percentile) {
+        final long recorded = count.get();
+        if (recorded == 0L) {
+            return 0L;
+        }
+        final long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * recorded));
+        long seen = 0L;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                return Math.min(getHighestValue(bucket), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Remove all recorded latencies. Latencies recorded concurrently may be partially kept.
+     */
+    public void reset() {
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            counts.set(bucket, 0L);
+        }
+        count.set(0L);
+        sum.set(0L);
+        max.set(0L);
+    }
+
+    /**
+     * Get the bucket of a value.
+     *
+     * @param value The non-negative value.
+     * @return The bucket.
+     */
+    private static int getBucket(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        final int shift = exponent - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift & SUB_BUCKETS - 1);
+    }
+
+    /**
+     * Get the largest value of a bucket.
+     *
+     * @param bucket The bucket.
+     * @return The largest value.
+     */
+    private static long getHighestValue(final int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int shift = bucket / SUB_BUCKETS - 1;
+        final long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1L;
+    }
+}
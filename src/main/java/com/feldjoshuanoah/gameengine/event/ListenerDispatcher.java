@@ -0,0 +1,41 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.event;
+
+import java.util.List;
+
+/**
+ * Describes the handler methods of a listener class without reflection. Implementations are
+ * generated at compile time by the event dispatcher annotation processor, if the project enables
+ * it, and registered as services, so {@link EventManager#register(Listener)} can look them up by
+ * the listener class.
+ */
+public interface ListenerDispatcher {
+
+    /**
+     * Get the listener class whose handler methods are described.
+     *
+     * @return The listener class.
+     */
+    Class<? extends Listener> getListenerClass();
+
+    /**
+     * Get the handler methods of the listener class.
+     *
+     * @return The handler methods.
+     */
+    List<HandlerDescriptor> getHandlers();
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.event;
+
+/**
+ * Represents an event handler method that is not bound to its listener. Weakly registered
+ * listeners use these executors, so the executors do not keep the listeners reachable.
+ */
+@FunctionalInterface
+public interface ListenerExecutor {
+
+    /**
+     * Call the event handler method on a listener with an event.
+     *
+     * @param listener The listener, which is an instance of the class declaring the handler method.
+     * @param event The event, which is an instance of the parameter type of the handler method.
+     * @throws Exception If the handler method throws an exception.
+     */
+    void execute(Listener listener, Event event) throws Exception;
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.event;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A queue of the asynchronous deliveries to a single listener. At most one task of the mailbox
+ * runs on the executor at a time, so the asynchronous handlers of a listener receive the events
+ * one after another in the order they were fired, while different listeners run in parallel.
+ * Posting never blocks. Once the executor has been shut down, posted deliveries are dropped.
+ */
+final class ListenerMailbox {
+
+    /**
+     * The logger for the listener mailboxes.
+     */
+    private static final Logger LOGGER = Logger.getLogger(ListenerMailbox.class.getName());
+
+    /**
+     * The executor the deliveries run on.
+     */
+    private final Executor executor;
+
+    /**
+     * The number of pending deliveries of all mailboxes of the event manager.
+     */
+    private final AtomicInteger backlog;
+
+    /**
+     * The pending deliveries.
+     */
+    private final Queue<Runnable> deliveries;
+
+    /**
+     * Whether a task of the mailbox is scheduled or running.
+     */
+    private final AtomicBoolean scheduled;
+
+    /**
+     * Create a new listener mailbox.
+     *
+     * @param executor The executor the deliveries run on.
+     * @param backlog The number of pending deliveries of all mailboxes of the event manager.
+     */
+    ListenerMailbox(final Executor executor, final AtomicInteger backlog) {
+        this.executor = executor;
+        this.backlog = backlog;
+        deliveries = new ConcurrentLinkedQueue<>();
+        scheduled = new AtomicBoolean();
+    }
+
+    /**
+     * Create an executor that posts the events to the mailbox instead of calling a handler
+     * directly.
+     *
+     * @param handler The executor of the handler.
+     * @return The posting executor.
+     */
+    EventExecutor wrap(final EventExecutor handler) {
+        return new PostingExecutor(handler);
+    }
+
+    /**
+     * Return {@code true} if an executor posts the events to a mailbox, so the handler receives
+     * them after firing has returned.
+     *
+     * @param executor The executor.
+     * @return {@code true} if the executor was created by {@link #wrap}.
+     */
+    static boolean isPosting(final EventExecutor executor) {
+        return executor instanceof PostingExecutor;
+    }
+
+    /**
+     * Queue the delivery of an event to a handler and schedule the mailbox if it is idle.
+     *
+     * @param handler The executor of the handler.
+     * @param event The event.
+     */
+    void post(final EventExecutor handler, final Event event) {
+        backlog.incrementAndGet();
+        deliveries.offer(() -> deliver(handler, event));
+        schedule();
+    }
+
+    /**
+     * Submit a task that drains the mailbox unless one is already scheduled. If the executor
+     * rejects the task, the pending deliveries are dropped.
+     */
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (final RejectedExecutionException exception) {
+                drop(exception);
+            }
+        }
+    }
+
+    /**
+     * Drop the pending deliveries because the executor rejected the task that would run them. A
+     * delivery posted meanwhile is dropped by scheduling it again.
+     *
+     * @param exception The exception of the executor.
+     */
+    private void drop(final RejectedExecutionException exception) {
+        int dropped = 0;
+        while (deliveries.poll() != null) {
+            dropped++;
+        }
+        backlog.addAndGet(-dropped);
+        if (LOGGER.isLoggable(Level.WARNING)) {
+            LOGGER.log(Level.WARNING, "Dropped " + dropped
+                    + " asynchronous event deliveries after the shutdown.", exception);
+        }
+        scheduled.set(false);
+        if (!deliveries.isEmpty()) {
+            schedule();
+        }
+    }
+
+    /**
+     * Run the pending deliveries. A delivery posted after the queue was found empty schedules a
+     * new task, and so does a delivery left behind by an error thrown by a handler.
+     */
+    private void drain() {
+        try {
+            Runnable delivery;
+            while ((delivery = deliveries.poll()) != null) {
+                try {
+                    delivery.run();
+                } finally {
+                    backlog.decrementAndGet();
+                }
+            }
+        } finally {
+            scheduled.set(false);
+            if (!deliveries.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    /**
+     * Represents an executor that posts the events to the mailbox.
+     */
+    private final class PostingExecutor implements EventExecutor {
+
+        /**
+         * The executor of the handler.
+         */
+        private final EventExecutor handler;
+
+        /**
+         * Create a new posting executor.
+         *
+         * @param handler The executor of the handler.
+         */
+        PostingExecutor(final EventExecutor handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void execute(final Event event) {
+            post(handler, event);
+        }
+    }
+
+    /**
+     * Call a handler, logging the exceptions it throws.
+     *
+     * @param handler The executor of the handler.
+     * @param event The event.
+     */
+    private static void deliver(final EventExecutor handler, final Event event) {
+        try {
+            handler.execute(event);
+        } catch (final Exception exception) {
+            if (LOGGER.isLoggable(Level.SEVERE)) {
+                LOGGER.log(Level.SEVERE, "Failed to fire an event asynchronously.", exception);
+            }
+        }
+    }
+}
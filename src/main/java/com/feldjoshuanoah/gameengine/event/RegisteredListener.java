@@ -15,51 +15,293 @@
  */
 package com.feldjoshuanoah.gameengine.event;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
- * Represents a registered listener.
+ * Represents a registered listener. If a {@link ListenerDispatcher} was generated for the
+ * listener class at compile time, the handlers are taken from it without reflection. Otherwise
+ * the handler methods are looked up reflectively and an executor is generated for every handler
+ * method, using {@link LambdaMetafactory} where possible and a {@link MethodHandle} otherwise.
+ * The reflective handlers are generated once per listener class, so registering another listener
+ * of the class only binds the listener to the existing executors. A weakly registered listener is
+ * only referenced weakly, and its executors look it up on every call and do nothing once it has
+ * been garbage collected.
  */
 public class RegisteredListener {
 
     /**
-     * The listener.
+     * The logger for the registered listeners.
+     */
+    private static final Logger LOGGER = Logger.getLogger(RegisteredListener.class.getName());
+
+    /**
+     * The type of the unbound executor method.
+     */
+    private static final MethodType LISTENER_EXECUTE_TYPE = MethodType.methodType(void.class,
+            Listener.class, Event.class);
+
+    /**
+     * The reflectively found handlers by listener class.
+     */
+    private static final ClassValue<List<HandlerDescriptor>> HANDLERS = new ClassValue<>() {
+        @Override
+        protected List<HandlerDescriptor> computeValue(final Class<?> type) {
+            return findHandlers(type.asSubclass(Listener.class));
+        }
+    };
+
+    /**
+     * The listener, or {@code null} if it is registered weakly.
      */
     private final Listener listener;
 
+    /**
+     * The weak reference to the listener, or {@code null} if it is registered strongly.
+     */
+    private final WeakReference<Listener> reference;
+
     /**
      * The handlers of the listener.
      */
-    private final List<Method> handlers;
+    private final List<RegisteredHandler> handlers;
 
     /**
-     * Create a new registered listener.
+     * The mailbox of the asynchronous handlers, or {@code null} if the listener has none.
+     */
+    private ListenerMailbox mailbox;
+
+    /**
+     * Create a new registered listener that references the listener strongly.
      *
      * @param listener The listener.
+     * @throws IllegalArgumentException If a handler method does not take a single event.
      */
     public RegisteredListener(final Listener listener) {
-        this.listener = listener;
-        this.handlers = Arrays.stream(listener.getClass().getMethods())
-                .filter(method -> method.isAnnotationPresent(EventHandler.class)).toList();
+        this(listener, null);
+    }
+
+    /**
+     * Create a new registered listener.
+     *
+     * @param listener The listener.
+     * @param queue The queue the weak reference to the listener is enqueued in once the listener
+     *              has been garbage collected, or {@code null} to reference the listener strongly.
+     * @throws IllegalArgumentException If a handler method does not take a single event.
+     */
+    public RegisteredListener(final Listener listener,
+            final ReferenceQueue<? super Listener> queue) {
+        this.listener = queue == null ? listener : null;
+        reference = queue == null ? null : new WeakReference<>(listener, queue);
+        final ListenerDispatcher dispatcher = DispatcherRegistry.get(listener.getClass());
+        handlers = createHandlers(listener, dispatcher == null
+                ? HANDLERS.get(listener.getClass()) : dispatcher.getHandlers());
     }
 
     /**
      * Get the listener.
      *
-     * @return The listener.
+     * @return The listener, or {@code null} if it was registered weakly and has been garbage
+     *         collected.
      */
     public Listener getListener() {
-        return listener;
+        return reference == null ? listener : reference.get();
+    }
+
+    /**
+     * Return {@code true} if the listener is only referenced weakly.
+     *
+     * @return {@code true} if the listener is registered weakly.
+     */
+    public boolean isWeak() {
+        return reference != null;
     }
 
     /**
-     * Get the list of handler methods of the listener.
+     * Get the list of handlers of the listener.
      *
-     * @return The list of handler methods.
+     * @return The list of handlers.
      */
-    public List<Method> getHandlers() {
+    public List<RegisteredHandler> getHandlers() {
         return handlers;
     }
+
+    /**
+     * Get the mailbox of the asynchronous handlers.
+     *
+     * @return The mailbox, or {@code null} if the listener has no asynchronous handlers.
+     */
+    ListenerMailbox getMailbox() {
+        return mailbox;
+    }
+
+    /**
+     * Set the mailbox of the asynchronous handlers. The mailbox must be set before the listener
+     * is registered.
+     *
+     * @param mailbox The mailbox.
+     */
+    void setMailbox(final ListenerMailbox mailbox) {
+        this.mailbox = mailbox;
+    }
+
+    /**
+     * Create the handlers of a listener by binding it to the handlers of its class.
+     *
+     * @param target The listener.
+     * @param descriptors The handlers of the listener class.
+     * @return The handlers.
+     */
+    private List<RegisteredHandler> createHandlers(final Listener target,
+            final List<HandlerDescriptor> descriptors) {
+        final RegisteredHandler[] registeredHandlers = new RegisteredHandler[descriptors.size()];
+        for (int i = 0; i < registeredHandlers.length; i++) {
+            final HandlerDescriptor descriptor = descriptors.get(i);
+            final ListenerExecutor executor = descriptor.getExecutor();
+            registeredHandlers[i] = new RegisteredHandler(descriptor.getName(),
+                    descriptor.getEventType(), reference == null
+                            ? event -> executor.execute(target, event)
+                            : createWeakExecutor(reference, executor), descriptor.isAsync());
+        }
+        return List.of(registeredHandlers);
+    }
+
+    /**
+     * Look up the handler methods of a listener class reflectively and create their executors.
+     *
+     * @param listenerClass The listener class.
+     * @return The handlers.
+     * @throws IllegalArgumentException If a handler method does not take a single event.
+     */
+    private static List<HandlerDescriptor> findHandlers(
+            final Class<? extends Listener> listenerClass) {
+        final List<HandlerDescriptor> descriptors = new ArrayList<>();
+        for (final Method method : listenerClass.getMethods()) {
+            final EventHandler annotation = method.getAnnotation(EventHandler.class);
+            if (annotation != null) {
+                final Class<? extends Event> eventType = getEventType(method);
+                descriptors.add(new HandlerDescriptor(listenerClass.getName() + "#"
+                        + method.getName() + "(" + eventType.getSimpleName() + ")", eventType,
+                        annotation.async(), createListenerExecutor(listenerClass, method)));
+            }
+        }
+        return List.copyOf(descriptors);
+    }
+
+    /**
+     * Get the type of events a handler method accepts.
+     *
+     * @param method The handler method.
+     * @return The event type.
+     * @throws IllegalArgumentException If the handler method does not take a single event.
+     */
+    private static Class<? extends Event> getEventType(final Method method) {
+        final Class<?>[] parameterTypes = method.getParameterTypes();
+        if (parameterTypes.length != 1 || !Event.class.isAssignableFrom(parameterTypes[0])) {
+            throw new IllegalArgumentException("The event handler " + method
+                    + " must take a single event");
+        }
+        return parameterTypes[0].asSubclass(Event.class);
+    }
+
+    /**
+     * Create an executor that calls a handler method on a weakly referenced listener.
+     *
+     * @param reference The weak reference to the listener.
+     * @param executor The executor that calls the handler method on a listener.
+     * @return The executor, which does nothing once the listener has been garbage collected.
+     */
+    private static EventExecutor createWeakExecutor(final WeakReference<Listener> reference,
+            final ListenerExecutor executor) {
+        return event -> {
+            final Listener listener = reference.get();
+            if (listener != null) {
+                executor.execute(listener, event);
+            }
+        };
+    }
+
+    /**
+     * Create an executor that calls a handler method on any listener of a class.
+     *
+     * @param listenerClass The class of the listeners.
+     * @param method The handler method.
+     * @return The executor.
+     * @throws IllegalArgumentException If the handler method is not accessible.
+     */
+    private static ListenerExecutor createListenerExecutor(
+            final Class<? extends Listener> listenerClass, final Method method) {
+        final MethodHandles.Lookup lookup = getLookup(listenerClass);
+        final MethodHandle handle = unreflect(lookup, method);
+        try {
+            final CallSite site = LambdaMetafactory.metafactory(lookup, "execute",
+                    MethodType.methodType(ListenerExecutor.class), LISTENER_EXECUTE_TYPE, handle,
+                    handle.type().changeParameterType(0, listenerClass)
+                            .changeReturnType(void.class));
+            return (ListenerExecutor) site.getTarget().invoke();
+        } catch (final LambdaConversionException exception) {
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.log(Level.FINE, "Falling back to a method handle for " + method,
+                        exception);
+            }
+        } catch (final Throwable throwable) {
+            throw new IllegalStateException("Failed to create an executor for " + method,
+                    throwable);
+        }
+        final MethodHandle generic = handle.asType(LISTENER_EXECUTE_TYPE);
+        return (listener, event) -> {
+            try {
+                generic.invokeExact(listener, event);
+            } catch (final Exception | Error exception) {
+                throw exception;
+            } catch (final Throwable throwable) {
+                throw new IllegalStateException(throwable);
+            }
+        };
+    }
+
+    /**
+     * Get a lookup with access to the members of a listener class.
+     *
+     * @param listenerClass The listener class.
+     * @return The private lookup of the class, or the public lookup if the class is in a module
+     *         that is not open to the engine.
+     */
+    private static MethodHandles.Lookup getLookup(final Class<?> listenerClass) {
+        try {
+            return MethodHandles.privateLookupIn(listenerClass, MethodHandles.lookup());
+        } catch (final IllegalAccessException exception) {
+            // The lambda metafactory rejects a public lookup, so the method handle fallback is
+            // used.
+            return MethodHandles.publicLookup();
+        }
+    }
+
+    /**
+     * Get the method handle of a handler method.
+     *
+     * @param lookup The lookup.
+     * @param method The handler method.
+     * @return The method handle.
+     * @throws IllegalArgumentException If the handler method is not accessible.
+     */
+    private static MethodHandle unreflect(final MethodHandles.Lookup lookup, final Method method) {
+        try {
+            return lookup.unreflect(method);
+        } catch (final IllegalAccessException exception) {
+            throw new IllegalArgumentException("The event handler " + method
+                    + " is not accessible", exception);
+        }
+    }
 }
@@ -25,12 +25,12 @@ public class KeyEvent implements Event {
     /**
      * The keyboard key that was pressed or released.
      */
-    private final int key;
+    private int key;
 
     /**
      * The system-specific scancode of the key.
      */
-    private final int scanCode;
+    private int scanCode;
 
     /**
      * The key action.
@@ -40,7 +40,7 @@ public class KeyEvent implements Event {
     /**
      * Bit field describing which modifier keys were held down.
      */
-    private final int mods;
+    private int mods;
 
     /**
      * Create a new keyboard key event.
@@ -92,4 +92,18 @@ public class KeyEvent implements Event {
     public int getMods() {
         return mods;
     }
+
+    /**
+     * Overwrite the key, scancode and modifiers in place. The action stays, since the
+     * {@link KeyEventPool} keeps one event per action.
+     *
+     * @param key The keyboard key that was pressed or released.
+     * @param scanCode The system-specific scancode of the key.
+     * @param mods Bit field describing which modifier keys were held down.
+     */
+    void set(final int key, final int scanCode, final int mods) {
+        this.key = key;
+        this.scanCode = scanCode;
+        this.mods = mods;
+    }
 }
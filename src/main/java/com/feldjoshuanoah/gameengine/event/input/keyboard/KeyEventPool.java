@@ -0,0 +1,88 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.event.input.keyboard;
+
+/**
+ * Holds one key press, key release and key repeat event and refills them for every key record,
+ * so reporting keys allocates nothing. Only the events created by a pool can be refilled, and only
+ * by that pool, so events fired by anyone else stay unchanged. An event handed out by the pool is
+ * overwritten by the next key of the same action.
+ */
+public final class KeyEventPool {
+
+    /**
+     * The reusable key press event.
+     */
+    private final KeyPressEvent press;
+
+    /**
+     * The reusable key release event.
+     */
+    private final KeyReleaseEvent release;
+
+    /**
+     * The reusable key repeat event.
+     */
+    private final KeyRepeatEvent repeat;
+
+    /**
+     * Create a new key event pool.
+     */
+    public KeyEventPool() {
+        press = new KeyPressEvent(0, 0, 0);
+        release = new KeyReleaseEvent(0, 0, 0);
+        repeat = new KeyRepeatEvent(0, 0, 0);
+    }
+
+    /**
+     * Refill the key press event.
+     *
+     * @param key The key that was pressed.
+     * @param scanCode The system-specific scancode of the key.
+     * @param mods Bit field describing which modifier keys were held down.
+     * @return The pooled key press event.
+     */
+    public KeyPressEvent press(final int key, final int scanCode, final int mods) {
+        press.set(key, scanCode, mods);
+        return press;
+    }
+
+    /**
+     * Refill the key release event.
+     *
+     * @param key The key that was released.
+     * @param scanCode The system-specific scancode of the key.
+     * @param mods Bit field describing which modifier keys were held down.
+     * @return The pooled key release event.
+     */
+    public KeyReleaseEvent release(final int key, final int scanCode, final int mods) {
+        release.set(key, scanCode, mods);
+        return release;
+    }
+
+    /**
+     * Refill the key repeat event.
+     *
+     * @param key The key that was held down.
+     * @param scanCode The system-specific scancode of the key.
+     * @param mods Bit field describing which modifier keys were held down.
+     * @return The pooled key repeat event.
+     */
+    public KeyRepeatEvent repeat(final int key, final int scanCode, final int mods) {
+        repeat.set(key, scanCode, mods);
+        return repeat;
+    }
+}
@@ -25,7 +25,7 @@ public class ButtonEvent implements Event {
     /**
      * The mouse button that was pressed or released.
      */
-    private final int button;
+    private int button;
 
     /**
      * The button action.
@@ -35,7 +35,7 @@ public class ButtonEvent implements Event {
     /**
      * Bit field describing which modifier keys were held down.
      */
-    private final int mods;
+    private int mods;
 
     /**
      * Create a new button event.
@@ -76,4 +76,16 @@ public class ButtonEvent implements Event {
     public int getMods() {
         return mods;
     }
+
+    /**
+     * Overwrite the button and modifiers in place. The {@link MouseEventPool} keeps a press and a
+     * release event, so the action never changes.
+     *
+     * @param button The mouse button that was pressed or released.
+     * @param mods Bit field describing which modifier keys were held down.
+     */
+    void set(final int button, final int mods) {
+        this.button = button;
+        this.mods = mods;
+    }
 }
@@ -25,22 +25,22 @@ public final class CursorMoveEvent implements Event {
     /**
      * The new cursor x-coordinate, relative to the left edge of the content area.
      */
-    private final double x;
+    private double x;
 
     /**
      * The new cursor y-coordinate, relative to the top edge of the content area.
      */
-    private final double y;
+    private double y;
 
     /**
      * The previous cursor x-coordinate, relative to the left edge of the content area.
      */
-    private final double previousX;
+    private double previousX;
 
     /**
      * The previous cursor y-coordinate, relative to the top edge of the content area.
      */
-    private final double previousY;
+    private double previousY;
 
     /**
      * Create a new cursor move event.
@@ -93,4 +93,21 @@ public final class CursorMoveEvent implements Event {
     public double getPreviousY() {
         return previousY;
     }
+
+    /**
+     * Move the event to a new pair of cursor positions, for the next cursor move taken from the
+     * {@link MouseEventPool}.
+     *
+     * @param x The new cursor x-coordinate.
+     * @param y The new cursor y-coordinate.
+     * @param previousX The previous cursor x-coordinate.
+     * @param previousY The previous cursor y-coordinate.
+     */
+    void set(final double x, final double y,
+            final double previousX, final double previousY) {
+        this.x = x;
+        this.y = y;
+        this.previousX = previousX;
+        this.previousY = previousY;
+    }
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.event.input.mouse;
+
+/**
+ * Holds one reusable event for every mouse event that carries data. The events are created
+ * up front, and each request overwrites the previous event of its type, so a pooled event queue
+ * can report cursor moves, scrolls and button changes without allocating. No code outside this
+ * package can change an event, not even one taken from a pool.
+ */
+public final class MouseEventPool {
+
+    /**
+     * The reusable cursor move event.
+     */
+    private final CursorMoveEvent cursorMove;
+
+    /**
+     * The reusable button press event.
+     */
+    private final ButtonPressEvent buttonPress;
+
+    /**
+     * The reusable button release event.
+     */
+    private final ButtonReleaseEvent buttonRelease;
+
+    /**
+     * The reusable scroll event.
+     */
+    private final ScrollEvent scroll;
+
+    /**
+     * Create a new mouse event pool.
+     */
+    public MouseEventPool() {
+        cursorMove = new CursorMoveEvent(0.0, 0.0, 0.0, 0.0);
+        buttonPress = new ButtonPressEvent(0, 0);
+        buttonRelease = new ButtonReleaseEvent(0, 0);
+        scroll = new ScrollEvent(0.0, 0.0);
+    }
+
+    /**
+     * Refill the cursor move event.
+     *
+     * @param x The new cursor x-coordinate.
+     * @param y The new cursor y-coordinate.
+     * @param previousX The previous cursor x-coordinate.
+     * @param previousY The previous cursor y-coordinate.
+     * @return The pooled cursor move event.
+     */
+    public CursorMoveEvent cursorMove(final double x, final double y, final double previousX,
+            final double previousY) {
+        cursorMove.set(x, y, previousX, previousY);
+        return cursorMove;
+    }
+
+    /**
+     * Refill the button press event.
+     *
+     * @param button The button that was pressed.
+     * @param mods Bit field describing which modifier keys were held down.
+     * @return The pooled button press event.
+     */
+    public ButtonPressEvent buttonPress(final int button, final int mods) {
+        buttonPress.set(button, mods);
+        return buttonPress;
+    }
+
+    /**
+     * Refill the button release event.
+     *
+     * @param button The button that was released.
+     * @param mods Bit field describing which modifier keys were held down.
+     * @return The pooled button release event.
+     */
+    public ButtonReleaseEvent buttonRelease(final int button, final int mods) {
+        buttonRelease.set(button, mods);
+        return buttonRelease;
+    }
+
+    /**
+     * Refill the scroll event.
+     *
+     * @param xOffset The scroll offset along the x-axis.
+     * @param yOffset The scroll offset along the y-axis.
+     * @return The pooled scroll event.
+     */
+    public ScrollEvent scroll(final double xOffset, final double yOffset) {
+        scroll.set(xOffset, yOffset);
+        return scroll;
+    }
+}
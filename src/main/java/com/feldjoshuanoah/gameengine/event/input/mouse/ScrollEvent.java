@@ -26,12 +26,12 @@ public final class ScrollEvent implements Event {
     /**
      * The scroll offset along the x-axis.
      */
-    private final double xOffset;
+    private double xOffset;
 
     /**
      * The scroll offset along the y-axis.
      */
-    private final double yOffset;
+    private double yOffset;
 
     /**
      * Create a new scroll event.
@@ -61,4 +61,16 @@ public final class ScrollEvent implements Event {
     public double getYOffset() {
         return yOffset;
     }
+
+    /**
+     * Replace both scroll offsets, which the {@link MouseEventPool} does for every scroll it
+     * hands out.
+     *
+     * @param xOffset The scroll offset along the x-axis.
+     * @param yOffset The scroll offset along the y-axis.
+     */
+    void set(final double xOffset, final double yOffset) {
+        this.xOffset = xOffset;
+        this.yOffset = yOffset;
+    }
 }
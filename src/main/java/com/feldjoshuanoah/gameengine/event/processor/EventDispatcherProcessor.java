@@ -0,0 +1,304 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.event.processor;
+
+import com.feldjoshuanoah.gameengine.event.EventHandler;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+
+/**
+ * An annotation processor that generates a
+ * {@link com.feldjoshuanoah.gameengine.event.ListenerDispatcher} for every concrete listener
+ * class that is compiled, and registers the dispatchers as services. The dispatchers call the
+ * handler methods directly, so registering such a listener needs no reflection. Listener classes
+ * that are private, local or anonymous are skipped and fall back to reflection at runtime.
+ *
+ * <p>The processor is not registered as a service, so it only runs for projects that ask for it,
+ * and only in compilations that contain {@link EventHandler} annotations. With Maven, add the
+ * engine to the annotation processor path of the compiler plugin and name the processor:
+ *
+ * <pre>{@code
+ * <annotationProcessorPaths>
+ *     <path>
+ *         <groupId>com.feldjoshuanoah</groupId>
+ *         <artifactId>gameengine</artifactId>
+ *         <version>${gameengine.version}</version>
+ *     </path>
+ * </annotationProcessorPaths>
+ * <annotationProcessors>
+ *     <annotationProcessor>
+ *         com.feldjoshuanoah.gameengine.event.processor.EventDispatcherProcessor
+ *     </annotationProcessor>
+ * </annotationProcessors>
+ * }</pre>
+ */
+@SupportedAnnotationTypes("com.feldjoshuanoah.gameengine.event.EventHandler")
+public final class EventDispatcherProcessor extends AbstractProcessor {
+
+    /**
+     * The qualified name of the listener interface.
+     */
+    private static final String LISTENER = "com.feldjoshuanoah.gameengine.event.Listener";
+
+    /**
+     * The qualified name of the event interface.
+     */
+    private static final String EVENT = "com.feldjoshuanoah.gameengine.event.Event";
+
+    /**
+     * The qualified name of the dispatcher interface.
+     */
+    private static final String DISPATCHER =
+            "com.feldjoshuanoah.gameengine.event.ListenerDispatcher";
+
+    /**
+     * The qualified name of the handler descriptor class.
+     */
+    private static final String DESCRIPTOR =
+            "com.feldjoshuanoah.gameengine.event.HandlerDescriptor";
+
+    /**
+     * The suffix of the generated class names.
+     */
+    private static final String SUFFIX = "EventDispatcher";
+
+    /**
+     * The qualified names of the generated dispatchers.
+     */
+    private final Set<String> dispatchers;
+
+    /**
+     * Create a new event dispatcher processor.
+     */
+    public EventDispatcherProcessor() {
+        dispatchers = new LinkedHashSet<>();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations,
+            final RoundEnvironment roundEnvironment) {
+        final TypeElement listener = processingEnv.getElementUtils().getTypeElement(LISTENER);
+        if (listener == null) {
+            return false;
+        }
+        if (roundEnvironment.processingOver()) {
+            writeServices();
+            return false;
+        }
+        final List<TypeElement> types = new ArrayList<>();
+        collectTypes(ElementFilter.typesIn(roundEnvironment.getRootElements()), types);
+        for (final TypeElement type : types) {
+            if (isDispatchable(type, listener.asType())) {
+                generate(type);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Collect types and all their member types.
+     *
+     * @param roots The types.
+     * @param types The list to add the types to.
+     */
+    private static void collectTypes(final Collection<? extends TypeElement> roots,
+            final List<TypeElement> types) {
+        for (final TypeElement type : roots) {
+            types.add(type);
+            collectTypes(ElementFilter.typesIn(type.getEnclosedElements()), types);
+        }
+    }
+
+    /**
+     * Return {@code true} if a dispatcher can be generated for a type: it must be a concrete
+     * listener class that can be referenced from its package.
+     *
+     * @param type The type.
+     * @param listener The listener interface type.
+     * @return {@code true} if the type is dispatchable.
+     */
+    private boolean isDispatchable(final TypeElement type, final TypeMirror listener) {
+        if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)
+                || !processingEnv.getTypeUtils().isAssignable(
+                        processingEnv.getTypeUtils().erasure(type.asType()), listener)) {
+            return false;
+        }
+        for (Element element = type; element instanceof TypeElement;
+                element = element.getEnclosingElement()) {
+            final TypeElement enclosing = (TypeElement) element;
+            if (enclosing.getModifiers().contains(Modifier.PRIVATE)
+                    || enclosing.getNestingKind() == NestingKind.LOCAL
+                    || enclosing.getNestingKind() == NestingKind.ANONYMOUS) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Generate the dispatcher of a listener class.
+     *
+     * @param type The listener class.
+     */
+    private void generate(final TypeElement type) {
+        final List<String> handlers = new ArrayList<>();
+        for (final ExecutableElement method : ElementFilter.methodsIn(
+                processingEnv.getElementUtils().getAllMembers(type))) {
+            final EventHandler annotation = method.getAnnotation(EventHandler.class);
+            if (annotation != null) {
+                final String handler = createHandler(type, method, annotation.async());
+                if (handler != null) {
+                    handlers.add(handler);
+                }
+            }
+        }
+
+        final PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        final String packageName = packageElement.getQualifiedName().toString();
+        final String simpleName = getFlatName(type) + SUFFIX;
+        final String qualifiedName = packageName.isEmpty() ? simpleName
+                : packageName + "." + simpleName;
+        final String listenerName = type.getQualifiedName().toString();
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, type)
+                .openWriter(); PrintWriter out = new PrintWriter(writer)) {
+            if (!packageName.isEmpty()) {
+                out.println("package " + packageName + ";");
+                out.println();
+            }
+            out.println("@javax.annotation.processing.Generated(\""
+                    + EventDispatcherProcessor.class.getName() + "\")");
+            out.println("@SuppressWarnings(\"rawtypes\")");
+            out.println("public final class " + simpleName + " implements " + DISPATCHER + " {");
+            out.println();
+            out.println("    private static final java.util.List<" + DESCRIPTOR
+                    + "> HANDLERS = java.util.List.of(");
+            out.println(String.join(",\n", handlers) + ");");
+            out.println();
+            out.println("    public " + simpleName + "() {");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public Class<? extends com.feldjoshuanoah.gameengine.event.Listener>"
+                    + " getListenerClass() {");
+            out.println("        return " + listenerName + ".class;");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public java.util.List<" + DESCRIPTOR + "> getHandlers() {");
+            out.println("        return HANDLERS;");
+            out.println("    }");
+            out.println("}");
+        } catch (final IOException exception) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Unable to generate the dispatcher " + qualifiedName + ": " + exception, type);
+            return;
+        }
+        dispatchers.add(qualifiedName);
+    }
+
+    /**
+     * Create the source of the descriptor of a handler method.
+     *
+     * @param type The listener class.
+     * @param method The handler method.
+     * @param async Whether the handler method is called on a background thread.
+     * @return The source, or {@code null} if the method cannot be a handler method.
+     */
+    private String createHandler(final TypeElement type, final ExecutableElement method,
+            final boolean async) {
+        if (!method.getModifiers().contains(Modifier.PUBLIC)
+                || method.getModifiers().contains(Modifier.STATIC)) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "The event handler must be a public instance method and is ignored", method);
+            return null;
+        }
+        final TypeMirror event = processingEnv.getTypeUtils().erasure(processingEnv
+                .getElementUtils().getTypeElement(EVENT).asType());
+        final TypeMirror parameter = method.getParameters().size() == 1 ? processingEnv
+                .getTypeUtils().erasure(method.getParameters().get(0).asType()) : null;
+        if (parameter == null || !processingEnv.getTypeUtils().isAssignable(parameter, event)) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "The event handler must take a single event", method);
+            return null;
+        }
+        final String eventName = parameter.toString();
+        final String simpleEventName = processingEnv.getTypeUtils().asElement(parameter)
+                .getSimpleName().toString();
+        final String name = processingEnv.getElementUtils().getBinaryName(type) + "#"
+                + method.getSimpleName() + "(" + simpleEventName + ")";
+        return "            new " + DESCRIPTOR + "(\"" + name + "\", " + eventName + ".class, "
+                + async + ",\n                    (listener, event) -> (("
+                + type.getQualifiedName() + ") listener)." + method.getSimpleName() + "(("
+                + eventName + ") event))";
+    }
+
+    /**
+     * Register the generated dispatchers as services.
+     */
+    private void writeServices() {
+        if (dispatchers.isEmpty()) {
+            return;
+        }
+        try (Writer writer = processingEnv.getFiler().createResource(
+                StandardLocation.CLASS_OUTPUT, "", "META-INF/services/" + DISPATCHER)
+                .openWriter(); PrintWriter out = new PrintWriter(writer)) {
+            dispatchers.forEach(out::println);
+        } catch (final IOException exception) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Unable to register the listener dispatchers: " + exception);
+        }
+    }
+
+    /**
+     * Get the name of a type with the names of its enclosing types, joined by underscores.
+     *
+     * @param type The type.
+     * @return The flat name.
+     */
+    private static String getFlatName(final TypeElement type) {
+        final Element enclosing = type.getEnclosingElement();
+        return enclosing instanceof TypeElement enclosingType
+                ? getFlatName(enclosingType) + "_" + type.getSimpleName()
+                : type.getSimpleName().toString();
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.event.window;
+
+/**
+ * Holds a reusable window move and window resize event, the only window events with data. The
+ * other window events carry nothing, so a single instance of each can be shared without a pool.
+ */
+public final class WindowEventPool {
+
+    /**
+     * The reusable window move event.
+     */
+    private final WindowMoveEvent move;
+
+    /**
+     * The reusable window resize event.
+     */
+    private final WindowResizeEvent resize;
+
+    /**
+     * Create a new window event pool.
+     */
+    public WindowEventPool() {
+        move = new WindowMoveEvent(0, 0);
+        resize = new WindowResizeEvent(0, 0);
+    }
+
+    /**
+     * Refill the window move event.
+     *
+     * @param x The new x-coordinate, in screen coordinates.
+     * @param y The new y-coordinate, in screen coordinates.
+     * @return The pooled window move event.
+     */
+    public WindowMoveEvent move(final int x, final int y) {
+        move.set(x, y);
+        return move;
+    }
+
+    /**
+     * Refill the window resize event.
+     *
+     * @param width The new width, in screen coordinates, of the window.
+     * @param height The new height, in screen coordinates, of the window.
+     * @return The pooled window resize event.
+     */
+    public WindowResizeEvent resize(final int width, final int height) {
+        resize.set(width, height);
+        return resize;
+    }
+}
@@ -26,13 +26,13 @@ public final class WindowMoveEvent implements Event {
      * The new x-coordinate, in screen coordinates, of the upper-left corner of the content area of
      * the window.
      */
-    private final int x;
+    private int x;
 
     /**
      * The new y-coordinate, in screen coordinates, of the upper-left corner of the content area of
      * the window.
      */
-    private final int y;
+    private int y;
 
     /**
      * Create a new window move event.
@@ -64,4 +64,16 @@ public final class WindowMoveEvent implements Event {
     public int getY() {
         return y;
     }
+
+    /**
+     * Change the reported position of the content area. Only the {@link WindowEventPool} calls
+     * this.
+     *
+     * @param x The new x-coordinate, in screen coordinates.
+     * @param y The new y-coordinate, in screen coordinates.
+     */
+    void set(final int x, final int y) {
+        this.x = x;
+        this.y = y;
+    }
 }
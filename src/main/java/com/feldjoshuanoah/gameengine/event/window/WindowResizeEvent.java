@@ -25,12 +25,12 @@ public final class WindowResizeEvent implements Event {
     /**
      * The new width, in screen coordinates, of the window.
      */
-    private final int width;
+    private int width;
 
     /**
      * The new height, in screen coordinates, of the window.
      */
-    private final int height;
+    private int height;
 
     /**
      * Create a new window resize event.
@@ -60,4 +60,15 @@ public final class WindowResizeEvent implements Event {
     public int getHeight() {
         return height;
     }
+
+    /**
+     * Change the reported size of the window. Only the {@link WindowEventPool} calls this.
+     *
+     * @param width The new width, in screen coordinates, of the window.
+     * @param height The new height, in screen coordinates, of the window.
+     */
+    void set(final int width, final int height) {
+        this.width = width;
+        this.height = height;
+    }
 }
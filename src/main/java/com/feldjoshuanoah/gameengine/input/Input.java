@@ -0,0 +1,191 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.input;
+
+import org.lwjgl.glfw.GLFW;
+
+import java.util.Arrays;
+
+/**
+ * A service that tracks the keyboard and mouse without dispatching events. It is fed directly by
+ * the GLFW callbacks and publishes an immutable {@link InputState} once per tick. The callbacks
+ * and {@link #update()} must run on the main thread, while {@link #getState()} may be called from
+ * any thread.
+ */
+public final class Input {
+
+    /**
+     * The keys that are held down.
+     */
+    private final long[] keysDown;
+
+    /**
+     * The keys that were pressed since the last update.
+     */
+    private final long[] keysPressed;
+
+    /**
+     * The keys that were released since the last update.
+     */
+    private final long[] keysReleased;
+
+    /**
+     * The mouse buttons that are held down.
+     */
+    private int buttonsDown;
+
+    /**
+     * The mouse buttons that were pressed since the last update.
+     */
+    private int buttonsPressed;
+
+    /**
+     * The mouse buttons that were released since the last update.
+     */
+    private int buttonsReleased;
+
+    /**
+     * The cursor x-coordinate, relative to the left edge of the content area.
+     */
+    private double cursorX;
+
+    /**
+     * The cursor y-coordinate, relative to the top edge of the content area.
+     */
+    private double cursorY;
+
+    /**
+     * The scroll offset along the x-axis accumulated since the last update.
+     */
+    private double scrollX;
+
+    /**
+     * The scroll offset along the y-axis accumulated since the last update.
+     */
+    private double scrollY;
+
+    /**
+     * The number of updates.
+     */
+    private long tick;
+
+    /**
+     * The snapshot published by the last update.
+     */
+    private volatile InputState state;
+
+    /**
+     * Create a new input service.
+     */
+    public Input() {
+        keysDown = new long[InputState.KEY_WORDS];
+        keysPressed = new long[InputState.KEY_WORDS];
+        keysReleased = new long[InputState.KEY_WORDS];
+        state = new InputState(0L, new long[InputState.KEY_WORDS],
+                new long[InputState.KEY_WORDS], new long[InputState.KEY_WORDS], 0, 0, 0, 0.0, 0.0,
+                0.0, 0.0, 0.0, 0.0);
+    }
+
+    /**
+     * Get the snapshot of the current tick.
+     *
+     * @return The input state.
+     */
+    public InputState getState() {
+        return state;
+    }
+
+    /**
+     * Publish a new snapshot and start collecting the edges of the next tick.
+     */
+    public void update() {
+        final InputState previous = state;
+        tick++;
+        state = new InputState(tick, keysDown.clone(), keysPressed.clone(),
+                keysReleased.clone(), buttonsDown, buttonsPressed, buttonsReleased, cursorX,
+                cursorY, cursorX - previous.getCursorX(), cursorY - previous.getCursorY(),
+                scrollX, scrollY);
+        Arrays.fill(keysPressed, 0L);
+        Arrays.fill(keysReleased, 0L);
+        buttonsPressed = 0;
+        buttonsReleased = 0;
+        scrollX = 0.0;
+        scrollY = 0.0;
+    }
+
+    /**
+     * Record a key action. Repeats do not change the state.
+     *
+     * @param key The keyboard key.
+     * @param action The key action.
+     */
+    public void onKey(final int key, final int action) {
+        if (key < 0 || key >= InputState.KEY_COUNT) {
+            return;
+        }
+        final int word = key >>> 6;
+        final long bit = 1L << key;
+        if (action == GLFW.GLFW_PRESS) {
+            keysDown[word] |= bit;
+            keysPressed[word] |= bit;
+        } else if (action == GLFW.GLFW_RELEASE) {
+            keysDown[word] &= ~bit;
+            keysReleased[word] |= bit;
+        }
+    }
+
+    /**
+     * Record a mouse button action.
+     *
+     * @param button The mouse button.
+     * @param action The button action.
+     */
+    public void onButton(final int button, final int action) {
+        if (button < 0 || button >= InputState.BUTTON_COUNT) {
+            return;
+        }
+        final int bit = 1 << button;
+        if (action == GLFW.GLFW_PRESS) {
+            buttonsDown |= bit;
+            buttonsPressed |= bit;
+        } else if (action == GLFW.GLFW_RELEASE) {
+            buttonsDown &= ~bit;
+            buttonsReleased |= bit;
+        }
+    }
+
+    /**
+     * Record a cursor position.
+     *
+     * @param x The cursor x-coordinate, relative to the left edge of the content area.
+     * @param y The cursor y-coordinate, relative to the top edge of the content area.
+     */
+    public void onCursor(final double x, final double y) {
+        cursorX = x;
+        cursorY = y;
+    }
+
+    /**
+     * Record a scroll.
+     *
+     * @param xOffset The scroll offset along the x-axis.
+     * @param yOffset The scroll offset along the y-axis.
+     */
+    public void onScroll(final double xOffset, final double yOffset) {
+        scrollX += xOffset;
+        scrollY += yOffset;
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.input;
+
+import com.feldjoshuanoah.gameengine.event.EventQueue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A recorder that writes the records posted to an {@link EventQueue} into a compact binary log,
+ * which can be played back with an {@link InputReplay}. The log starts with a magic number, a
+ * version and the number of recorded ticks, which is filled in when the recorder is closed. Every
+ * record is stored as the number of ticks since the previous record, its type and
+ * only the values its type uses. Ticks and integer values are stored as variable-length integers,
+ * so most records take a few bytes. The log is written through a direct buffer that is flushed
+ * to the file channel whenever it fills up.
+ */
+public final class InputRecorder implements AutoCloseable {
+
+    /**
+     * The magic number at the start of an input log.
+     */
+    static final int MAGIC = 0x47454C47;
+
+    /**
+     * The version of the log format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The position of the number of recorded ticks in the log.
+     */
+    static final int TICKS_POSITION = 2 * Integer.BYTES;
+
+    /**
+     * The size of the log header, in bytes.
+     */
+    static final int HEADER_SIZE = TICKS_POSITION + Long.BYTES;
+
+    /**
+     * The size of the write buffer, in bytes.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The maximum size of an encoded record, in bytes.
+     */
+    private static final int MAX_RECORD_SIZE = 64;
+
+    /**
+     * The file channel.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The write buffer.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The current tick.
+     */
+    private long tick;
+
+    /**
+     * The tick of the previous record.
+     */
+    private long previousTick;
+
+    /**
+     * Create a new input recorder, replacing the file if it exists.
+     *
+     * @param file The log file.
+     * @throws IllegalArgumentException If the file cannot be created.
+     */
+    public InputRecorder(final Path file) {
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        } catch (final IOException exception) {
+            throw new IllegalArgumentException("Unable to create input log " + file, exception);
+        }
+        buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(0L);
+    }
+
+    /**
+     * Record a record posted in the current tick.
+     *
+     * @param type The record type.
+     * @param first The first value.
+     * @param second The second value.
+     * @param third The third value.
+     * @param fourth The fourth value.
+     */
+    public void record(final int type, final double first, final double second,
+            final double third, final double fourth) {
+        if (buffer.remaining() < MAX_RECORD_SIZE) {
+            flush();
+        }
+        putVarLong(buffer, tick - previousTick);
+        previousTick = tick;
+        buffer.put((byte) type);
+        final int count = getValueCount(type);
+        if (hasDoubleValues(type)) {
+            buffer.putDouble(first).putDouble(second);
+            if (count > 2) {
+                buffer.putDouble(third).putDouble(fourth);
+            }
+        } else if (count > 0) {
+            putVarLong(buffer, zigZag((int) first));
+            putVarLong(buffer, zigZag((int) second));
+            if (count > 2) {
+                putVarLong(buffer, zigZag((int) third));
+            }
+        }
+    }
+
+    /**
+     * End the current tick. The records posted afterwards belong to the next tick.
+     */
+    public void advance() {
+        tick++;
+    }
+
+    /**
+     * Get the current tick.
+     *
+     * @return The tick.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Write the buffered records and the number of recorded ticks to the file and close it.
+     */
+    @Override
+    public void close() {
+        flush();
+        buffer.putLong(tick).flip();
+        try {
+            channel.write(buffer, TICKS_POSITION);
+            channel.close();
+        } catch (final IOException exception) {
+            throw new IllegalStateException("Unable to close the input log", exception);
+        }
+    }
+
+    /**
+     * Get the number of values a record type uses.
+     *
+     * @param type The record type.
+     * @return The number of values.
+     */
+    static int getValueCount(final int type) {
+        return switch (type) {
+            case EventQueue.WINDOW_MOVE, EventQueue.WINDOW_RESIZE, EventQueue.BUTTON_PRESS,
+                    EventQueue.BUTTON_RELEASE, EventQueue.SCROLL -> 2;
+            case EventQueue.KEY_PRESS, EventQueue.KEY_RELEASE, EventQueue.KEY_REPEAT -> 3;
+            case EventQueue.CURSOR_MOVE -> 4;
+            default -> 0;
+        };
+    }
+
+    /**
+     * Return {@code true} if the values of a record type are stored as doubles instead of
+     * integers.
+     *
+     * @param type The record type.
+     * @return {@code true} if the values are doubles.
+     */
+    static boolean hasDoubleValues(final int type) {
+        return type == EventQueue.CURSOR_MOVE || type == EventQueue.SCROLL;
+    }
+
+    /**
+     * Write the buffered records to the file.
+     */
+    private void flush() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (final IOException exception) {
+            throw new IllegalStateException("Unable to write the input log", exception);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Map a signed integer to an unsigned one, so that small negative values stay short.
+     *
+     * @param value The signed value.
+     * @return The unsigned value.
+     */
+    private static long zigZag(final int value) {
+        return (value << 1 ^ value >> 31) & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Write a non-negative variable-length integer, seven bits per byte.
+     *
+     * @param buffer The buffer.
+     * @param value The value.
+     */
+    private static void putVarLong(final ByteBuffer buffer, final long value) {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0L) {
+            buffer.put((byte) (remaining & 0x7FL | 0x80L));
+            remaining >>>= 7;
+        }
+        buffer.put((byte) remaining);
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.input;
+
+import com.feldjoshuanoah.gameengine.event.EventQueue;
+import org.lwjgl.glfw.GLFW;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A driver that plays back an input log written by an {@link InputRecorder}. Every tick, the
+ * records of the tick are posted to an event queue and applied to an input service, exactly like
+ * the GLFW callbacks would, so the events reach the event manager in the same ticks they were
+ * recorded in. The log is memory-mapped and decoded in place. It is checked once when the replay
+ * is created, so a truncated or corrupt log is rejected before anything is played back.
+ */
+public final class InputReplay implements AutoCloseable {
+
+    /**
+     * The file channel.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The mapped log.
+     */
+    private final MappedByteBuffer buffer;
+
+    /**
+     * The values of the record being played back.
+     */
+    private final double[] values;
+
+    /**
+     * The current tick.
+     */
+    private long tick;
+
+    /**
+     * The number of recorded ticks, or {@code 0} if the recorder was not closed.
+     */
+    private final long length;
+
+    /**
+     * The tick of the next record.
+     */
+    private long nextTick;
+
+    /**
+     * Whether all records have been played back.
+     */
+    private boolean exhausted;
+
+    /**
+     * Create a new input replay.
+     *
+     * @param file The log file.
+     * @throws IllegalArgumentException If the file cannot be read, is not an input log, or is
+     *                                  truncated or corrupt.
+     */
+    public InputReplay(final Path file) {
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+        } catch (final IOException exception) {
+            throw new IllegalArgumentException("Unable to read input log " + file, exception);
+        }
+        if (buffer.remaining() < InputRecorder.HEADER_SIZE
+                || buffer.getInt() != InputRecorder.MAGIC
+                || buffer.getInt() != InputRecorder.VERSION) {
+            close();
+            throw new IllegalArgumentException("The file " + file + " is not an input log");
+        }
+        length = buffer.getLong();
+        if (!isValid()) {
+            close();
+            throw new IllegalArgumentException("The input log " + file
+                    + " is truncated or corrupt");
+        }
+        values = new double[EventQueue.RECORD_SIZE];
+        readTick();
+    }
+
+    /**
+     * Post the records of the current tick and advance to the next tick.
+     *
+     * @param queue The event queue to post the records to.
+     * @param input The input service to apply the records to, or {@code null}.
+     */
+    public void replayTick(final EventQueue queue, final Input input) {
+        while (!exhausted && nextTick == tick) {
+            final int type = buffer.get();
+            final int count = InputRecorder.getValueCount(type);
+            Arrays.fill(values, 0.0);
+            for (int i = 0; i < count; i++) {
+                values[i] = InputRecorder.hasDoubleValues(type) ? buffer.getDouble()
+                        : unZigZag(getVarLong());
+            }
+            if (input != null) {
+                apply(input, type, values);
+            }
+            queue.post(type, values[0], values[1], values[2], values[3]);
+            readTick();
+        }
+        tick++;
+    }
+
+    /**
+     * Play back the whole log without a window, as fast as possible, including the ticks without
+     * input at its end. Every tick, the records
+     * are posted, the input snapshot is updated, the event queue is drained and the step is run,
+     * in the same order as in the fixed-step loop of the application.
+     *
+     * @param queue The event queue to post the records to.
+     * @param input The input service to apply the records to.
+     * @param step The simulation step that is run once per tick.
+     * @return The number of ticks played back.
+     */
+    public long runHeadless(final EventQueue queue, final Input input, final Runnable step) {
+        final long start = tick;
+        while (!isFinished()) {
+            replayTick(queue, input);
+            input.update();
+            queue.drain();
+            step.run();
+        }
+        return tick - start;
+    }
+
+    /**
+     * Return {@code true} if all recorded ticks have been played back. If the recorder was not
+     * closed, the replay is finished after the last record.
+     *
+     * @return {@code true} if the replay is finished.
+     */
+    public boolean isFinished() {
+        return exhausted && tick >= length;
+    }
+
+    /**
+     * Get the current tick.
+     *
+     * @return The tick.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Close the log file.
+     */
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (final IOException exception) {
+            throw new IllegalStateException("Unable to close the input log", exception);
+        }
+    }
+
+    /**
+     * Return {@code true} if every record after the header is complete, has a known type and
+     * belongs to a recorded tick. The position of the buffer is left after the header.
+     *
+     * @return {@code true} if the records are valid.
+     */
+    private boolean isValid() {
+        final int start = buffer.position();
+        try {
+            long recordTick = 0L;
+            while (buffer.hasRemaining()) {
+                recordTick += getVarLong();
+                final int type = buffer.get();
+                if (type < 0 || type >= EventQueue.TYPE_COUNT || recordTick < 0L) {
+                    return false;
+                }
+                for (int i = 0; i < InputRecorder.getValueCount(type); i++) {
+                    if (InputRecorder.hasDoubleValues(type)) {
+                        buffer.getDouble();
+                    } else {
+                        getVarLong();
+                    }
+                }
+            }
+            // A recorder that was not closed leaves the number of ticks at zero.
+            return length >= 0L && (length == 0L || recordTick <= length);
+        } catch (final BufferUnderflowException | IllegalArgumentException exception) {
+            return false;
+        } finally {
+            buffer.position(start);
+        }
+    }
+
+    /**
+     * Read the tick of the next record, or mark the records as exhausted at the end of the log.
+     */
+    private void readTick() {
+        if (buffer.hasRemaining()) {
+            nextTick += getVarLong();
+        } else {
+            exhausted = true;
+        }
+    }
+
+    /**
+     * Read a non-negative variable-length integer, seven bits per byte.
+     *
+     * @return The value.
+     * @throws IllegalArgumentException If the integer is longer than a long.
+     */
+    private long getVarLong() {
+        long value = 0L;
+        int shift = 0;
+        byte current;
+        do {
+            if (shift >= Long.SIZE) {
+                throw new IllegalArgumentException("The variable-length integer is too long");
+            }
+            current = buffer.get();
+            value |= (current & 0x7FL) << shift;
+            shift += 7;
+        } while (current < 0);
+        return value;
+    }
+
+    /**
+     * Apply a record to an input service, like the GLFW callbacks do.
+     *
+     * @param input The input service.
+     * @param type The record type.
+     * @param values The values of the record.
+     */
+    private static void apply(final Input input, final int type, final double[] values) {
+        switch (type) {
+            case EventQueue.KEY_PRESS -> input.onKey((int) values[0], GLFW.GLFW_PRESS);
+            case EventQueue.KEY_RELEASE -> input.onKey((int) values[0], GLFW.GLFW_RELEASE);
+            case EventQueue.BUTTON_PRESS -> input.onButton((int) values[0], GLFW.GLFW_PRESS);
+            case EventQueue.BUTTON_RELEASE -> input.onButton((int) values[0], GLFW.GLFW_RELEASE);
+            case EventQueue.CURSOR_MOVE -> input.onCursor(values[0], values[1]);
+            case EventQueue.SCROLL -> input.onScroll(values[0], values[1]);
+            default -> {
+                // The other records do not change the input state.
+            }
+        }
+    }
+
+    /**
+     * Map an unsigned integer written by the recorder back to the signed one.
+     *
+     * @param value The unsigned value.
+     * @return The signed value.
+     */
+    private static int unZigZag(final long value) {
+        final int bits = (int) value;
+        return bits >>> 1 ^ -(bits & 1);
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.input;
+
+import org.lwjgl.glfw.GLFW;
+
+/**
+ * Represents an immutable snapshot of the keyboard and mouse at the start of a tick. Besides the
+ * keys and buttons that are held down, it records the keys and buttons that were pressed or
+ * released during the preceding tick, so short presses are never missed. All queries take
+ * constant time, and a snapshot may be read by any number of threads.
+ */
+public final class InputState {
+
+    /**
+     * The number of keys.
+     */
+    static final int KEY_COUNT = GLFW.GLFW_KEY_LAST + 1;
+
+    /**
+     * The number of mouse buttons.
+     */
+    static final int BUTTON_COUNT = GLFW.GLFW_MOUSE_BUTTON_LAST + 1;
+
+    /**
+     * The number of words of a key bitset.
+     */
+    static final int KEY_WORDS = (KEY_COUNT + Long.SIZE - 1) / Long.SIZE;
+
+    /**
+     * The tick the snapshot was taken in.
+     */
+    private final long tick;
+
+    /**
+     * The keys that are held down.
+     */
+    private final long[] keysDown;
+
+    /**
+     * The keys that were pressed during the preceding tick.
+     */
+    private final long[] keysPressed;
+
+    /**
+     * The keys that were released during the preceding tick.
+     */
+    private final long[] keysReleased;
+
+    /**
+     * The mouse buttons that are held down.
+     */
+    private final int buttonsDown;
+
+    /**
+     * The mouse buttons that were pressed during the preceding tick.
+     */
+    private final int buttonsPressed;
+
+    /**
+     * The mouse buttons that were released during the preceding tick.
+     */
+    private final int buttonsReleased;
+
+    /**
+     * The cursor x-coordinate, relative to the left edge of the content area.
+     */
+    private final double cursorX;
+
+    /**
+     * The cursor y-coordinate, relative to the top edge of the content area.
+     */
+    private final double cursorY;
+
+    /**
+     * The horizontal distance the cursor moved during the preceding tick.
+     */
+    private final double cursorDeltaX;
+
+    /**
+     * The vertical distance the cursor moved during the preceding tick.
+     */
+    private final double cursorDeltaY;
+
+    /**
+     * The scroll offset along the x-axis accumulated during the preceding tick.
+     */
+    private final double scrollX;
+
+    /**
+     * The scroll offset along the y-axis accumulated during the preceding tick.
+     */
+    private final double scrollY;
+
+    /**
+     * Create a new input state. The arrays are owned by the snapshot afterwards.
+     *
+     * @param tick The tick the snapshot was taken in.
+     * @param keysDown The keys that are held down.
+     * @param keysPressed The keys that were pressed during the preceding tick.
+     * @param keysReleased The keys that were released during the preceding tick.
+     * @param buttonsDown The mouse buttons that are held down.
+     * @param buttonsPressed The mouse buttons that were pressed during the preceding tick.
+     * @param buttonsReleased The mouse buttons that were released during the preceding tick.
+     * @param cursorX The cursor x-coordinate.
+     * @param cursorY The cursor y-coordinate.
+     * @param cursorDeltaX The horizontal distance the cursor moved during the preceding tick.
+     * @param cursorDeltaY The vertical distance the cursor moved during the preceding tick.
+     * @param scrollX The scroll offset along the x-axis accumulated during the preceding tick.
+     * @param scrollY The scroll offset along the y-axis accumulated during the preceding tick.
+     */
+    InputState(final long tick, final long[] keysDown, final long[] keysPressed,
+            final long[] keysReleased, final int buttonsDown, final int buttonsPressed,
+            final int buttonsReleased, final double cursorX, final double cursorY,
+            final double cursorDeltaX, final double cursorDeltaY, final double scrollX,
+            final double scrollY) {
+        this.tick = tick;
+        this.keysDown = keysDown;
+        this.keysPressed = keysPressed;
+        this.keysReleased = keysReleased;
+        this.buttonsDown = buttonsDown;
+        this.buttonsPressed = buttonsPressed;
+        this.buttonsReleased = buttonsReleased;
+        this.cursorX = cursorX;
+        this.cursorY = cursorY;
+        this.cursorDeltaX = cursorDeltaX;
+        this.cursorDeltaY = cursorDeltaY;
+        this.scrollX = scrollX;
+        this.scrollY = scrollY;
+    }
+
+    /**
+     * Get the tick the snapshot was taken in.
+     *
+     * @return The tick.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Return {@code true} if a key is held down.
+     *
+     * @param key The keyboard key.
+     * @return {@code true} if the key is down.
+     */
+    public boolean isKeyDown(final int key) {
+        return test(keysDown, key);
+    }
+
+    /**
+     * Return {@code true} if a key was pressed during the preceding tick.
+     *
+     * @param key The keyboard key.
+     * @return {@code true} if the key was pressed.
+     */
+    public boolean isKeyPressed(final int key) {
+        return test(keysPressed, key);
+    }
+
+    /**
+     * Return {@code true} if a key was released during the preceding tick.
+     *
+     * @param key The keyboard key.
+     * @return {@code true} if the key was released.
+     */
+    public boolean isKeyReleased(final int key) {
+        return test(keysReleased, key);
+    }
+
+    /**
+     * Return {@code true} if a mouse button is held down.
+     *
+     * @param button The mouse button.
+     * @return {@code true} if the button is down.
+     */
+    public boolean isButtonDown(final int button) {
+        return test(buttonsDown, button);
+    }
+
+    /**
+     * Return {@code true} if a mouse button was pressed during the preceding tick.
+     *
+     * @param button The mouse button.
+     * @return {@code true} if the button was pressed.
+     */
+    public boolean isButtonPressed(final int button) {
+        return test(buttonsPressed, button);
+    }
+
+    /**
+     * Return {@code true} if a mouse button was released during the preceding tick.
+     *
+     * @param button The mouse button.
+     * @return {@code true} if the button was released.
+     */
+    public boolean isButtonReleased(final int button) {
+        return test(buttonsReleased, button);
+    }
+
+    /**
+     * Get the cursor x-coordinate, relative to the left edge of the content area.
+     *
+     * @return The cursor x-coordinate.
+     */
+    public double getCursorX() {
+        return cursorX;
+    }
+
+    /**
+     * Get the cursor y-coordinate, relative to the top edge of the content area.
+     *
+     * @return The cursor y-coordinate.
+     */
+    public double getCursorY() {
+        return cursorY;
+    }
+
+    /**
+     * Get the horizontal distance the cursor moved during the preceding tick.
+     *
+     * @return The horizontal cursor delta.
+     */
+    public double getCursorDeltaX() {
+        return cursorDeltaX;
+    }
+
+    /**
+     * Get the vertical distance the cursor moved during the preceding tick.
+     *
+     * @return The vertical cursor delta.
+     */
+    public double getCursorDeltaY() {
+        return cursorDeltaY;
+    }
+
+    /**
+     * Get the scroll offset along the x-axis accumulated during the preceding tick.
+     *
+     * @return The horizontal scroll offset.
+     */
+    public double getScrollX() {
+        return scrollX;
+    }
+
+    /**
+     * Get the scroll offset along the y-axis accumulated during the preceding tick.
+     *
+     * @return The vertical scroll offset.
+     */
+    public double getScrollY() {
+        return scrollY;
+    }
+
+    /**
+     * Test a bit of a key bitset.
+     *
+     * @param bits The bitset.
+     * @param key The keyboard key.
+     * @return {@code true} if the bit is set, {@code false} if it is not or the key is unknown.
+     */
+    private static boolean test(final long[] bits, final int key) {
+        return key >= 0 && key < KEY_COUNT && (bits[key >>> 6] & 1L << key) != 0L;
+    }
+
+    /**
+     * Test a bit of a button bitset.
+     *
+     * @param bits The bitset.
+     * @param button The mouse button.
+     * @return {@code true} if the bit is set, {@code false} if it is not or the button is unknown.
+     */
+    private static boolean test(final int bits, final int button) {
+        return button >= 0 && button < BUTTON_COUNT && (bits & 1 << button) != 0;
+    }
+}
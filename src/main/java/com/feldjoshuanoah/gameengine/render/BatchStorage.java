@@ -0,0 +1,138 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.render;
+
+import com.feldjoshuanoah.gameengine.render.Shader.DataType;
+import com.feldjoshuanoah.gameengine.render.buffer.QuadIndexBuffer;
+import com.feldjoshuanoah.gameengine.render.buffer.VertexBuffer;
+
+/**
+ * Represents a vertex buffer shared by several render batches. Every render batch owns a range of
+ * quads in the buffer, so the render batches can be drawn together by a {@link MultiDrawBatch}
+ * without switching vertex arrays.
+ */
+public class BatchStorage {
+
+    /**
+     * The layout of the vertex shader, which matches the layout of the {@link RenderBatch}.
+     */
+    private static final DataType[] LAYOUT = new DataType[] {
+            DataType.VEC3, DataType.VEC4, DataType.VEC2, DataType.FLOAT
+    };
+
+    /**
+     * The number of floats in the vertex data of a quad.
+     */
+    private static final int QUAD_SIZE = 40;
+
+    /**
+     * The vertex array.
+     */
+    private VertexArray vertexArray;
+
+    /**
+     * The vertex buffer.
+     */
+    private VertexBuffer vertexBuffer;
+
+    /**
+     * The number of quads the vertex buffer can hold.
+     */
+    private int capacity;
+
+    /**
+     * Create a new batch storage.
+     *
+     * @param capacity The number of quads the storage can hold initially.
+     */
+    public BatchStorage(final int capacity) {
+        allocate(capacity);
+    }
+
+    /**
+     * Make sure the storage can hold the given number of quads. If the storage has to grow, a
+     * new vertex buffer is created and the content of the old one is lost, so every render batch
+     * in the storage has to upload its quads again.
+     *
+     * @param quads The number of quads.
+     * @return {@code true} if the storage has grown.
+     */
+    public boolean ensureCapacity(final int quads) {
+        if (quads <= capacity) {
+            return false;
+        }
+        delete();
+        allocate(Math.max(quads, capacity * 2));
+        return true;
+    }
+
+    /**
+     * Bind the vertex array and enable its vertex attribute arrays.
+     */
+    public void bind() {
+        vertexArray.bind();
+        vertexBuffer.enableVertexAttribArrays();
+    }
+
+    /**
+     * Disable the vertex attribute arrays and unbind the vertex array.
+     */
+    public void unbind() {
+        vertexBuffer.disableVertexAttribArrays();
+        vertexArray.unbind();
+    }
+
+    /**
+     * Delete the vertex array and vertex buffer of the storage. The shared quad index buffer is
+     * left intact.
+     */
+    public void delete() {
+        vertexArray.delete();
+        vertexBuffer.delete();
+    }
+
+    /**
+     * Get the vertex buffer.
+     *
+     * @return The vertex buffer.
+     */
+    public VertexBuffer getVertexBuffer() {
+        return vertexBuffer;
+    }
+
+    /**
+     * Get the number of quads the storage can hold.
+     *
+     * @return The capacity.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Create the vertex array and vertex buffer.
+     *
+     * @param capacity The number of quads.
+     */
+    private void allocate(final int capacity) {
+        this.capacity = capacity;
+        vertexArray = new VertexArray();
+        vertexArray.bind();
+        QuadIndexBuffer.getInstance().bind();
+        vertexBuffer = new VertexBuffer(capacity * QUAD_SIZE, LAYOUT);
+        vertexArray.unbind();
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.render;
+
+import com.feldjoshuanoah.gameengine.render.backend.RenderBackend;
+import com.feldjoshuanoah.gameengine.render.backend.RenderContext;
+import com.feldjoshuanoah.gameengine.render.buffer.UniformBuffer;
+import org.joml.Matrix4f;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL13;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Represents a layer of drawables that rarely changes, such as a static background. The drawables
+ * are rendered once into a render target covering a rectangle of the world, and from then on the
+ * layer is drawn as a single textured quad until it is invalidated. The drawables must use shaders
+ * that read the camera matrices from the {@link Renderer#CAMERA_BLOCK} uniform block.
+ */
+public class CachedLayer implements Drawable {
+
+    /**
+     * The texture slots.
+     */
+    private static final int[] TEXTURE_SLOTS = new int[] { 0, 1, 2, 3, 4, 5, 6, 7 };
+
+    /**
+     * The texture slot the cached texture is bound to.
+     */
+    private static final int TEXTURE_ID = 1;
+
+    /**
+     * The texture coordinates of the cached texture, in the corner order of a {@link QuadMesh}.
+     */
+    private static final float[] TEXTURE_COORDINATES = new float[] {
+            1.0f, 1.0f, 1.0f, 0.0f, 0.0f, 0.0f, 0.0f, 1.0f
+    };
+
+    /**
+     * The number of floats in a matrix.
+     */
+    private static final int MATRIX_SIZE = 16;
+
+    /**
+     * The render backend.
+     */
+    private final RenderBackend backend;
+
+    /**
+     * The renderer whose camera is restored after the layer has been rendered.
+     */
+    private final Renderer renderer;
+
+    /**
+     * The shader the cached texture is drawn with.
+     */
+    private final Shader shader;
+
+    /**
+     * The drawables of the layer.
+     */
+    private final List<Drawable> drawables;
+
+    /**
+     * The render target the drawables are rendered into.
+     */
+    private final RenderTarget target;
+
+    /**
+     * The uniform buffer holding the matrices the drawables are rendered with.
+     */
+    private final UniformBuffer cameraBuffer;
+
+    /**
+     * The quad the cached texture is drawn with.
+     */
+    private final QuadMesh mesh;
+
+    /**
+     * Whether the render target has to be rendered again.
+     */
+    private boolean dirty;
+
+    /**
+     * The sort key.
+     */
+    private long sortKey;
+
+    /**
+     * Create a new cached layer.
+     *
+     * @param renderer The renderer the layer is added to.
+     * @param shader The shader the cached texture is drawn with.
+     * @param x The left edge of the covered rectangle, in world units.
+     * @param y The bottom edge of the covered rectangle, in world units.
+     * @param width The width of the covered rectangle, in world units.
+     * @param height The height of the covered rectangle, in world units.
+     * @param resolution The number of pixels per world unit of the cached texture.
+     */
+    public CachedLayer(final Renderer renderer, final Shader shader, final float x,
+            final float y, final float width, final float height, final float resolution) {
+        this.renderer = renderer;
+        this.shader = shader;
+        backend = RenderContext.getBackend();
+        drawables = new ArrayList<>();
+        target = new RenderTarget(Math.max(1, (int) Math.ceil(width * resolution)),
+                Math.max(1, (int) Math.ceil(height * resolution)));
+        cameraBuffer = new UniformBuffer(Camera.MATRICES_SIZE, Renderer.CAMERA_BINDING);
+        final FloatBuffer matrices = BufferUtils.createFloatBuffer(Camera.MATRICES_SIZE);
+        new Matrix4f().setOrtho(x, x + width, y, y + height, -1.0f, 1.0f).get(0, matrices);
+        new Matrix4f().get(MATRIX_SIZE, matrices);
+        cameraBuffer.setSubData(0, matrices);
+        mesh = new QuadMesh(1);
+        mesh.addQuad(x, y, width, height, 1.0f, 1.0f, 1.0f, 1.0f, TEXTURE_COORDINATES, 0,
+                TEXTURE_ID);
+        mesh.upload();
+        dirty = true;
+        setLayer(0);
+    }
+
+    /**
+     * Add a drawable to the layer.
+     *
+     * @param drawable The drawable.
+     */
+    public void add(final Drawable drawable) {
+        drawables.add(drawable);
+        dirty = true;
+    }
+
+    /**
+     * Remove a drawable from the layer.
+     *
+     * @param drawable The drawable.
+     */
+    public void remove(final Drawable drawable) {
+        dirty |= drawables.remove(drawable);
+    }
+
+    /**
+     * Render the drawables again the next time the layer is rendered. This must be called
+     * whenever one of the drawables changes.
+     */
+    public void invalidate() {
+        dirty = true;
+    }
+
+    /**
+     * Set the layer of the cached layer.
+     *
+     * @param layer The layer.
+     */
+    public void setLayer(final int layer) {
+        sortKey = SortKey.pack(layer, true, shader.getHandle(), target.getTexture().getId(), 0);
+    }
+
+    @Override
+    public long getSortKey() {
+        return sortKey;
+    }
+
+    @Override
+    public void render() {
+        if (dirty) {
+            renderDrawables();
+            dirty = false;
+        }
+        shader.bind();
+        backend.activeTexture(GL13.GL_TEXTURE0 + TEXTURE_ID);
+        target.getTexture().bind();
+        shader.uniform1iv("u_Textures", TEXTURE_SLOTS);
+        mesh.draw();
+        target.getTexture().unbind();
+        shader.unbind();
+    }
+
+    /**
+     * Delete the GL objects of the cached layer. The cached layer must not be used afterwards.
+     */
+    public void delete() {
+        target.delete();
+        cameraBuffer.delete();
+        mesh.delete();
+    }
+
+    /**
+     * Render the drawables, in the order of their sort keys, into the render target.
+     */
+    private void renderDrawables() {
+        drawables.sort(Comparator.comparingLong(Drawable::getSortKey));
+        target.bind();
+        backend.clearColor(0.0f, 0.0f, 0.0f, 0.0f);
+        backend.clear(GL11.GL_COLOR_BUFFER_BIT | GL11.GL_DEPTH_BUFFER_BIT);
+        cameraBuffer.bindBase();
+        drawables.forEach(Drawable::render);
+        target.unbind();
+        renderer.bindCamera();
+    }
+}
@@ -18,20 +18,37 @@ package com.feldjoshuanoah.gameengine.render;
 import org.joml.Matrix4f;
 import org.joml.Vector3f;
 
+import java.nio.FloatBuffer;
+
 /**
  * Represents an orthographic camera.
  */
 public class Camera {
 
+    /**
+     * The number of floats written by {@link #get(FloatBuffer)}.
+     */
+    public static final int MATRICES_SIZE = 32;
+
+    /**
+     * The offset of the view matrix in the floats written by {@link #get(FloatBuffer)}.
+     */
+    private static final int VIEW_OFFSET = 16;
+
     /**
      * The projection matrix.
      */
-    private Matrix4f projection;
+    private final Matrix4f projection;
 
     /**
      * The view matrix.
      */
-    private Matrix4f view;
+    private final Matrix4f view;
+
+    /**
+     * The combined projection and view matrix, used to calculate the visible bounds.
+     */
+    private final Matrix4f viewProjection;
 
     /**
      * The position.
@@ -43,6 +60,11 @@ public class Camera {
      */
     private float rotation;
 
+    /**
+     * Whether the projection or view matrix changed since the matrices were last uploaded.
+     */
+    private boolean dirty;
+
     /**
      * Create a new orthographic camera with the given parameters.
      *
@@ -57,7 +79,9 @@ public class Camera {
             final float near, final float far) {
         projection = new Matrix4f().ortho(left, right, top, bottom, near, far);
         view = new Matrix4f();
+        viewProjection = new Matrix4f();
         position = new Vector3f();
+        dirty = true;
     }
 
     /**
@@ -119,7 +143,8 @@ public class Camera {
      */
     public void setProjection(final float left, final float right, final float top,
             final float bottom, final float near, final float far) {
-        this.projection = new Matrix4f().ortho(left, right, top, bottom, near, far);
+        projection.setOrtho(left, right, top, bottom, near, far);
+        dirty = true;
     }
 
     /**
@@ -131,11 +156,52 @@ public class Camera {
         return new Matrix4f(view);
     }
 
+    /**
+     * Store the projection matrix followed by the view matrix, in column-major order, into the
+     * given buffer, starting at its current position. The position of the buffer is not changed.
+     *
+     * @param buffer The buffer, with room for at least {@link #MATRICES_SIZE} floats.
+     */
+    public void get(final FloatBuffer buffer) {
+        projection.get(buffer.position(), buffer);
+        view.get(buffer.position() + VIEW_OFFSET, buffer);
+    }
+
+    /**
+     * Calculate the axis-aligned bounding box of the area visible through the camera, in world
+     * coordinates.
+     *
+     * @param min The vector to store the minimum corner in.
+     * @param max The vector to store the maximum corner in.
+     */
+    public void getBounds(final Vector3f min, final Vector3f max) {
+        projection.mul(view, viewProjection).frustumAabb(min, max);
+    }
+
+    /**
+     * Check whether the projection or view matrix changed since the camera was last marked as
+     * clean.
+     *
+     * @return {@code true} if the camera is dirty.
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Set whether the projection or view matrix changed since the matrices were last uploaded.
+     *
+     * @param dirty Whether the camera is dirty.
+     */
+    public void setDirty(final boolean dirty) {
+        this.dirty = dirty;
+    }
+
     /**
      * Recalculate the view matrix after the position or rotation of the camera is modified.
      */
     private void recalculateView() {
-        view = new Matrix4f().translate(position)
-                .rotate(rotation, new Vector3f(0.0f, 0.0f, 1.0f)).invert();
+        view.translation(position).rotateZ(rotation).invert();
+        dirty = true;
     }
 }
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.render;
+
+/**
+ * Represents something that can be submitted to a {@link Renderer} as a single draw.
+ */
+public interface Drawable {
+
+    /**
+     * Get the sort key that determines when the drawable is rendered.
+     *
+     * @return The sort key, as created by {@link SortKey#pack}.
+     */
+    long getSortKey();
+
+    /**
+     * Render the drawable.
+     */
+    void render();
+}
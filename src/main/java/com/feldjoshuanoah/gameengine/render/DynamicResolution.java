@@ -0,0 +1,150 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.render;
+
+/**
+ * Adjusts the internal render scale to hold a target frame rate. The measured frame times are
+ * smoothed with an exponential moving average. The scale is lowered as soon as the average frame
+ * time exceeds the target frame time and is only raised again once there is clear headroom, so it
+ * does not oscillate between two values. Every change is followed by a cooldown during which the
+ * average settles.
+ */
+public class DynamicResolution {
+
+    /**
+     * The weight of a new frame time in the moving average.
+     */
+    private static final float SMOOTHING = 0.1f;
+
+    /**
+     * The fraction of the target frame time the average must fall below before the scale is
+     * raised.
+     */
+    private static final float HEADROOM = 0.85f;
+
+    /**
+     * The largest change of the scale in a single step.
+     */
+    private static final float MAX_STEP = 0.05f;
+
+    /**
+     * The granularity of the scale, so that the render target is not resized for tiny changes.
+     */
+    private static final float QUANTUM = 0.025f;
+
+    /**
+     * The number of frames to wait after a change of the scale.
+     */
+    private static final int COOLDOWN_FRAMES = 30;
+
+    /**
+     * The target frame time, in seconds.
+     */
+    private final float targetFrameTime;
+
+    /**
+     * The smallest scale.
+     */
+    private final float minScale;
+
+    /**
+     * The largest scale.
+     */
+    private final float maxScale;
+
+    /**
+     * The current scale.
+     */
+    private float scale;
+
+    /**
+     * The moving average of the frame time, in seconds.
+     */
+    private float averageFrameTime;
+
+    /**
+     * The number of frames left until the scale may change again.
+     */
+    private int cooldown;
+
+    /**
+     * Create a new dynamic resolution controller which starts at the largest scale.
+     *
+     * @param targetFrameRate The frame rate to hold, in frames per second.
+     * @param minScale The smallest scale.
+     * @param maxScale The largest scale.
+     */
+    public DynamicResolution(final float targetFrameRate, final float minScale,
+            final float maxScale) {
+        if (targetFrameRate <= 0.0f || minScale <= 0.0f || minScale > maxScale) {
+            throw new IllegalArgumentException("Invalid dynamic resolution parameters");
+        }
+        targetFrameTime = 1.0f / targetFrameRate;
+        this.minScale = minScale;
+        this.maxScale = maxScale;
+        scale = maxScale;
+        averageFrameTime = targetFrameTime;
+        cooldown = COOLDOWN_FRAMES;
+    }
+
+    /**
+     * Feed the time the last frame took and adjust the scale.
+     *
+     * @param frameTime The frame time, in seconds.
+     * @return The scale to render the next frame at.
+     */
+    public float update(final float frameTime) {
+        averageFrameTime += (frameTime - averageFrameTime) * SMOOTHING;
+        if (cooldown > 0) {
+            cooldown--;
+            return scale;
+        }
+        if (averageFrameTime <= targetFrameTime && averageFrameTime >= targetFrameTime * HEADROOM) {
+            return scale;
+        }
+        // The cost of a frame grows with the number of pixels, which is the square of the scale.
+        final float desired = scale * (float) Math.sqrt(targetFrameTime / averageFrameTime);
+        final float step = Math.max(-MAX_STEP, Math.min(MAX_STEP, desired - scale));
+        // Round away from the current scale so that a step always moves at least one quantum.
+        final float quanta = (scale + step) / QUANTUM;
+        final float quantized = (float) (step < 0.0f ? Math.floor(quanta) : Math.ceil(quanta))
+                * QUANTUM;
+        final float next = Math.max(minScale, Math.min(maxScale, quantized));
+        if (next != scale) {
+            scale = next;
+            cooldown = COOLDOWN_FRAMES;
+        }
+        return scale;
+    }
+
+    /**
+     * Get the current scale.
+     *
+     * @return The scale.
+     */
+    public float getScale() {
+        return scale;
+    }
+
+    /**
+     * Get the moving average of the frame time.
+     *
+     * @return The average frame time, in seconds.
+     */
+    public float getAverageFrameTime() {
+        return averageFrameTime;
+    }
+}
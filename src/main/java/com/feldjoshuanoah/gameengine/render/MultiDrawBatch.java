@@ -0,0 +1,225 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.render;
+
+import com.feldjoshuanoah.gameengine.render.backend.RenderBackend;
+import com.feldjoshuanoah.gameengine.render.backend.RenderContext;
+import com.feldjoshuanoah.gameengine.render.buffer.IndirectBuffer;
+import com.feldjoshuanoah.gameengine.render.sprite.Texture;
+import org.lwjgl.opengl.GL13;
+import org.lwjgl.opengl.GL30;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a run of consecutive render batches that are drawn with a single multi-draw. The
+ * render batches have to share a {@link BatchStorage} and agree on their texture slots: every
+ * texture slot that is used by two render batches must hold the same texture, which is the case
+ * whenever the render batches draw from the same texture atlas.
+ */
+public class MultiDrawBatch implements Drawable {
+
+    /**
+     * The number of indices used for a quad.
+     */
+    private static final int QUAD_INDICES = 6;
+
+    /**
+     * The number of vertices used for a quad.
+     */
+    private static final int QUAD_VERTICES = 4;
+
+    /**
+     * The texture slots.
+     */
+    private static final int[] TEXTURE_SLOTS = new int[] { 0, 1, 2, 3, 4, 5, 6, 7 };
+
+    /**
+     * The render backend.
+     */
+    private final RenderBackend backend;
+
+    /**
+     * The shader.
+     */
+    private final Shader shader;
+
+    /**
+     * The draw indirect buffer the draw commands are read from.
+     */
+    private final IndirectBuffer indirectBuffer;
+
+    /**
+     * The render batches.
+     */
+    private final List<RenderBatch> batches;
+
+    /**
+     * The textures of all render batches, in slot order.
+     */
+    private final List<Texture> textures;
+
+    /**
+     * The storage of the render batches.
+     */
+    private BatchStorage storage;
+
+    /**
+     * The byte offset of the first draw command in the draw indirect buffer.
+     */
+    private long commandOffset;
+
+    /**
+     * The number of draw commands.
+     */
+    private int commandCount;
+
+    /**
+     * Create a new, empty multi-draw batch.
+     *
+     * @param shader The shader to use.
+     * @param indirectBuffer The draw indirect buffer the draw commands are read from.
+     */
+    public MultiDrawBatch(final Shader shader, final IndirectBuffer indirectBuffer) {
+        this.shader = shader;
+        this.indirectBuffer = indirectBuffer;
+        backend = RenderContext.getBackend();
+        batches = new ArrayList<>();
+        textures = new ArrayList<>();
+    }
+
+    /**
+     * Remove all render batches.
+     */
+    public void clear() {
+        batches.clear();
+        textures.clear();
+        storage = null;
+        commandCount = 0;
+    }
+
+    /**
+     * Return {@code true} if the render batch can be drawn together with the render batches
+     * already in the multi-draw batch. The render batch has to be prepared for the frame, so that
+     * its textures are final. Opaque and translucent render batches are never drawn together,
+     * because the renderer only lets opaque draws write the depth buffer.
+     *
+     * @param batch The render batch.
+     * @return {@code true} if the render batch can be added.
+     */
+    public boolean canAdd(final RenderBatch batch) {
+        if (batch.getStorage() == null || storage != null && batch.getStorage() != storage) {
+            return false;
+        }
+        if (!batches.isEmpty() && SortKey.isTranslucent(batches.get(0).getSortKey())
+                != SortKey.isTranslucent(batch.getSortKey())) {
+            return false;
+        }
+        final List<Texture> batchTextures = batch.getTextures();
+        final int common = Math.min(textures.size(), batchTextures.size());
+        for (int i = 0; i < common; i++) {
+            if (textures.get(i) != null && batchTextures.get(i) != null
+                    && textures.get(i) != batchTextures.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Add a render batch, which must pass {@link #canAdd}.
+     *
+     * @param batch The render batch.
+     */
+    public void add(final RenderBatch batch) {
+        storage = batch.getStorage();
+        batches.add(batch);
+        final List<Texture> batchTextures = batch.getTextures();
+        for (int i = 0; i < batchTextures.size(); i++) {
+            if (i == textures.size()) {
+                textures.add(batchTextures.get(i));
+            } else if (textures.get(i) == null) {
+                textures.set(i, batchTextures.get(i));
+            }
+        }
+    }
+
+    /**
+     * Get the number of render batches.
+     *
+     * @return The number of render batches.
+     */
+    public int getSize() {
+        return batches.size();
+    }
+
+    /**
+     * Append the draw commands of the render batches to a buffer. Every render batch draws its
+     * quads from the start of the shared quad index buffer, offset by the first vertex of its
+     * range in the storage.
+     *
+     * @param commands The buffer, with room for {@link IndirectBuffer#COMMAND_SIZE} ints per
+     *                 render batch.
+     */
+    public void writeCommands(final IntBuffer commands) {
+        commandOffset = (long) commands.position() * Integer.BYTES;
+        commandCount = 0;
+        for (final RenderBatch batch : batches) {
+            if (batch.isEmpty()) {
+                continue;
+            }
+            commands.put(batch.getSize() * QUAD_INDICES).put(1).put(0)
+                    .put(batch.getBaseQuad() * QUAD_VERTICES).put(0);
+            commandCount++;
+        }
+    }
+
+    @Override
+    public long getSortKey() {
+        return batches.isEmpty() ? 0 : batches.get(0).getSortKey();
+    }
+
+    @Override
+    public void render() {
+        if (commandCount == 0) {
+            return;
+        }
+        shader.bind();
+        for (int i = 0; i < textures.size(); i++) {
+            if (textures.get(i) != null) {
+                backend.activeTexture(GL13.GL_TEXTURE0 + i + 1);
+                textures.get(i).bind();
+            }
+        }
+        shader.uniform1iv("u_Textures", TEXTURE_SLOTS);
+
+        storage.bind();
+        indirectBuffer.bind();
+        backend.multiDrawElementsIndirect(GL30.GL_TRIANGLES, GL30.GL_UNSIGNED_INT, commandOffset,
+                commandCount, 0);
+        indirectBuffer.unbind();
+        storage.unbind();
+
+        for (int i = 0; i < textures.size(); i++) {
+            if (textures.get(i) != null) {
+                textures.get(i).unbind();
+            }
+        }
+        shader.unbind();
+    }
+}
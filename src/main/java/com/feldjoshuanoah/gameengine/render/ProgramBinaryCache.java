@@ -0,0 +1,210 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.render;
+
+import com.feldjoshuanoah.gameengine.render.backend.RenderBackend;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL20;
+import org.lwjgl.opengl.GL41;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Represents an on-disk cache of linked shader program binaries. Every binary is stored in its
+ * own file, named after a hash of the shader sources and the driver that produced it, so a driver
+ * update or a changed source simply misses the cache. Binaries rejected by the driver are
+ * discarded and the program is compiled from source instead.
+ */
+public class ProgramBinaryCache {
+
+    /**
+     * The logger for the program binary cache.
+     */
+    private static final Logger LOGGER = Logger.getLogger(ProgramBinaryCache.class.getName());
+
+    /**
+     * The file extension of the cached binaries.
+     */
+    private static final String EXTENSION = ".bin";
+
+    /**
+     * The size of the header preceding the binary, holding its format.
+     */
+    private static final int HEADER_SIZE = Integer.BYTES;
+
+    /**
+     * The directory the binaries are stored in.
+     */
+    private final Path directory;
+
+    /**
+     * Create a new program binary cache.
+     *
+     * @param directory The directory to store the binaries in. It is created on the first store.
+     */
+    public ProgramBinaryCache(final Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Create the cache key of a shader program.
+     *
+     * @param backend The render backend the program is created with.
+     * @param vertexSource The source code of the vertex shader.
+     * @param fragmentSource The source code of the fragment shader.
+     * @return The cache key, or {@code null} if the backend does not support program binaries.
+     */
+    public String createKey(final RenderBackend backend, final String vertexSource,
+            final String fragmentSource) {
+        if (!backend.isProgramBinarySupported()) {
+            return null;
+        }
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, backend.getString(GL11.GL_VENDOR));
+            update(digest, backend.getString(GL11.GL_RENDERER));
+            update(digest, backend.getString(GL11.GL_VERSION));
+            update(digest, vertexSource);
+            update(digest, fragmentSource);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (final NoSuchAlgorithmException exception) {
+            if (LOGGER.isLoggable(Level.WARNING)) {
+                LOGGER.log(Level.WARNING, "Unable to hash shader sources", exception);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Load the cached binary of a shader program.
+     *
+     * @param backend The render backend the program was created with.
+     * @param program The program handle.
+     * @param key The cache key.
+     * @return {@code true} if the program was loaded and linked successfully.
+     */
+    public boolean load(final RenderBackend backend, final int program, final String key) {
+        final Path file = directory.resolve(key + EXTENSION);
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+        final ByteBuffer binary;
+        final int format;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer buffer = BufferUtils.createByteBuffer((int) channel.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Keep reading until the buffer is full.
+            }
+            buffer.flip();
+            if (buffer.remaining() <= HEADER_SIZE) {
+                discard(file);
+                return false;
+            }
+            format = buffer.getInt();
+            binary = buffer.slice();
+        } catch (final IOException exception) {
+            if (LOGGER.isLoggable(Level.WARNING)) {
+                LOGGER.log(Level.WARNING, "Unable to read program binary " + file, exception);
+            }
+            return false;
+        }
+        backend.programBinary(program, format, binary);
+        if (backend.getProgrami(program, GL20.GL_LINK_STATUS) == GL11.GL_FALSE) {
+            if (LOGGER.isLoggable(Level.INFO)) {
+                LOGGER.log(Level.INFO, "Program binary " + file + " was rejected");
+            }
+            discard(file);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Store the binary of a linked shader program. The program must have been linked with
+     * {@code GL_PROGRAM_BINARY_RETRIEVABLE_HINT} set.
+     *
+     * @param backend The render backend the program was created with.
+     * @param program The program handle.
+     * @param key The cache key.
+     */
+    public void store(final RenderBackend backend, final int program, final String key) {
+        final int length = backend.getProgrami(program, GL41.GL_PROGRAM_BINARY_LENGTH);
+        if (length <= 0) {
+            return;
+        }
+        final ByteBuffer buffer = BufferUtils.createByteBuffer(HEADER_SIZE + length);
+        final int format = backend.getProgramBinary(program,
+                buffer.slice(HEADER_SIZE, length));
+        buffer.putInt(0, format);
+        final Path file = directory.resolve(key + EXTENSION);
+        try {
+            Files.createDirectories(directory);
+            final Path temporary = Files.createTempFile(directory, key, null);
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException exception) {
+            if (LOGGER.isLoggable(Level.WARNING)) {
+                LOGGER.log(Level.WARNING, "Unable to write program binary " + file, exception);
+            }
+        }
+    }
+
+    /**
+     * Delete a cached binary that can no longer be used.
+     *
+     * @param file The file of the binary.
+     */
+    private static void discard(final Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (final IOException exception) {
+            if (LOGGER.isLoggable(Level.WARNING)) {
+                LOGGER.log(Level.WARNING, "Unable to delete program binary " + file, exception);
+            }
+        }
+    }
+
+    /**
+     * Add a string to a message digest, terminated so that adjacent strings cannot collide.
+     *
+     * @param digest The message digest.
+     * @param value The string, or {@code null}.
+     */
+    private static void update(final MessageDigest digest, final String value) {
+        if (value != null) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0);
+    }
+}
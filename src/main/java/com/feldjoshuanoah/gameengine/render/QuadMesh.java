@@ -0,0 +1,279 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.render;
+
+import com.feldjoshuanoah.gameengine.render.Shader.DataType;
+import com.feldjoshuanoah.gameengine.render.backend.RenderBackend;
+import com.feldjoshuanoah.gameengine.render.backend.RenderContext;
+import com.feldjoshuanoah.gameengine.render.buffer.QuadIndexBuffer;
+import com.feldjoshuanoah.gameengine.render.buffer.VertexBuffer;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL30;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Represents a mesh of quads that uses the vertex layout of the {@link RenderBatch} without the
+ * depth component of the position, so it can be drawn with the same shader. Quads are appended
+ * to a staging buffer and uploaded in one go, which suits geometry that is rebuilt as a whole,
+ * such as tilemap chunks, text and particles.
+ */
+public class QuadMesh {
+
+    /**
+     * The number of floats in the texture coordinates of a quad.
+     */
+    public static final int QUAD_TEXTURE_COORDINATES = 8;
+
+    /**
+     * The number of floats in the vertex data of a quad.
+     */
+    public static final int QUAD_SIZE = 36;
+
+    /**
+     * The number of vertices used for a quad.
+     */
+    private static final int QUAD_VERTICES = 4;
+
+    /**
+     * The number of indices used for a quad.
+     */
+    private static final int QUAD_INDICES = 6;
+
+    /**
+     * The layout of the vertex shader.
+     */
+    private static final DataType[] LAYOUT = new DataType[] {
+            DataType.VEC2, DataType.VEC4, DataType.VEC2, DataType.FLOAT
+    };
+
+    /**
+     * The number of floats in a vertex.
+     */
+    private static final int VERTEX_SIZE = QUAD_SIZE / QUAD_VERTICES;
+
+    /**
+     * The render backend.
+     */
+    private final RenderBackend backend;
+
+    /**
+     * The maximum number of quads.
+     */
+    private final int capacity;
+
+    /**
+     * The staging buffer the quads are written to.
+     */
+    private final FloatBuffer vertices;
+
+    /**
+     * The vertex data of the quad being appended.
+     */
+    private final float[] quad;
+
+    /**
+     * The vertex array.
+     */
+    private final VertexArray vertexArray;
+
+    /**
+     * The vertex buffer.
+     */
+    private final VertexBuffer vertexBuffer;
+
+    /**
+     * The number of quads written to the staging buffer.
+     */
+    private int size;
+
+    /**
+     * The number of quads in the vertex buffer.
+     */
+    private int uploadedSize;
+
+    /**
+     * Create a new quad mesh.
+     *
+     * @param capacity The maximum number of quads.
+     */
+    public QuadMesh(final int capacity) {
+        this.capacity = capacity;
+        backend = RenderContext.getBackend();
+        vertices = BufferUtils.createFloatBuffer(capacity * QUAD_SIZE);
+        quad = new float[QUAD_SIZE];
+        QuadIndexBuffer.getInstance().ensureCapacity(capacity);
+        vertexArray = new VertexArray();
+        vertexArray.bind();
+        QuadIndexBuffer.getInstance().bind();
+        vertexBuffer = new VertexBuffer(capacity * QUAD_SIZE, LAYOUT);
+        vertexArray.unbind();
+    }
+
+    /**
+     * Remove all quads from the staging buffer. The quads in the vertex buffer are kept until the
+     * next upload.
+     */
+    public void clear() {
+        vertices.clear();
+        size = 0;
+    }
+
+    /**
+     * Append a quad to the staging buffer.
+     *
+     * @param x The x-coordinate of the bottom left corner.
+     * @param y The y-coordinate of the bottom left corner.
+     * @param width The width.
+     * @param height The height.
+     * @param red The red component of the color.
+     * @param green The green component of the color.
+     * @param blue The blue component of the color.
+     * @param alpha The alpha component of the color.
+     * @param textureCoordinates The texture coordinates of the top right, bottom right, bottom left
+     *                           and top left corner, or {@code null} if the quad is untextured.
+     * @param offset The offset of the texture coordinates in the array.
+     * @param textureId The texture slot, or {@code 0} if the quad is untextured.
+     */
+    public void addQuad(final float x, final float y, final float width, final float height,
+            final float red, final float green, final float blue, final float alpha,
+            final float[] textureCoordinates, final int offset, final int textureId) {
+        writeQuad(quad, 0, x, y, width, height, red, green, blue, alpha, textureCoordinates,
+                offset, textureId);
+        addQuads(quad, 0, 1);
+    }
+
+    /**
+     * Append quads whose vertex data has already been written, for example by
+     * {@link #writeQuad}, to the staging buffer.
+     *
+     * @param data The vertex data.
+     * @param offset The offset of the first quad in the array.
+     * @param quads The number of quads.
+     */
+    public void addQuads(final float[] data, final int offset, final int quads) {
+        if (size + quads > capacity) {
+            throw new IllegalStateException("The quad mesh is full");
+        }
+        vertices.put(data, offset, quads * QUAD_SIZE);
+        size += quads;
+    }
+
+    /**
+     * Write the vertex data of a quad into an array, using the layout of the quad mesh.
+     *
+     * @param data The array, with room for {@link #QUAD_SIZE} floats after the offset.
+     * @param dataOffset The offset of the quad in the array.
+     * @param x The x-coordinate of the bottom left corner.
+     * @param y The y-coordinate of the bottom left corner.
+     * @param width The width.
+     * @param height The height.
+     * @param red The red component of the color.
+     * @param green The green component of the color.
+     * @param blue The blue component of the color.
+     * @param alpha The alpha component of the color.
+     * @param textureCoordinates The texture coordinates of the top right, bottom right, bottom left
+     *                           and top left corner, or {@code null} if the quad is untextured.
+     * @param offset The offset of the texture coordinates in the array.
+     * @param textureId The texture slot, or {@code 0} if the quad is untextured.
+     */
+    public static void writeQuad(final float[] data, final int dataOffset, final float x,
+            final float y, final float width, final float height, final float red,
+            final float green, final float blue, final float alpha,
+            final float[] textureCoordinates, final int offset, final int textureId) {
+        int index = dataOffset;
+        for (int i = 0; i < QUAD_VERTICES; i++) {
+            data[index] = i < 2 ? x + width : x;
+            data[index + 1] = i == 0 || i == 3 ? y + height : y;
+            data[index + 2] = red;
+            data[index + 3] = green;
+            data[index + 4] = blue;
+            data[index + 5] = alpha;
+            data[index + 6] = textureCoordinates == null ? 0.0f
+                    : textureCoordinates[offset + 2 * i];
+            data[index + 7] = textureCoordinates == null ? 0.0f
+                    : textureCoordinates[offset + 2 * i + 1];
+            data[index + 8] = textureId;
+            index += VERTEX_SIZE;
+        }
+    }
+
+    /**
+     * Upload the quads in the staging buffer to the vertex buffer.
+     */
+    public void upload() {
+        if (size > 0) {
+            vertices.flip();
+            vertexBuffer.bind();
+            vertexBuffer.setSubData(0L, vertices);
+            vertexBuffer.unbind();
+            vertices.limit(vertices.capacity());
+            vertices.position(size * QUAD_SIZE);
+        }
+        uploadedSize = size;
+    }
+
+    /**
+     * Draw the quads in the vertex buffer. The shader and textures have to be bound by the caller.
+     */
+    public void draw() {
+        if (uploadedSize == 0) {
+            return;
+        }
+        vertexArray.bind();
+        vertexBuffer.enableVertexAttribArrays();
+        backend.drawElements(GL30.GL_TRIANGLES, uploadedSize * QUAD_INDICES,
+                GL30.GL_UNSIGNED_INT, 0);
+        vertexBuffer.disableVertexAttribArrays();
+        vertexArray.unbind();
+    }
+
+    /**
+     * Delete the vertex array and vertex buffer of the quad mesh. The shared quad index buffer is
+     * left intact.
+     */
+    public void delete() {
+        vertexArray.delete();
+        vertexBuffer.delete();
+    }
+
+    /**
+     * Get the number of quads written to the staging buffer.
+     *
+     * @return The number of quads.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Get the maximum number of quads.
+     *
+     * @return The capacity.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Return {@code true} if the staging buffer cannot hold any more quads.
+     *
+     * @return {@code true} if the quad mesh is full.
+     */
+    public boolean isFull() {
+        return size == capacity;
+    }
+}
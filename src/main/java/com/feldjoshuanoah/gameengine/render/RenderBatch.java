@@ -15,26 +15,35 @@
  */
 package com.feldjoshuanoah.gameengine.render;
 
-import com.feldjoshuanoah.gameengine.Application;
 import com.feldjoshuanoah.gameengine.entity.Entity;
 import com.feldjoshuanoah.gameengine.entity.component.ColorComponent;
 import com.feldjoshuanoah.gameengine.entity.component.SpriteComponent;
 import com.feldjoshuanoah.gameengine.render.Shader.DataType;
-import com.feldjoshuanoah.gameengine.render.buffer.IndexBuffer;
+import com.feldjoshuanoah.gameengine.render.backend.RenderBackend;
+import com.feldjoshuanoah.gameengine.render.backend.RenderContext;
+import com.feldjoshuanoah.gameengine.render.buffer.QuadIndexBuffer;
 import com.feldjoshuanoah.gameengine.render.buffer.VertexBuffer;
+import com.feldjoshuanoah.gameengine.render.sprite.Sprite;
 import com.feldjoshuanoah.gameengine.render.sprite.Texture;
+import org.joml.Vector2f;
 import org.joml.Vector4f;
+import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.GL13;
 import org.lwjgl.opengl.GL30;
 
+import java.nio.FloatBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * Represents a render batch.
  */
-public class RenderBatch implements Comparable<RenderBatch> {
+public class RenderBatch implements Drawable {
 
     /**
      * The number of vertices used for a quad.
@@ -47,22 +56,28 @@ public class RenderBatch implements Comparable<RenderBatch> {
     private static final int QUAD_INDICES = 6;
 
     /**
-     * The base indices for a quad.
+     * The texture slots.
      */
-    private static final int[] BASE_INDICES = new int[] { 0, 3, 1, 1, 3, 2 };
+    private static final int[] TEXTURE_SLOTS = new int[] { 0, 1, 2, 3, 4, 5, 6, 7 };
 
     /**
-     * The texture slots.
+     * The texture coordinates of untextured quads.
      */
-    private static final int[] TEXTURE_SLOTS = new int[] { 0, 1, 2, 3, 4, 5, 6, 7 };
+    private static final float[] EMPTY_TEXTURE_COORDINATES = new float[QUAD_VERTICES * 2];
 
     /**
-     * The layout of the vertex shader.
+     * The layout of the vertex shader. The position carries the depth of the layer of the quad
+     * as its third component, which shaders that only read two components ignore.
      */
     private static final DataType[] LAYOUT = new DataType[] {
-            DataType.VEC2, DataType.VEC4, DataType.VEC2, DataType.FLOAT
+            DataType.VEC3, DataType.VEC4, DataType.VEC2, DataType.FLOAT
     };
 
+    /**
+     * The render backend.
+     */
+    private final RenderBackend backend;
+
     /**
      * The batch capacity.
      */
@@ -73,11 +88,6 @@ public class RenderBatch implements Comparable<RenderBatch> {
      */
     private final Shader shader;
 
-    /**
-     * The z-index.
-     */
-    private final int z;
-
     /**
      * The size of a vertex.
      */
@@ -89,101 +99,456 @@ public class RenderBatch implements Comparable<RenderBatch> {
     private final float[] vertices;
 
     /**
-     * The entities.
+     * The entities, indexed by their slot.
+     */
+    private final Entity[] entities;
+
+    /**
+     * The slots, indexed by their entity.
+     */
+    private final Map<Entity, Integer> slots;
+
+    /**
+     * The number of occupied slots.
      */
-    private final List<Entity> entities;
+    private int size;
 
     /**
-     * The textures.
+     * The first slot whose vertex data has not been uploaded yet.
+     */
+    private int dirtyStart;
+
+    /**
+     * The slot after the last slot whose vertex data has not been uploaded yet.
+     */
+    private int dirtyEnd;
+
+    /**
+     * The staging buffer used to upload a range of the vertices, or {@code null} if the render
+     * batch is static.
+     */
+    private final FloatBuffer staging;
+
+    /**
+     * The textures, indexed by their texture id minus one. A texture that is no longer used by
+     * any slot leaves a {@code null} entry, which the next new texture takes.
      */
     private final List<Texture> textures;
 
     /**
-     * The vertex array.
+     * The number of slots using each texture, indexed like the textures.
+     */
+    private final int[] textureUses;
+
+    /**
+     * The texture ids, indexed by their slot. Zero means the quad is untextured.
+     */
+    private final int[] textureIds;
+
+    /**
+     * The read-only view of the textures.
+     */
+    private final List<Texture> texturesView;
+
+    /**
+     * The vertex array, or {@code null} if the render batch lives in a shared storage.
      */
     private final VertexArray vertexArray;
 
     /**
-     * The vertex buffer.
+     * The vertex buffer, which is created when a static render batch is baked, or {@code null} if
+     * the render batch lives in a shared storage.
+     */
+    private VertexBuffer vertexBuffer;
+
+    /**
+     * The shared storage the quads are uploaded to, or {@code null} if the render batch has its
+     * own vertex buffer.
+     */
+    private final BatchStorage storage;
+
+    /**
+     * The first quad of the range of the shared storage that belongs to the render batch.
+     */
+    private final int baseQuad;
+
+    /**
+     * Whether the quads of a static render batch have been uploaded.
      */
-    private final VertexBuffer vertexBuffer;
+    private boolean baked;
 
     /**
-     * Create a new render batch with the given capacity using the given shader.
+     * Whether the render batch is baked into a static vertex buffer on its first render.
+     */
+    private final boolean staticDraw;
+
+    /**
+     * The sort key.
+     */
+    private long sortKey;
+
+    /**
+     * Create a new dynamic render batch with the given capacity using the given shader.
      *
      * @param capacity The desired capacity of the batch.
      * @param shader The shader to use.
-     * @param z The z-index.
      */
-    public RenderBatch(final int capacity, final Shader shader, final int z) {
+    public RenderBatch(final int capacity, final Shader shader) {
+        this(capacity, shader, false);
+    }
+
+    /**
+     * Create a new render batch with the given capacity using the given shader. A static render
+     * batch uploads its quads once into a static vertex buffer on its first render and ignores
+     * all later changes.
+     *
+     * @param capacity The desired capacity of the batch.
+     * @param shader The shader to use.
+     * @param staticDraw Whether the render batch is static.
+     */
+    public RenderBatch(final int capacity, final Shader shader, final boolean staticDraw) {
+        this(capacity, shader, staticDraw, null, 0);
+    }
+
+    /**
+     * Create a new render batch with the given capacity using the given shader, whose quads live
+     * in a range of a shared storage. Render batches in the same storage can be drawn together by
+     * a {@link MultiDrawBatch}.
+     *
+     * @param capacity The desired capacity of the batch.
+     * @param shader The shader to use.
+     * @param staticDraw Whether the render batch is static.
+     * @param storage The shared storage, or {@code null} to create an own vertex buffer.
+     * @param baseQuad The first quad of the range of the shared storage that belongs to the
+     *                 render batch.
+     */
+    public RenderBatch(final int capacity, final Shader shader, final boolean staticDraw,
+            final BatchStorage storage, final int baseQuad) {
         this.capacity = capacity;
         this.shader = shader;
-        this.z = z;
-        entities = new ArrayList<>();
+        this.staticDraw = staticDraw;
+        this.storage = storage;
+        this.baseQuad = baseQuad;
+        backend = RenderContext.getBackend();
+        entities = new Entity[capacity];
+        slots = new HashMap<>();
         textures = new ArrayList<>();
+        texturesView = Collections.unmodifiableList(textures);
+        textureUses = new int[TEXTURE_SLOTS.length - 1];
+        textureIds = new int[capacity];
         vertexSize = Arrays.stream(LAYOUT).mapToInt(DataType::getSize).sum();
         vertices = new float[vertexSize * QUAD_VERTICES * capacity];
+        staging = staticDraw ? null : BufferUtils.createFloatBuffer(vertices.length);
+        dirtyStart = capacity;
 
+        QuadIndexBuffer.getInstance().ensureCapacity(capacity);
+        if (storage != null) {
+            if (storage.getCapacity() < baseQuad + capacity) {
+                throw new IllegalArgumentException("The storage is too small for the batch");
+            }
+            vertexArray = null;
+            return;
+        }
         vertexArray = new VertexArray();
         vertexArray.bind();
+        QuadIndexBuffer.getInstance().bind();
 
-        vertexBuffer = new VertexBuffer(vertices.length, LAYOUT);
-
-        final int[] indices = new int[QUAD_INDICES * capacity];
-        for (int i = 0; i < capacity; i++) {
-            for (int j = 0; j < QUAD_INDICES; j++) {
-                indices[QUAD_INDICES * i + j] = QUAD_VERTICES * i + BASE_INDICES[j];
-            }
+        if (!staticDraw) {
+            vertexBuffer = new VertexBuffer(vertices.length, LAYOUT);
         }
-        new IndexBuffer(indices);
+        vertexArray.unbind();
     }
 
     /**
      * Render all entities in the render batch.
      */
+    @Override
     public void render() {
-        final List<Entity> dirtyEntities = entities.stream().filter(Entity::isDirty).toList();
-        dirtyEntities.forEach(entity -> {
-            loadVertexData(entity);
-            entity.setDirty(false);
-        });
-        if (!dirtyEntities.isEmpty()) {
-            vertexBuffer.bind();
-            vertexBuffer.setSubData(0, vertices);
-        }
+        prepare();
 
         shader.bind();
-        final Camera camera = Application.getInstance().getSceneManager().getScene().getCamera();
-        shader.uniformMatrix4f("u_Projection", camera.getProjection());
-        shader.uniformMatrix4f("u_View", camera.getView());
         for (int i = 0; i < textures.size(); i++) {
-            GL30.glActiveTexture(GL13.GL_TEXTURE0 + i + 1);
-            textures.get(i).bind();
+            if (textures.get(i) != null) {
+                backend.activeTexture(GL13.GL_TEXTURE0 + i + 1);
+                textures.get(i).bind();
+            }
         }
         shader.uniform1iv("u_Textures", TEXTURE_SLOTS);
 
-        vertexArray.bind();
-        vertexBuffer.enableVertexAttribArrays();
-        GL30.glDrawElements(GL30.GL_TRIANGLES, capacity * QUAD_INDICES,
-                GL30.GL_UNSIGNED_INT, 0);
-        vertexBuffer.disableVertexAttribArrays();
-        vertexArray.unbind();
+        if (storage == null) {
+            vertexArray.bind();
+            vertexBuffer.enableVertexAttribArrays();
+            backend.drawElements(GL30.GL_TRIANGLES, size * QUAD_INDICES, GL30.GL_UNSIGNED_INT, 0);
+            vertexBuffer.disableVertexAttribArrays();
+            vertexArray.unbind();
+        } else {
+            storage.bind();
+            backend.drawElementsBaseVertex(GL30.GL_TRIANGLES, size * QUAD_INDICES,
+                    GL30.GL_UNSIGNED_INT, 0, baseQuad * QUAD_VERTICES);
+            storage.unbind();
+        }
 
-        textures.forEach(Texture::unbind);
+        for (int i = 0; i < textures.size(); i++) {
+            if (textures.get(i) != null) {
+                textures.get(i).unbind();
+            }
+        }
         shader.unbind();
     }
 
+    /**
+     * Rewrite the quads of the entities that changed and upload the changed range, or bake a
+     * static render batch that has not been baked yet. This is done by {@link #render}, but has
+     * to be called before the render batch is drawn by a {@link MultiDrawBatch}.
+     */
+    public void prepare() {
+        if (staticDraw) {
+            if (!baked) {
+                bake();
+            }
+        } else {
+            for (int slot = 0; slot < size; slot++) {
+                final Entity entity = entities[slot];
+                if (entity == null) {
+                    continue;
+                }
+                if (entity.isDirty()) {
+                    update(slot);
+                    entity.setDirty(false);
+                } else if (entity.isTextureDirty()) {
+                    loadTextureCoordinates(entity, slot);
+                    markDirty(slot);
+                }
+            }
+            upload();
+        }
+    }
+
+    /**
+     * Upload all quads again on the next render, for example because the shared storage has been
+     * reallocated.
+     */
+    public void invalidate() {
+        if (staticDraw) {
+            baked = false;
+        } else if (size > 0) {
+            markDirty(0);
+            markDirty(size - 1);
+        }
+    }
+
+    /**
+     * Delete the vertex array and vertex buffer of the render batch. The shared quad index buffer
+     * and a shared storage are left intact.
+     */
+    public void delete() {
+        if (vertexArray != null) {
+            vertexArray.delete();
+        }
+        if (vertexBuffer != null) {
+            vertexBuffer.delete();
+        }
+    }
+
     /**
      * Add an entity to the render batch.
      *
      * @param entity The entity to add.
+     * @return The slot the entity was placed in.
+     * @throws IllegalStateException If the render batch is full, or if the texture store is full
+     *                               and does not contain the texture of the entity.
      */
-    public void addEntity(final Entity entity) {
+    public int addEntity(final Entity entity) {
         if (isFull()) {
             throw new IllegalStateException("Render batch has no more capacity.");
         }
-        entities.add(entity);
-        loadVertexData(entity);
+        checkTextureStore(size, getSprite(entity));
+        final int slot = size++;
+        entities[slot] = entity;
+        slots.put(entity, slot);
+        update(slot);
+        entity.setDirty(false);
+        return slot;
+    }
+
+    /**
+     * Remove an entity from the render batch.
+     *
+     * @param entity The entity to remove.
+     */
+    public void removeEntity(final Entity entity) {
+        final Integer slot = slots.get(entity);
+        if (slot != null) {
+            remove(slot);
+        }
+    }
+
+    /**
+     * Place an entity in the specified slot, which must either be occupied or be the first free
+     * slot. The quad is only rewritten if the slot was occupied by something else.
+     *
+     * @param slot The slot.
+     * @param entity The entity to place.
+     * @throws IllegalStateException If the texture store is full and does not contain the
+     *                               texture of the entity.
+     */
+    public void setEntity(final int slot, final Entity entity) {
+        Objects.checkIndex(slot, Math.min(size + 1, capacity));
+        if (entities[slot] != entity) {
+            checkTextureStore(slot, getSprite(entity));
+        }
+        if (slot == size) {
+            size++;
+        } else if (entities[slot] == entity) {
+            return;
+        } else if (entities[slot] != null) {
+            slots.remove(entities[slot]);
+        }
+        final Integer previous = slots.put(entity, slot);
+        if (previous != null && previous != slot && entities[previous] == entity) {
+            entities[previous] = null;
+        }
+        entities[slot] = entity;
+        update(slot);
+        entity.setDirty(false);
+    }
+
+    /**
+     * Free all slots from the specified slot onwards. Textures that are no longer used by any slot
+     * are released.
+     *
+     * @param size The number of slots to keep.
+     */
+    public void truncate(final int size) {
+        Objects.checkFromToIndex(0, size, this.size);
+        for (int slot = size; slot < this.size; slot++) {
+            if (entities[slot] != null && slots.get(entities[slot]) == slot) {
+                slots.remove(entities[slot]);
+            }
+            entities[slot] = null;
+            releaseTexture(slot);
+        }
+        this.size = size;
+    }
+
+    /**
+     * Remove the quad in the specified slot. The quad in the last slot is moved into the freed
+     * slot, so only that quad has to be rewritten.
+     *
+     * @param slot The slot to free.
+     */
+    public void remove(final int slot) {
+        Objects.checkIndex(slot, size);
+        final int last = --size;
+        if (entities[slot] != null) {
+            slots.remove(entities[slot]);
+        }
+        releaseTexture(slot);
+        if (slot != last) {
+            final int quadSize = vertexSize * QUAD_VERTICES;
+            System.arraycopy(vertices, last * quadSize, vertices, slot * quadSize, quadSize);
+            textureIds[slot] = textureIds[last];
+            textureIds[last] = 0;
+            entities[slot] = entities[last];
+            if (entities[slot] != null) {
+                slots.put(entities[slot], slot);
+            }
+            markDirty(slot);
+        }
+        entities[last] = null;
+    }
+
+    /**
+     * Rewrite the quad in the specified slot from the entity occupying it.
+     *
+     * @param slot The slot to update.
+     * @throws IllegalStateException If the texture store is full and does not contain the
+     *                               texture of the entity.
+     */
+    public void update(final int slot) {
+        Objects.checkIndex(slot, size);
+        if (entities[slot] != null) {
+            checkTextureStore(slot, getSprite(entities[slot]));
+            loadVertexData(entities[slot], slot);
+            markDirty(slot);
+        }
+    }
+
+    /**
+     * Add a quad that is not backed by an entity to the render batch.
+     *
+     * @param position The position of the quad.
+     * @param scale The scale of the quad.
+     * @param color The color of the quad, or {@code null} for white.
+     * @param sprite The sprite of the quad, or {@code null} if it is untextured.
+     * @return The slot the quad was placed in.
+     * @throws IllegalStateException If the render batch is full, or if the texture store is full
+     *                               and does not contain the texture of the sprite.
+     */
+    public int addQuad(final Vector2f position, final Vector2f scale, final Vector4f color,
+            final Sprite sprite) {
+        if (isFull()) {
+            throw new IllegalStateException("Render batch has no more capacity.");
+        }
+        checkTextureStore(size, sprite);
+        final int slot = size++;
+        setQuad(slot, position, scale, color, sprite);
+        return slot;
+    }
+
+    /**
+     * Replace the quad in the specified slot. If the slot was occupied by an entity, the entity
+     * is detached from the slot.
+     *
+     * @param slot The slot to replace.
+     * @param position The position of the quad.
+     * @param scale The scale of the quad.
+     * @param color The color of the quad, or {@code null} for white.
+     * @param sprite The sprite of the quad, or {@code null} if it is untextured.
+     * @throws IllegalStateException If the texture store is full and does not contain the
+     *                               texture of the sprite.
+     */
+    public void setQuad(final int slot, final Vector2f position, final Vector2f scale,
+            final Vector4f color, final Sprite sprite) {
+        Objects.checkIndex(slot, size);
+        checkTextureStore(slot, sprite);
+        if (entities[slot] != null) {
+            slots.remove(entities[slot]);
+            entities[slot] = null;
+        }
+        loadVertexData(slot, position.x(), position.y(), scale.x(), scale.y(),
+                Renderer.getLayerDepth(0), color, sprite);
+        markDirty(slot);
+    }
+
+    /**
+     * Get the slot of an entity.
+     *
+     * @param entity The entity.
+     * @return The slot of the entity, or {@code -1} if it is not in the render batch.
+     */
+    public int getSlot(final Entity entity) {
+        return slots.getOrDefault(entity, -1);
+    }
+
+    /**
+     * Get the entity in the specified slot.
+     *
+     * @param slot The slot.
+     * @return The entity in the slot.
+     */
+    public Entity getEntity(final int slot) {
+        Objects.checkIndex(slot, size);
+        return entities[slot];
+    }
+
+    /**
+     * Get the number of occupied slots.
+     *
+     * @return The number of occupied slots.
+     */
+    public int getSize() {
+        return size;
     }
 
     /**
@@ -192,7 +557,16 @@ public class RenderBatch implements Comparable<RenderBatch> {
      * @return {@code true} if the render batch is full.
      */
     public boolean isFull() {
-        return entities.size() == capacity;
+        return size == capacity;
+    }
+
+    /**
+     * Return {@code true} if the render batch is empty.
+     *
+     * @return {@code true} if the render batch is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
     }
 
     /**
@@ -201,7 +575,7 @@ public class RenderBatch implements Comparable<RenderBatch> {
      * @return {@code true} if the texture store of the render batch is full.
      */
     public boolean isTextureStoreFull() {
-        return textures.size() < 8;
+        return textures.size() == textureUses.length && !textures.contains(null);
     }
 
     /**
@@ -215,51 +589,250 @@ public class RenderBatch implements Comparable<RenderBatch> {
     }
 
     /**
-     * Get the z-index.
+     * Get the textures of the render batch, in slot order. Texture slots that are not used by any
+     * quad are {@code null}.
+     *
+     * @return A read-only view of the textures.
+     */
+    public List<Texture> getTextures() {
+        return texturesView;
+    }
+
+    /**
+     * Get the shared storage the quads are uploaded to.
+     *
+     * @return The shared storage, or {@code null} if the render batch has its own vertex buffer.
+     */
+    public BatchStorage getStorage() {
+        return storage;
+    }
+
+    /**
+     * Get the first quad of the range of the shared storage that belongs to the render batch.
+     *
+     * @return The base quad.
+     */
+    public int getBaseQuad() {
+        return baseQuad;
+    }
+
+    @Override
+    public long getSortKey() {
+        return sortKey;
+    }
+
+    /**
+     * Set the sort key.
      *
-     * @return The z-index.
+     * @param sortKey The sort key.
      */
-    public int getZ() {
-        return z;
+    public void setSortKey(final long sortKey) {
+        this.sortKey = sortKey;
     }
 
-    private void loadVertexData(final Entity entity) {
+    /**
+     * Upload the range of slots whose vertex data changed since the last upload.
+     */
+    private void upload() {
+        if (dirtyStart < dirtyEnd) {
+            final int quadSize = vertexSize * QUAD_VERTICES;
+            staging.clear();
+            staging.put(vertices, dirtyStart * quadSize, (dirtyEnd - dirtyStart) * quadSize);
+            staging.flip();
+            final VertexBuffer buffer = storage == null ? vertexBuffer : storage.getVertexBuffer();
+            buffer.bind();
+            buffer.setSubData((long) (baseQuad + dirtyStart) * quadSize * Float.BYTES, staging);
+            dirtyStart = capacity;
+            dirtyEnd = 0;
+        }
+    }
+
+    /**
+     * Upload the occupied slots into a static vertex buffer, or into the range of the shared
+     * storage.
+     */
+    private void bake() {
+        final float[] data = Arrays.copyOf(vertices, size * vertexSize * QUAD_VERTICES);
+        if (storage == null) {
+            if (vertexBuffer != null) {
+                vertexBuffer.delete();
+            }
+            vertexArray.bind();
+            vertexBuffer = new VertexBuffer(data, LAYOUT);
+            vertexArray.unbind();
+        } else {
+            storage.getVertexBuffer().bind();
+            storage.getVertexBuffer().setSubData(baseQuad * vertexSize * QUAD_VERTICES
+                    * Float.BYTES, data);
+        }
+        baked = true;
+        dirtyStart = capacity;
+        dirtyEnd = 0;
+    }
+
+    /**
+     * Extend the range of slots that have to be uploaded by the specified slot.
+     *
+     * @param slot The slot whose vertex data changed.
+     */
+    private void markDirty(final int slot) {
+        dirtyStart = Math.min(dirtyStart, slot);
+        dirtyEnd = Math.max(dirtyEnd, slot + 1);
+    }
+
+    /**
+     * Write the vertex data of an entity into the specified slot.
+     *
+     * @param entity The entity.
+     * @param slot The slot.
+     */
+    private void loadVertexData(final Entity entity, final int slot) {
         final Transform transform = entity.getTransform();
-        int offset = entities.indexOf(entity) * vertexSize * QUAD_VERTICES;
-        float x = 1.0f;
-        float y = 1.0f;
+        final ColorComponent colorComponent = entity.getComponent(ColorComponent.class);
+        loadVertexData(slot, transform.getX(), transform.getY(), transform.getScaleX(),
+                transform.getScaleY(), Renderer.getLayerDepth(entity.getZ()),
+                colorComponent == null ? null : colorComponent.getColor(), getSprite(entity));
+        loadTextureCoordinates(entity, slot);
+    }
+
+    /**
+     * Write the vertex data of a quad into the specified slot. Nothing is allocated, since this
+     * runs for every changed quad in every frame.
+     *
+     * @param slot The slot.
+     * @param x The x-coordinate of the bottom left corner of the quad.
+     * @param y The y-coordinate of the bottom left corner of the quad.
+     * @param width The width of the quad.
+     * @param height The height of the quad.
+     * @param depth The depth of the layer of the quad.
+     * @param color The color of the quad, or {@code null} for white.
+     * @param sprite The sprite of the quad, or {@code null} if it is untextured.
+     */
+    private void loadVertexData(final int slot, final float x, final float y, final float width,
+            final float height, final float depth, final Vector4f color, final Sprite sprite) {
+        final float red = color == null ? 1.0f : color.x();
+        final float green = color == null ? 1.0f : color.y();
+        final float blue = color == null ? 1.0f : color.z();
+        final float alpha = color == null ? 1.0f : color.w();
+        final float[] textureCoordinates = sprite == null ? EMPTY_TEXTURE_COORDINATES
+                : sprite.getTextureCoordinateArray();
+        releaseTexture(slot);
+        final int textureId = sprite == null ? 0 : acquireTexture(sprite.getTexture());
+        textureIds[slot] = textureId;
+        int offset = slot * vertexSize * QUAD_VERTICES;
         for (int i = 0; i < QUAD_VERTICES; i++) {
-            switch (i) {
-                case 1 -> y = 0.0f;
-                case 2 -> x = 0.0f;
-                case 3 -> y = 1.0f;
-            }
-            vertices[offset] = transform.getPosition().x() + x * transform.getScale().x();
-            vertices[offset + 1] = transform.getPosition().y() + y * transform.getScale().y();
-            final ColorComponent colorComponent = entity.getComponent(ColorComponent.class);
-            final Vector4f color = colorComponent == null ? new Vector4f(1.0f, 1.0f, 1.0f, 1.0f)
-                    : colorComponent.getColor();
-            for (int j = 0; j < 4; j++) {
-                vertices[offset + 2 + j] = color.get(j);
+            // The corners are top right, bottom right, bottom left and top left.
+            vertices[offset] = i < 2 ? x + width : x;
+            vertices[offset + 1] = i == 0 || i == 3 ? y + height : y;
+            vertices[offset + 2] = depth;
+            vertices[offset + 3] = red;
+            vertices[offset + 4] = green;
+            vertices[offset + 5] = blue;
+            vertices[offset + 6] = alpha;
+            vertices[offset + 7] = textureCoordinates[2 * i];
+            vertices[offset + 8] = textureCoordinates[2 * i + 1];
+            vertices[offset + 9] = textureId;
+            offset += vertexSize;
+        }
+    }
+
+    /**
+     * Make sure that a quad with the specified sprite can be written into the specified slot. The
+     * texture store has room if it contains the texture, has a free texture slot, or the quad
+     * being replaced is the only one using its texture.
+     *
+     * @param slot The slot, which is the first free slot for a new quad.
+     * @param sprite The sprite of the quad, or {@code null} if it is untextured.
+     * @throws IllegalStateException If the texture store is full and does not contain the
+     *                               texture of the sprite.
+     */
+    private void checkTextureStore(final int slot, final Sprite sprite) {
+        if (sprite == null || !isTextureStoreFull() || containsTexture(sprite.getTexture())) {
+            return;
+        }
+        final int textureId = slot < size ? textureIds[slot] : 0;
+        if (textureId == 0 || textureUses[textureId - 1] > 1) {
+            throw new IllegalStateException("The texture store of the render batch is full.");
+        }
+    }
+
+    /**
+     * Get the sprite of an entity.
+     *
+     * @param entity The entity.
+     * @return The sprite, or {@code null} if the entity has no sprite.
+     */
+    private static Sprite getSprite(final Entity entity) {
+        final SpriteComponent spriteComponent = entity.getComponent(SpriteComponent.class);
+        return spriteComponent == null ? null : spriteComponent.getSprite();
+    }
+
+    /**
+     * Get the texture id of a texture for a new quad, taking a free texture slot if the texture
+     * is not used yet.
+     *
+     * @param texture The texture.
+     * @return The texture id.
+     */
+    private int acquireTexture(final Texture texture) {
+        int index = textures.indexOf(texture);
+        if (index < 0) {
+            index = textures.indexOf(null);
+            if (index < 0) {
+                textures.add(texture);
+                index = textures.size() - 1;
+            } else {
+                textures.set(index, texture);
             }
-            final SpriteComponent spriteComponent = entity.getComponent(SpriteComponent.class);
-            int textureId = 0;
-            if (spriteComponent != null) {
-                final Texture texture = spriteComponent.getSprite().getTexture();
-                if (!textures.contains(texture)) {
-                    textures.add(texture);
-                }
-                textureId = textures.indexOf(texture) + 1;
-                vertices[offset + 6] = spriteComponent.getSprite().getTextureCoordinates()[i].x();
-                vertices[offset + 7] = spriteComponent.getSprite().getTextureCoordinates()[i].y();
+        }
+        textureUses[index]++;
+        return index + 1;
+    }
+
+    /**
+     * Release the texture used by the quad in the specified slot. A texture that is no longer
+     * used by any slot frees its texture slot, while the texture ids of the other textures stay
+     * the same, so no other quad has to be rewritten.
+     *
+     * @param slot The slot.
+     */
+    private void releaseTexture(final int slot) {
+        final int textureId = textureIds[slot];
+        if (textureId == 0) {
+            return;
+        }
+        textureIds[slot] = 0;
+        if (--textureUses[textureId - 1] == 0) {
+            textures.set(textureId - 1, null);
+            while (!textures.isEmpty() && textures.get(textures.size() - 1) == null) {
+                textures.remove(textures.size() - 1);
             }
-            vertices[offset + 8] = textureId;
-            offset += vertexSize;
         }
     }
 
-    @Override
-    public int compareTo(final RenderBatch renderBatch) {
-        return Integer.compare(z, renderBatch.getZ());
+    /**
+     * Write the texture coordinates of an entity into the specified slot, taken from its table,
+     * or from its sprite if it has no table. The rest of the quad is left untouched.
+     *
+     * @param entity The entity.
+     * @param slot The slot.
+     */
+    private void loadTextureCoordinates(final Entity entity, final int slot) {
+        entity.setTextureDirty(false);
+        float[] textureCoordinates = entity.getTextureCoordinates();
+        int source = entity.getTextureCoordinatesOffset();
+        if (textureCoordinates == null) {
+            final Sprite sprite = getSprite(entity);
+            textureCoordinates = sprite == null ? EMPTY_TEXTURE_COORDINATES
+                    : sprite.getTextureCoordinateArray();
+            source = 0;
+        }
+        int offset = slot * vertexSize * QUAD_VERTICES + 7;
+        for (int i = 0; i < QUAD_VERTICES; i++) {
+            vertices[offset] = textureCoordinates[source];
+            vertices[offset + 1] = textureCoordinates[source + 1];
+            offset += vertexSize;
+            source += 2;
+        }
     }
 }
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.render;
+
+import java.util.Arrays;
+
+/**
+ * Represents a queue of sort keys with an associated value each, which is sorted by the keys with
+ * a least significant digit radix sort over primitive arrays.
+ */
+public class RenderQueue {
+
+    /**
+     * The number of bits sorted per pass.
+     */
+    private static final int RADIX_BITS = 8;
+
+    /**
+     * The number of buckets per pass.
+     */
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    /**
+     * The number of passes needed to sort 64-bit keys.
+     */
+    private static final int PASSES = Long.SIZE / RADIX_BITS;
+
+    /**
+     * The bucket counts of the current pass.
+     */
+    private final int[] counts;
+
+    /**
+     * The keys.
+     */
+    private long[] keys;
+
+    /**
+     * The values.
+     */
+    private int[] values;
+
+    /**
+     * The scratch keys used while sorting.
+     */
+    private long[] scratchKeys;
+
+    /**
+     * The scratch values used while sorting.
+     */
+    private int[] scratchValues;
+
+    /**
+     * The number of submitted entries.
+     */
+    private int size;
+
+    /**
+     * Create a new render queue.
+     *
+     * @param capacity The initial capacity.
+     */
+    public RenderQueue(final int capacity) {
+        counts = new int[RADIX];
+        keys = new long[capacity];
+        values = new int[capacity];
+        scratchKeys = new long[capacity];
+        scratchValues = new int[capacity];
+    }
+
+    /**
+     * Submit an entry.
+     *
+     * @param key The sort key.
+     * @param value The value.
+     */
+    public void submit(final long key, final int value) {
+        if (size == keys.length) {
+            final int capacity = Math.max(16, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+            scratchKeys = new long[capacity];
+            scratchValues = new int[capacity];
+        }
+        keys[size] = key;
+        values[size] = value;
+        size++;
+    }
+
+    /**
+     * Sort the entries by their keys, treating the keys as unsigned. Entries with equal keys
+     * keep their submission order.
+     */
+    public void sort() {
+        for (int pass = 0; pass < PASSES; pass++) {
+            final int shift = pass * RADIX_BITS;
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < size; i++) {
+                counts[(int) (keys[i] >>> shift) & RADIX - 1]++;
+            }
+            if (size == 0 || counts[(int) (keys[0] >>> shift) & RADIX - 1] == size) {
+                continue;
+            }
+            int offset = 0;
+            for (int i = 0; i < RADIX; i++) {
+                final int count = counts[i];
+                counts[i] = offset;
+                offset += count;
+            }
+            for (int i = 0; i < size; i++) {
+                final int target = counts[(int) (keys[i] >>> shift) & RADIX - 1]++;
+                scratchKeys[target] = keys[i];
+                scratchValues[target] = values[i];
+            }
+            final long[] sortedKeys = scratchKeys;
+            scratchKeys = keys;
+            keys = sortedKeys;
+            final int[] sortedValues = scratchValues;
+            scratchValues = values;
+            values = sortedValues;
+        }
+    }
+
+    /**
+     * Remove all entries.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Get the number of entries.
+     *
+     * @return The number of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the key of the entry at the specified position.
+     *
+     * @param index The position of the entry.
+     * @return The key.
+     */
+    public long getKey(final int index) {
+        return keys[index];
+    }
+
+    /**
+     * Get the value of the entry at the specified position.
+     *
+     * @param index The position of the entry.
+     * @return The value.
+     */
+    public int getValue(final int index) {
+        return values[index];
+    }
+}
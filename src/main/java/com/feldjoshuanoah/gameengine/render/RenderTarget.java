@@ -0,0 +1,232 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.render;
+
+import com.feldjoshuanoah.gameengine.render.backend.RenderBackend;
+import com.feldjoshuanoah.gameengine.render.backend.RenderContext;
+import com.feldjoshuanoah.gameengine.render.sprite.Texture;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL30;
+
+/**
+ * Represents an offscreen render target with a color texture and a depth buffer. Everything
+ * rendered while the render target is bound ends up in its color texture, which can then be
+ * drawn like any other texture or copied to the default framebuffer. Render targets can be
+ * nested: unbinding a render target rebinds the render target that was bound before it.
+ */
+public class RenderTarget {
+
+    /**
+     * The currently bound render target, or {@code null} if the default framebuffer is bound.
+     */
+    private static RenderTarget current;
+
+    /**
+     * The width of the default framebuffer.
+     */
+    private static int defaultWidth;
+
+    /**
+     * The height of the default framebuffer.
+     */
+    private static int defaultHeight;
+
+    /**
+     * The render backend.
+     */
+    private final RenderBackend backend;
+
+    /**
+     * The framebuffer id.
+     */
+    private final int framebuffer;
+
+    /**
+     * The depth renderbuffer id.
+     */
+    private final int depthBuffer;
+
+    /**
+     * The color texture.
+     */
+    private Texture texture;
+
+    /**
+     * The render target that was bound before this one.
+     */
+    private RenderTarget previous;
+
+    /**
+     * Create a new render target.
+     *
+     * @param width The width, in pixels.
+     * @param height The height, in pixels.
+     */
+    public RenderTarget(final int width, final int height) {
+        backend = RenderContext.getBackend();
+        framebuffer = backend.createFramebuffer();
+        depthBuffer = backend.createRenderbuffer();
+        attach(width, height);
+    }
+
+    /**
+     * Set the size of the default framebuffer, which is restored when the outermost render target
+     * is unbound.
+     *
+     * @param width The width, in pixels.
+     * @param height The height, in pixels.
+     */
+    public static void setDefaultViewport(final int width, final int height) {
+        defaultWidth = width;
+        defaultHeight = height;
+        if (current == null) {
+            RenderContext.getBackend().viewport(0, 0, width, height);
+        }
+    }
+
+    /**
+     * Bind the render target and set the viewport to its size.
+     */
+    public void bind() {
+        if (previous != null || current == this) {
+            throw new IllegalStateException("The render target is already bound");
+        }
+        previous = current;
+        current = this;
+        backend.bindFramebuffer(GL30.GL_FRAMEBUFFER, framebuffer);
+        backend.viewport(0, 0, texture.getWidth(), texture.getHeight());
+    }
+
+    /**
+     * Unbind the render target and rebind the render target that was bound before it.
+     */
+    public void unbind() {
+        if (current != this) {
+            throw new IllegalStateException("The render target is not the bound render target");
+        }
+        current = previous;
+        previous = null;
+        if (current == null) {
+            backend.bindFramebuffer(GL30.GL_FRAMEBUFFER, 0);
+            backend.viewport(0, 0, defaultWidth, defaultHeight);
+        } else {
+            backend.bindFramebuffer(GL30.GL_FRAMEBUFFER, current.framebuffer);
+            backend.viewport(0, 0, current.getWidth(), current.getHeight());
+        }
+    }
+
+    /**
+     * Resize the render target. The content is lost. Nothing happens if the size is unchanged.
+     *
+     * @param width The width, in pixels.
+     * @param height The height, in pixels.
+     */
+    public void resize(final int width, final int height) {
+        if (width == texture.getWidth() && height == texture.getHeight()) {
+            return;
+        }
+        texture.delete();
+        attach(width, height);
+        if (current == this) {
+            backend.viewport(0, 0, width, height);
+        }
+    }
+
+    /**
+     * Copy the content of the render target, stretched to the given rectangle, into the bound
+     * render target or the default framebuffer.
+     *
+     * @param x The left edge of the rectangle.
+     * @param y The bottom edge of the rectangle.
+     * @param width The width of the rectangle.
+     * @param height The height of the rectangle.
+     * @param filter The filter used for stretching, {@code GL_NEAREST} or {@code GL_LINEAR}.
+     */
+    public void blit(final int x, final int y, final int width, final int height,
+            final int filter) {
+        if (current == this) {
+            throw new IllegalStateException("Unable to blit a render target into itself");
+        }
+        backend.bindFramebuffer(GL30.GL_READ_FRAMEBUFFER, framebuffer);
+        backend.bindFramebuffer(GL30.GL_DRAW_FRAMEBUFFER,
+                current == null ? 0 : current.framebuffer);
+        backend.blitFramebuffer(0, 0, texture.getWidth(), texture.getHeight(), x, y, x + width,
+                y + height, GL11.GL_COLOR_BUFFER_BIT, filter);
+        backend.bindFramebuffer(GL30.GL_FRAMEBUFFER, current == null ? 0 : current.framebuffer);
+    }
+
+    /**
+     * Delete the framebuffer, the color texture and the depth buffer. The render target must not
+     * be used afterwards.
+     */
+    public void delete() {
+        backend.deleteFramebuffer(framebuffer);
+        backend.deleteRenderbuffer(depthBuffer);
+        texture.delete();
+    }
+
+    /**
+     * Get the color texture.
+     *
+     * @return The texture.
+     */
+    public Texture getTexture() {
+        return texture;
+    }
+
+    /**
+     * Get the width of the render target.
+     *
+     * @return The width, in pixels.
+     */
+    public int getWidth() {
+        return texture.getWidth();
+    }
+
+    /**
+     * Get the height of the render target.
+     *
+     * @return The height, in pixels.
+     */
+    public int getHeight() {
+        return texture.getHeight();
+    }
+
+    /**
+     * Create a color texture and depth buffer storage of the given size and attach them to the
+     * framebuffer.
+     *
+     * @param width The width, in pixels.
+     * @param height The height, in pixels.
+     */
+    private void attach(final int width, final int height) {
+        texture = new Texture(width, height);
+        backend.bindFramebuffer(GL30.GL_FRAMEBUFFER, framebuffer);
+        backend.framebufferTexture2D(GL30.GL_FRAMEBUFFER, GL30.GL_COLOR_ATTACHMENT0,
+                GL11.GL_TEXTURE_2D, texture.getId(), 0);
+        backend.bindRenderbuffer(GL30.GL_RENDERBUFFER, depthBuffer);
+        backend.renderbufferStorage(GL30.GL_RENDERBUFFER, GL30.GL_DEPTH_COMPONENT24, width,
+                height);
+        backend.bindRenderbuffer(GL30.GL_RENDERBUFFER, 0);
+        backend.framebufferRenderbuffer(GL30.GL_FRAMEBUFFER, GL30.GL_DEPTH_ATTACHMENT,
+                GL30.GL_RENDERBUFFER, depthBuffer);
+        final int status = backend.checkFramebufferStatus(GL30.GL_FRAMEBUFFER);
+        backend.bindFramebuffer(GL30.GL_FRAMEBUFFER, current == null ? 0 : current.framebuffer);
+        if (status != GL30.GL_FRAMEBUFFER_COMPLETE) {
+            throw new IllegalStateException("The framebuffer is incomplete: " + status);
+        }
+    }
+}
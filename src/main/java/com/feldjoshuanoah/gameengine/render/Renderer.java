@@ -16,13 +16,30 @@
 package com.feldjoshuanoah.gameengine.render;
 
 import com.feldjoshuanoah.gameengine.entity.Entity;
+import com.feldjoshuanoah.gameengine.entity.component.ColorComponent;
 import com.feldjoshuanoah.gameengine.entity.component.SpriteComponent;
+import com.feldjoshuanoah.gameengine.render.backend.RenderBackend;
+import com.feldjoshuanoah.gameengine.render.backend.RenderContext;
+import com.feldjoshuanoah.gameengine.render.buffer.IndirectBuffer;
+import com.feldjoshuanoah.gameengine.render.buffer.UniformBuffer;
+import com.feldjoshuanoah.gameengine.render.sprite.Texture;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL11;
 
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
- * Represents a renderer.
+ * Represents a renderer. Every frame, the entities and drawables are sorted by their
+ * {@link SortKey} and consecutive entities are packed into render batches in that order. Static
+ * entities are baked into static render batches once and are only rebuilt when the set of static
+ * entities changes. If the context supports multi-draw indirect, the render batches live in
+ * shared storages and consecutive render batches are drawn with a single multi-draw.
  */
 public class Renderer {
 
@@ -31,55 +48,614 @@ public class Renderer {
      */
     private static final int BATCH_CAPACITY = 1000;
 
+    /**
+     * The maximum batch capacity to use for static render batches.
+     */
+    private static final int STATIC_BATCH_CAPACITY = 10000;
+
+    /**
+     * The number of consecutive frames a render batch has to stay unused before it is deleted.
+     */
+    private static final int UNUSED_BATCH_FRAMES = 60;
+
+    /**
+     * The name of the uniform block holding the camera matrices. Programs drawn by the renderer
+     * declare it as {@code uniform Camera { mat4 u_Projection; mat4 u_View; };}.
+     */
+    public static final String CAMERA_BLOCK = "Camera";
+
+    /**
+     * The binding point of the uniform block holding the camera matrices.
+     */
+    public static final int CAMERA_BINDING = 0;
+
+    /**
+     * The number of floats in a mat4.
+     */
+    private static final int MATRIX_SIZE = 16;
+
+    /**
+     * The layer opaque entities are sorted into when depth layering is enabled, so that they are
+     * drawn first regardless of their own layer.
+     */
+    private static final int OPAQUE_LAYER = Short.MIN_VALUE;
+
+    /**
+     * The render backend.
+     */
+    private final RenderBackend backend;
+
     /**
      * The shader.
      */
     private final Shader shader;
 
     /**
-     * The render batches.
+     * The camera.
+     */
+    private final Camera camera;
+
+    /**
+     * The uniform buffer holding the camera matrices.
+     */
+    private final UniformBuffer cameraBuffer;
+
+    /**
+     * The camera matrices, as last written to the uniform buffer.
+     */
+    private final FloatBuffer cameraMatrices;
+
+    /**
+     * Whether the shader reads the camera matrices from the uniform block. Otherwise, they are
+     * uploaded to the {@code u_Projection} and {@code u_View} uniforms once per frame.
+     */
+    private final boolean cameraBlock;
+
+    /**
+     * The entities.
+     */
+    private final List<Entity> entities;
+
+    /**
+     * The positions of the entities in the entity list.
+     */
+    private final Map<Entity, Integer> indices;
+
+    /**
+     * The sort keys of the entities, indexed like the entity list.
+     */
+    private long[] keys;
+
+    /**
+     * The textures of the entities, indexed like the entity list.
+     */
+    private Texture[] textures;
+
+    /**
+     * The static entities.
+     */
+    private final List<Entity> staticEntities;
+
+    /**
+     * The static render batches the static entities are baked into.
+     */
+    private final List<RenderBatch> staticBatches;
+
+    /**
+     * Whether the static entities changed since they were last baked.
+     */
+    private boolean staticDirty;
+
+    /**
+     * The drawables.
+     */
+    private final List<Drawable> drawables;
+
+    /**
+     * The render queue.
+     */
+    private final RenderQueue queue;
+
+    /**
+     * The render batches, in the order they were last filled.
      */
     private final List<RenderBatch> batches;
 
     /**
-     * Create a new renderer which uses the given shader.
+     * The drawables to render in the current frame, in submission order.
+     */
+    private final List<Drawable> drawList;
+
+    /**
+     * The number of consecutive frames in which not all render batches were used.
+     */
+    private int unusedFrames;
+
+    /**
+     * The shared storage of the dynamic render batches, or {@code null} if multi-draw indirect is
+     * not supported.
+     */
+    private final BatchStorage batchStorage;
+
+    /**
+     * The shared storage of the static render batches, or {@code null} if multi-draw indirect is
+     * not supported or there are no static entities.
+     */
+    private BatchStorage staticStorage;
+
+    /**
+     * The draw indirect buffer, or {@code null} if multi-draw indirect is not supported.
+     */
+    private final IndirectBuffer indirectBuffer;
+
+    /**
+     * The draw commands of the current frame.
+     */
+    private IntBuffer commands;
+
+    /**
+     * The multi-draw batches.
+     */
+    private final List<MultiDrawBatch> multiDrawBatches;
+
+    /**
+     * Whether opaque entities of all layers are drawn together and ordered by the depth buffer.
+     */
+    private boolean depthLayering;
+
+    /**
+     * Create a new renderer which uses the given shader and views the scene through the given
+     * camera.
      *
      * @param shader The shader to use.
+     * @param camera The camera to use.
      */
-    public Renderer(final Shader shader) {
+    public Renderer(final Shader shader, final Camera camera) {
         this.shader = shader;
-        this.batches = new ArrayList<>();
+        this.camera = camera;
+        backend = RenderContext.getBackend();
+        cameraBuffer = new UniformBuffer(Camera.MATRICES_SIZE, CAMERA_BINDING);
+        cameraMatrices = BufferUtils.createFloatBuffer(Camera.MATRICES_SIZE);
+        cameraBlock = shader.bindUniformBlock(CAMERA_BLOCK, CAMERA_BINDING);
+        camera.setDirty(true);
+        entities = new ArrayList<>();
+        indices = new HashMap<>();
+        keys = new long[BATCH_CAPACITY];
+        textures = new Texture[BATCH_CAPACITY];
+        staticEntities = new ArrayList<>();
+        staticBatches = new ArrayList<>();
+        drawables = new ArrayList<>();
+        queue = new RenderQueue(BATCH_CAPACITY);
+        batches = new ArrayList<>();
+        drawList = new ArrayList<>();
+        if (backend.isMultiDrawIndirectSupported()) {
+            batchStorage = new BatchStorage(BATCH_CAPACITY);
+            indirectBuffer = new IndirectBuffer();
+        } else {
+            batchStorage = null;
+            indirectBuffer = null;
+        }
+        commands = BufferUtils.createIntBuffer(IndirectBuffer.COMMAND_SIZE);
+        multiDrawBatches = new ArrayList<>();
     }
 
     /**
-     * Add an entity.
+     * Add an entity. Static entities are baked into static render batches on the next render.
      *
      * @param entity The entity to render.
      */
     public void add(final Entity entity) {
-        batches.stream().filter(renderBatch -> {
-            final SpriteComponent spriteComponent = entity.getComponent(SpriteComponent.class);
-            boolean textureCapacity = true;
-            if (spriteComponent != null) {
-                textureCapacity = !renderBatch.isTextureStoreFull() || renderBatch.containsTexture(
-                        spriteComponent.getSprite().getTexture());
+        if (entity.isStatic()) {
+            staticEntities.add(entity);
+            staticDirty = true;
+            return;
+        }
+        if (indices.containsKey(entity)) {
+            return;
+        }
+        final int index = entities.size();
+        if (index == keys.length) {
+            keys = Arrays.copyOf(keys, index * 2);
+            textures = Arrays.copyOf(textures, index * 2);
+        }
+        entities.add(entity);
+        indices.put(entity, index);
+        updateSortKey(index);
+    }
+
+    /**
+     * Remove an entity.
+     *
+     * @param entity The entity to stop rendering.
+     */
+    public void remove(final Entity entity) {
+        final Integer index = indices.remove(entity);
+        if (index == null) {
+            staticDirty |= staticEntities.remove(entity);
+            return;
+        }
+        final int last = entities.size() - 1;
+        final Entity moved = entities.remove(last);
+        if (index != last) {
+            entities.set(index, moved);
+            indices.put(moved, index);
+            keys[index] = keys[last];
+            textures[index] = textures[last];
+        }
+        textures[last] = null;
+    }
+
+    /**
+     * Add a drawable.
+     *
+     * @param drawable The drawable to render.
+     */
+    public void add(final Drawable drawable) {
+        drawables.add(drawable);
+    }
+
+    /**
+     * Remove a drawable.
+     *
+     * @param drawable The drawable to stop rendering.
+     */
+    public void remove(final Drawable drawable) {
+        drawables.remove(drawable);
+    }
+
+    /**
+     * Sort everything that has been added by its sort key, pack the entities into render batches
+     * and render them together with the drawables.
+     */
+    public void render() {
+        if (staticDirty) {
+            bakeStaticEntities();
+        }
+        queue.clear();
+        for (int i = 0; i < entities.size(); i++) {
+            if (entities.get(i).isDirty()) {
+                updateSortKey(i);
+            }
+            queue.submit(keys[i], i);
+        }
+        for (int i = 0; i < drawables.size(); i++) {
+            queue.submit(drawables.get(i).getSortKey(), ~i);
+        }
+        for (int i = 0; i < staticBatches.size(); i++) {
+            queue.submit(staticBatches.get(i).getSortKey(), ~(drawables.size() + i));
+        }
+        queue.sort();
+
+        drawList.clear();
+        int batchCount = 0;
+        RenderBatch batch = null;
+        int slot = 0;
+        for (int i = 0; i < queue.size(); i++) {
+            final int value = queue.getValue(i);
+            if (value < 0) {
+                if (batch != null) {
+                    batch.truncate(slot);
+                    batch = null;
+                }
+                drawList.add(~value < drawables.size() ? drawables.get(~value)
+                        : staticBatches.get(~value - drawables.size()));
+                continue;
             }
-            return !renderBatch.isFull() && textureCapacity && entity.getZ() == renderBatch.getZ();
-        }).findFirst().ifPresentOrElse(
-                renderBatch -> renderBatch.addEntity(entity),
-                () -> {
-                    final RenderBatch renderBatch = new RenderBatch(BATCH_CAPACITY, shader,
-                            entity.getZ());
-                    batches.add(renderBatch);
-                    renderBatch.addEntity(entity);
+            final Texture texture = textures[value];
+            final long key = queue.getKey(i);
+            if (batch == null || slot == BATCH_CAPACITY
+                    || SortKey.getBucket(key) != SortKey.getBucket(batch.getSortKey())
+                    || texture != null && !batch.containsTexture(texture)
+                    && batch.isTextureStoreFull()) {
+                if (batch != null) {
+                    batch.truncate(slot);
                 }
-        );
+                batch = getBatch(batchCount++);
+                batch.setSortKey(key);
+                slot = 0;
+                drawList.add(batch);
+            }
+            batch.setEntity(slot++, entities.get(value));
+        }
+        if (batch != null) {
+            batch.truncate(slot);
+        }
+        for (int i = batchCount; i < batches.size(); i++) {
+            batches.get(i).truncate(0);
+        }
+        releaseUnusedBatches(batchCount);
+        if (indirectBuffer != null) {
+            mergeBatches();
+        }
+
+        uploadCamera();
+        if (depthLayering) {
+            renderWithDepth();
+        } else {
+            drawList.forEach(Drawable::render);
+        }
     }
 
     /**
-     * Render all render batches.
+     * Return {@code true} if depth layering is enabled.
+     *
+     * @return {@code true} if depth layering is enabled.
      */
-    public void render() {
-        batches.stream().sorted().forEach(RenderBatch::render);
+    public boolean isDepthLayering() {
+        return depthLayering;
+    }
+
+    /**
+     * Enable or disable depth layering. With depth layering, opaque entities are no longer sorted
+     * by their layer, so entities of different layers can share render batches. They are drawn
+     * first with depth writes, and the depth buffer keeps nearer layers in front. Translucent
+     * entities and drawables follow in layer order, tested against the depth buffer.
+     *
+     * <p>The shader has to output the third component of the vertex position, which holds the
+     * depth of the layer as returned by {@link #getLayerDepth}, as the normalized device depth and
+     * discard fully transparent fragments. Drawables are drawn at the depth of their layer by
+     * narrowing the depth range, so their depth output is ignored. The render target needs a
+     * depth buffer.
+     *
+     * @param depthLayering Whether depth layering is enabled.
+     */
+    public void setDepthLayering(final boolean depthLayering) {
+        if (this.depthLayering == depthLayering) {
+            return;
+        }
+        this.depthLayering = depthLayering;
+        for (int i = 0; i < entities.size(); i++) {
+            updateSortKey(i);
+        }
+        staticDirty |= !staticEntities.isEmpty();
+    }
+
+    /**
+     * Get the normalized device depth of a layer. Higher layers are nearer to the viewer.
+     *
+     * @param layer The layer.
+     * @return The depth, in the range [-1, 1].
+     */
+    public static float getLayerDepth(final int layer) {
+        return -Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, layer))
+                / -(float) Short.MIN_VALUE;
+    }
+
+    /**
+     * Delete the GL objects of all render batches. The renderer must not be used afterwards.
+     */
+    public void delete() {
+        cameraBuffer.delete();
+        batches.forEach(RenderBatch::delete);
+        batches.clear();
+        staticBatches.forEach(RenderBatch::delete);
+        staticBatches.clear();
+        if (batchStorage != null) {
+            batchStorage.delete();
+            indirectBuffer.delete();
+        }
+        if (staticStorage != null) {
+            staticStorage.delete();
+        }
+    }
+
+    /**
+     * Bind the uniform buffer holding the camera matrices of the renderer again, for example after
+     * something has been rendered with different camera matrices.
+     */
+    public void bindCamera() {
+        cameraBuffer.bindBase();
+    }
+
+    /**
+     * Upload the camera matrices if the camera changed and bind the uniform buffer holding them,
+     * so every program using the camera uniform block sees them.
+     */
+    private void uploadCamera() {
+        if (camera.isDirty()) {
+            camera.get(cameraMatrices);
+            cameraBuffer.setSubData(0, cameraMatrices);
+            camera.setDirty(false);
+        }
+        bindCamera();
+        if (!cameraBlock) {
+            shader.bind();
+            shader.uniformMatrix4f("u_Projection", cameraMatrices.limit(MATRIX_SIZE));
+            shader.uniformMatrix4f("u_View",
+                    cameraMatrices.limit(Camera.MATRICES_SIZE).position(MATRIX_SIZE));
+            cameraMatrices.position(0);
+        }
+    }
+
+    /**
+     * Render the draw list with depth testing. Render batches write the depth of their opaque
+     * entities and carry the depth of every quad in its vertices. Drawables are drawn at the depth
+     * of their layer, and only opaque ones write it.
+     */
+    private void renderWithDepth() {
+        backend.enable(GL11.GL_DEPTH_TEST);
+        backend.depthFunc(GL11.GL_LEQUAL);
+        for (int i = 0; i < drawList.size(); i++) {
+            final Drawable drawable = drawList.get(i);
+            final long key = drawable.getSortKey();
+            if (drawable instanceof RenderBatch || drawable instanceof MultiDrawBatch) {
+                backend.depthRange(0.0, 1.0);
+            } else {
+                final double depth = (1.0 + getLayerDepth(SortKey.getLayer(key))) / 2.0;
+                backend.depthRange(depth, depth);
+            }
+            backend.depthMask(!SortKey.isTranslucent(key));
+            drawable.render();
+        }
+        backend.depthMask(true);
+        backend.depthRange(0.0, 1.0);
+        backend.disable(GL11.GL_DEPTH_TEST);
+    }
+
+    /**
+     * Replace every run of consecutive render batches in the draw list that can be drawn together
+     * with a multi-draw batch, and upload the draw commands of all multi-draw batches at once.
+     */
+    private void mergeBatches() {
+        int runCount = 0;
+        int batchCount = 0;
+        MultiDrawBatch run = null;
+        int size = 0;
+        for (int i = 0; i < drawList.size(); i++) {
+            final Drawable drawable = drawList.get(i);
+            if (!(drawable instanceof final RenderBatch batch) || batch.getStorage() == null) {
+                run = null;
+                drawList.set(size++, drawable);
+                continue;
+            }
+            batch.prepare();
+            if (run == null || !run.canAdd(batch)) {
+                if (runCount == multiDrawBatches.size()) {
+                    multiDrawBatches.add(new MultiDrawBatch(shader, indirectBuffer));
+                }
+                run = multiDrawBatches.get(runCount++);
+                run.clear();
+                drawList.set(size++, run);
+            }
+            run.add(batch);
+            batchCount++;
+        }
+        while (drawList.size() > size) {
+            drawList.remove(drawList.size() - 1);
+        }
+        for (int i = runCount; i < multiDrawBatches.size(); i++) {
+            multiDrawBatches.get(i).clear();
+        }
+
+        if (commands.capacity() < batchCount * IndirectBuffer.COMMAND_SIZE) {
+            commands = BufferUtils.createIntBuffer(batchCount * IndirectBuffer.COMMAND_SIZE * 2);
+        }
+        commands.clear();
+        for (int i = 0; i < runCount; i++) {
+            multiDrawBatches.get(i).writeCommands(commands);
+        }
+        commands.flip();
+        indirectBuffer.bind();
+        indirectBuffer.setData(commands);
+        indirectBuffer.unbind();
+    }
+
+    /**
+     * Delete the render batches that have not been used for a while.
+     *
+     * @param batchCount The number of render batches used in the current frame.
+     */
+    private void releaseUnusedBatches(final int batchCount) {
+        if (batchCount == batches.size()) {
+            unusedFrames = 0;
+        } else if (++unusedFrames >= UNUSED_BATCH_FRAMES) {
+            while (batches.size() > batchCount) {
+                batches.remove(batches.size() - 1).delete();
+            }
+            unusedFrames = 0;
+        }
+    }
+
+    /**
+     * Rebuild the static render batches from the static entities. The entities are sorted like
+     * dynamic ones and every static render batch is limited to a single layer and translucency,
+     * so it can be submitted with the sort key of its first entity.
+     */
+    private void bakeStaticEntities() {
+        staticBatches.forEach(RenderBatch::delete);
+        staticBatches.clear();
+        if (indirectBuffer != null && !staticEntities.isEmpty()) {
+            if (staticStorage == null) {
+                staticStorage = new BatchStorage(staticEntities.size());
+            } else {
+                staticStorage.ensureCapacity(staticEntities.size());
+            }
+        }
+        queue.clear();
+        for (int i = 0; i < staticEntities.size(); i++) {
+            queue.submit(createSortKey(staticEntities.get(i)), i);
+        }
+        queue.sort();
+        RenderBatch batch = null;
+        int slot = 0;
+        for (int i = 0; i < queue.size(); i++) {
+            final Entity entity = staticEntities.get(queue.getValue(i));
+            final Texture texture = getTexture(entity);
+            final long key = queue.getKey(i);
+            if (batch == null || slot == STATIC_BATCH_CAPACITY
+                    || SortKey.getBucket(key) != SortKey.getBucket(batch.getSortKey())
+                    || texture != null && !batch.containsTexture(texture)
+                    && batch.isTextureStoreFull()) {
+                // The earlier static render batches are closed, so the range of the new render
+                // batch starts right after the entities placed so far.
+                batch = new RenderBatch(Math.min(STATIC_BATCH_CAPACITY, queue.size() - i), shader,
+                        true, staticStorage, i);
+                batch.setSortKey(key);
+                staticBatches.add(batch);
+                slot = 0;
+            }
+            batch.setEntity(slot++, entity);
+        }
+        staticDirty = false;
+    }
+
+    /**
+     * Get the render batch at the specified position, creating it if necessary.
+     *
+     * @param index The position of the render batch.
+     * @return The render batch.
+     */
+    private RenderBatch getBatch(final int index) {
+        if (index == batches.size()) {
+            if (batchStorage == null) {
+                batches.add(new RenderBatch(BATCH_CAPACITY, shader));
+            } else {
+                if (batchStorage.ensureCapacity((index + 1) * BATCH_CAPACITY)) {
+                    batches.forEach(RenderBatch::invalidate);
+                }
+                batches.add(new RenderBatch(BATCH_CAPACITY, shader, false, batchStorage,
+                        index * BATCH_CAPACITY));
+            }
+        }
+        return batches.get(index);
+    }
+
+    /**
+     * Recalculate the sort key and texture of the entity at the specified position.
+     *
+     * @param index The position of the entity.
+     */
+    private void updateSortKey(final int index) {
+        final Entity entity = entities.get(index);
+        keys[index] = createSortKey(entity);
+        textures[index] = getTexture(entity);
+    }
+
+    /**
+     * Create the sort key of an entity.
+     *
+     * @param entity The entity.
+     * @return The sort key.
+     */
+    private long createSortKey(final Entity entity) {
+        final ColorComponent colorComponent = entity.getComponent(ColorComponent.class);
+        final Texture texture = getTexture(entity);
+        final boolean translucent = colorComponent != null
+                && colorComponent.getColor().w() < 1.0f
+                || texture != null && texture.isTranslucent();
+        return SortKey.pack(depthLayering && !translucent ? OPAQUE_LAYER : entity.getZ(),
+                translucent, shader.getHandle(), texture == null ? 0 : texture.getId(),
+                entity.getTransform().getZ());
+    }
+
+    /**
+     * Get the texture of an entity.
+     *
+     * @param entity The entity.
+     * @return The texture, or {@code null} if the entity has no sprite.
+     */
+    private static Texture getTexture(final Entity entity) {
+        final SpriteComponent spriteComponent = entity.getComponent(SpriteComponent.class);
+        return spriteComponent == null ? null : spriteComponent.getSprite().getTexture();
     }
 }
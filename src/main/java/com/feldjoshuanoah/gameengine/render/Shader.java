@@ -15,6 +15,8 @@
  */
 package com.feldjoshuanoah.gameengine.render;
 
+import com.feldjoshuanoah.gameengine.render.backend.RenderBackend;
+import com.feldjoshuanoah.gameengine.render.backend.RenderContext;
 import org.joml.Matrix2f;
 import org.joml.Matrix3f;
 import org.joml.Matrix4f;
@@ -26,8 +28,11 @@ import org.joml.Vector4f;
 import org.joml.Vector4i;
 import org.lwjgl.opengl.GL20;
 import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL31;
+import org.lwjgl.opengl.GL41;
 import org.lwjgl.system.MemoryStack;
 
+import java.nio.FloatBuffer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -140,6 +145,11 @@ public class Shader {
      */
     private static final Logger LOGGER = Logger.getLogger(Shader.class.getName());
 
+    /**
+     * The render backend.
+     */
+    private final RenderBackend backend;
+
     /**
      * The program handle.
      */
@@ -152,34 +162,57 @@ public class Shader {
      * @param fragmentSource The source code of the fragment shader.
      */
     public Shader(final String vertexSource, final String fragmentSource) {
-        handle = GL20.glCreateProgram();
-        final int vertex = attachShader(GL20.GL_VERTEX_SHADER, vertexSource);
-        final int fragment = attachShader(GL20.GL_FRAGMENT_SHADER, fragmentSource);
-        GL20.glLinkProgram(handle);
-        if (GL20.glGetProgrami(handle, GL20.GL_LINK_STATUS) == GL20.GL_FALSE) {
-            if (LOGGER.isLoggable(Level.SEVERE)) {
-                LOGGER.log(Level.SEVERE, GL20.glGetProgramInfoLog(handle));
-            }
-            GL20.glDeleteProgram(handle);
-            GL20.glDeleteShader(vertex);
-            GL20.glDeleteShader(fragment);
+        this(vertexSource, fragmentSource, null);
+    }
+
+    /**
+     * Create a new shader program, loading it from the program binary cache if possible. If the
+     * cache misses or the cached binary is rejected, the program is compiled from source and its
+     * binary is stored in the cache.
+     *
+     * @param vertexSource The source code of the vertex shader.
+     * @param fragmentSource The source code of the fragment shader.
+     * @param cache The program binary cache, or {@code null} to always compile from source.
+     */
+    public Shader(final String vertexSource, final String fragmentSource,
+            final ProgramBinaryCache cache) {
+        backend = RenderContext.getBackend();
+        handle = backend.createProgram();
+        final String key = cache == null ? null
+                : cache.createKey(backend, vertexSource, fragmentSource);
+        if (key != null && cache.load(backend, handle, key)) {
+            return;
+        }
+        if (key != null) {
+            backend.programParameteri(handle, GL41.GL_PROGRAM_BINARY_RETRIEVABLE_HINT,
+                    GL20.GL_TRUE);
+        }
+        if (compile(vertexSource, fragmentSource) && key != null) {
+            cache.store(backend, handle, key);
         }
-        GL20.glDetachShader(handle, vertex);
-        GL20.glDetachShader(handle, fragment);
+    }
+
+    /**
+     * Get the program handle.
+     *
+     * @return The program handle.
+     */
+    public int getHandle() {
+        return handle;
     }
 
     /**
      * Install the shader program as part of current rendering state.
      */
     public void bind() {
-        GL20.glUseProgram(handle);
+        backend.useProgram(handle);
     }
 
     /**
      * Uninstall the shader program as part of current rendering state.
      */
     public void unbind() {
-        GL20.glUseProgram(0);
+        backend.useProgram(0);
     }
 
     /**
@@ -189,7 +222,7 @@ public class Shader {
      * @param value The desired value for the int uniform variable.
      */
     public void uniform1i(final String name, final int value) {
-        GL20.glUniform1i(GL20.glGetUniformLocation(handle, name), value);
+        backend.uniform1i(location(name), value);
     }
 
     /**
@@ -199,7 +232,7 @@ public class Shader {
      * @param value The desired value for the int uniform variable.
      */
     public void uniform1iv(final String name, final int[] value) {
-        GL20.glUniform1iv(GL20.glGetUniformLocation(handle, name), value);
+        backend.uniform1iv(location(name), value);
     }
 
     /**
@@ -209,7 +242,7 @@ public class Shader {
      * @param value The desired value for the float uniform variable.
      */
     public void uniform1f(final String name, final float value) {
-        GL20.glUniform1f(GL20.glGetUniformLocation(handle, name), value);
+        backend.uniform1f(location(name), value);
     }
 
     /**
@@ -220,7 +253,7 @@ public class Shader {
      */
     public void uniform2f(final String name, final Vector2f vector) {
         try (MemoryStack stack = MemoryStack.stackPush()) {
-            GL20.glUniform2fv(GL20.glGetUniformLocation(handle, name),
+            backend.uniform2fv(location(name),
                     vector.get(stack.mallocFloat(DataType.VEC2.getSize())));
         }
     }
@@ -233,7 +266,7 @@ public class Shader {
      */
     public void uniform2i(final String name, final Vector2i vector) {
         try (MemoryStack stack = MemoryStack.stackPush()) {
-            GL20.glUniform2iv(GL20.glGetUniformLocation(handle, name),
+            backend.uniform2iv(location(name),
                     vector.get(stack.mallocInt(DataType.IVEC2.getSize())));
         }
     }
@@ -246,7 +279,7 @@ public class Shader {
      */
     public void uniform3f(final String name, final Vector3f vector) {
         try (MemoryStack stack = MemoryStack.stackPush()) {
-            GL20.glUniform3fv(GL20.glGetUniformLocation(handle, name),
+            backend.uniform3fv(location(name),
                     vector.get(stack.mallocFloat(DataType.VEC3.getSize())));
         }
     }
@@ -259,7 +292,7 @@ public class Shader {
      */
     public void uniform3i(final String name, final Vector3i vector) {
         try (MemoryStack stack = MemoryStack.stackPush()) {
-            GL20.glUniform3iv(GL20.glGetUniformLocation(handle, name),
+            backend.uniform3iv(location(name),
                     vector.get(stack.mallocInt(DataType.IVEC3.getSize())));
         }
     }
@@ -272,7 +305,7 @@ public class Shader {
      */
     public void uniform4f(final String name, final Vector4f vector) {
         try (MemoryStack stack = MemoryStack.stackPush()) {
-            GL20.glUniform4fv(GL20.glGetUniformLocation(handle, name),
+            backend.uniform4fv(location(name),
                     vector.get(stack.mallocFloat(DataType.VEC4.getSize())));
         }
     }
@@ -285,7 +318,7 @@ public class Shader {
      */
     public void uniform4i(final String name, final Vector4i vector) {
         try (MemoryStack stack = MemoryStack.stackPush()) {
-            GL20.glUniform4iv(GL20.glGetUniformLocation(handle, name),
+            backend.uniform4iv(location(name),
                     vector.get(stack.mallocInt(DataType.IVEC4.getSize())));
         }
     }
@@ -298,7 +331,7 @@ public class Shader {
      */
     public void uniformMatrix2f(final String name, final Matrix2f matrix) {
         try (MemoryStack stack = MemoryStack.stackPush()) {
-            GL20.glUniformMatrix2fv(GL20.glGetUniformLocation(handle, name), false,
+            backend.uniformMatrix2fv(location(name),
                     matrix.get(stack.mallocFloat(DataType.MAT2.getSize())));
         }
     }
@@ -311,7 +344,7 @@ public class Shader {
      */
     public void uniformMatrix3f(final String name, final Matrix3f matrix) {
         try (MemoryStack stack = MemoryStack.stackPush()) {
-            GL20.glUniformMatrix3fv(GL20.glGetUniformLocation(handle, name), false,
+            backend.uniformMatrix3fv(location(name),
                     matrix.get(stack.mallocFloat(DataType.MAT3.getSize())));
         }
     }
@@ -324,11 +357,73 @@ public class Shader {
      */
     public void uniformMatrix4f(final String name, final Matrix4f matrix) {
         try (MemoryStack stack = MemoryStack.stackPush()) {
-            GL20.glUniformMatrix4fv(GL20.glGetUniformLocation(handle, name), false,
+            backend.uniformMatrix4fv(location(name),
                     matrix.get(stack.mallocFloat(DataType.MAT4.getSize())));
         }
     }
 
+    /**
+     * Specifies the value of a single mat4 uniform variable for the shader program.
+     *
+     * @param name The name of the mat4 uniform variable.
+     * @param matrix The desired value for the mat4 uniform variable, in column-major order,
+     *               between the position and the limit of the buffer.
+     */
+    public void uniformMatrix4f(final String name, final FloatBuffer matrix) {
+        backend.uniformMatrix4fv(location(name), matrix);
+    }
+
+    /**
+     * Assign a binding point to a uniform block of the shader program.
+     *
+     * @param name The name of the uniform block.
+     * @param binding The binding point.
+     * @return {@code true} if the shader program declares the uniform block.
+     */
+    public boolean bindUniformBlock(final String name, final int binding) {
+        final int index = backend.getUniformBlockIndex(handle, name);
+        if (index == GL31.GL_INVALID_INDEX) {
+            return false;
+        }
+        backend.uniformBlockBinding(handle, index, binding);
+        return true;
+    }
+
+    /**
+     * Get the location of a uniform variable of the shader program.
+     *
+     * @param name The name of the uniform variable.
+     * @return The location of the uniform variable.
+     */
+    private int location(final String name) {
+        return backend.getUniformLocation(handle, name);
+    }
+
+    /**
+     * Compile and link the program from source.
+     *
+     * @param vertexSource The source code of the vertex shader.
+     * @param fragmentSource The source code of the fragment shader.
+     * @return {@code true} if the program was linked successfully.
+     */
+    private boolean compile(final String vertexSource, final String fragmentSource) {
+        final int vertex = attachShader(GL20.GL_VERTEX_SHADER, vertexSource);
+        final int fragment = attachShader(GL20.GL_FRAGMENT_SHADER, fragmentSource);
+        backend.linkProgram(handle);
+        final boolean linked = backend.getProgrami(handle, GL20.GL_LINK_STATUS) != GL20.GL_FALSE;
+        if (!linked) {
+            if (LOGGER.isLoggable(Level.SEVERE)) {
+                LOGGER.log(Level.SEVERE, backend.getProgramInfoLog(handle));
+            }
+            backend.deleteProgram(handle);
+            backend.deleteShader(vertex);
+            backend.deleteShader(fragment);
+        }
+        backend.detachShader(handle, vertex);
+        backend.detachShader(handle, fragment);
+        return linked;
+    }
+
     /**
      * Create and attach a shader to the program.
      *
@@ -337,16 +432,16 @@ public class Shader {
      * @return The shader handle.
      */
     private int attachShader(final int type, final String source) {
-        final int shader = GL20.glCreateShader(type);
-        GL20.glShaderSource(shader, source);
-        GL20.glCompileShader(shader);
-        if (GL20.glGetShaderi(shader, GL20.GL_COMPILE_STATUS) == GL20.GL_FALSE) {
+        final int shader = backend.createShader(type);
+        backend.shaderSource(shader, source);
+        backend.compileShader(shader);
+        if (backend.getShaderi(shader, GL20.GL_COMPILE_STATUS) == GL20.GL_FALSE) {
             if (LOGGER.isLoggable(Level.SEVERE)) {
-                LOGGER.log(Level.SEVERE, GL20.glGetShaderInfoLog(shader));
+                LOGGER.log(Level.SEVERE, backend.getShaderInfoLog(shader));
             }
-            GL20.glDeleteShader(shader);
+            backend.deleteShader(shader);
         }
-        GL20.glAttachShader(handle, shader);
+        backend.attachShader(handle, shader);
         return shader;
     }
 }
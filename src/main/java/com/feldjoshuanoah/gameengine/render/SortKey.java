@@ -0,0 +1,137 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.render;
+
+/**
+ * Provides methods to pack render state into 64-bit sort keys. Sorting the keys in ascending
+ * order yields the submission order: layers from back to front, opaque before translucent draws
+ * within a layer, opaque draws grouped by shader and texture, and translucent draws from back to
+ * front.
+ */
+public final class SortKey {
+
+    /**
+     * The number of bits used for the layer.
+     */
+    private static final int LAYER_BITS = 16;
+
+    /**
+     * The number of bits used for the shader.
+     */
+    private static final int SHADER_BITS = 10;
+
+    /**
+     * The number of bits used for the texture.
+     */
+    private static final int TEXTURE_BITS = 14;
+
+    /**
+     * The number of bits used for the depth.
+     */
+    private static final int DEPTH_BITS = 23;
+
+    /**
+     * The position of the translucency bit.
+     */
+    private static final int TRANSLUCENT_SHIFT = SHADER_BITS + TEXTURE_BITS + DEPTH_BITS;
+
+    /**
+     * The position of the layer bits.
+     */
+    private static final int LAYER_SHIFT = TRANSLUCENT_SHIFT + 1;
+
+    /**
+     * Not accessible.
+     */
+    private SortKey() {
+        // This is empty intentionally.
+    }
+
+    /**
+     * Pack the given render state into a sort key.
+     *
+     * @param layer The layer, usually the z-index of an entity.
+     * @param translucent Whether the draw needs to be blended with what is behind it.
+     * @param shader The shader handle.
+     * @param texture The texture id, or {@code 0} if the draw is untextured.
+     * @param depth The depth within the layer. Draws with a lower depth are rendered first.
+     * @return The sort key.
+     */
+    public static long pack(final int layer, final boolean translucent, final int shader,
+            final int texture, final int depth) {
+        final long state = (long) (shader & mask(SHADER_BITS)) << TEXTURE_BITS
+                | texture & mask(TEXTURE_BITS);
+        final long biasedDepth = bias(depth, DEPTH_BITS);
+        final long rest = translucent
+                ? biasedDepth << SHADER_BITS + TEXTURE_BITS | state
+                : state << DEPTH_BITS | biasedDepth;
+        return bias(layer, LAYER_BITS) << LAYER_SHIFT | (translucent ? 1L : 0L) << TRANSLUCENT_SHIFT
+                | rest;
+    }
+
+    /**
+     * Get the layer of a sort key.
+     *
+     * @param key The sort key.
+     * @return The layer.
+     */
+    public static int getLayer(final long key) {
+        return (int) (key >>> LAYER_SHIFT) - (1 << LAYER_BITS - 1);
+    }
+
+    /**
+     * Return {@code true} if the sort key belongs to a translucent draw.
+     *
+     * @param key The sort key.
+     * @return {@code true} if the sort key belongs to a translucent draw.
+     */
+    public static boolean isTranslucent(final long key) {
+        return (key >>> TRANSLUCENT_SHIFT & 1L) != 0L;
+    }
+
+    /**
+     * Get the bucket of a sort key, which combines its layer and translucency. Draws of different
+     * buckets never have to be interleaved.
+     *
+     * @param key The sort key.
+     * @return The bucket.
+     */
+    public static int getBucket(final long key) {
+        return (int) (key >>> TRANSLUCENT_SHIFT);
+    }
+
+    /**
+     * Create a mask of the given number of low bits.
+     *
+     * @param bits The number of bits.
+     * @return The mask.
+     */
+    private static int mask(final int bits) {
+        return (1 << bits) - 1;
+    }
+
+    /**
+     * Map a signed value to an unsigned field of the given width, clamping values that do not fit.
+     *
+     * @param value The signed value.
+     * @param bits The width of the field.
+     * @return The unsigned field value.
+     */
+    private static long bias(final int value, final int bits) {
+        final int half = 1 << bits - 1;
+        return Math.max(0, Math.min(mask(bits), value + half));
+    }
+}
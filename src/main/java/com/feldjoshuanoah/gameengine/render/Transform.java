@@ -99,6 +99,24 @@ public class Transform {
         this.position = new Vector2f(position);
     }
 
+    /**
+     * Get the x-coordinate of the position without copying the position.
+     *
+     * @return The x-coordinate.
+     */
+    public float getX() {
+        return position.x();
+    }
+
+    /**
+     * Get the y-coordinate of the position without copying the position.
+     *
+     * @return The y-coordinate.
+     */
+    public float getY() {
+        return position.y();
+    }
+
     /**
      * Get the scale.
      *
@@ -117,6 +135,24 @@ public class Transform {
         this.scale =new Vector2f( scale);
     }
 
+    /**
+     * Get the horizontal scale without copying the scale.
+     *
+     * @return The horizontal scale.
+     */
+    public float getScaleX() {
+        return scale.x();
+    }
+
+    /**
+     * Get the vertical scale without copying the scale.
+     *
+     * @return The vertical scale.
+     */
+    public float getScaleY() {
+        return scale.y();
+    }
+
     /**
      * Get the rotation.
      *
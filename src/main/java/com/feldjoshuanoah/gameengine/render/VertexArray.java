@@ -15,7 +15,8 @@
  */
 package com.feldjoshuanoah.gameengine.render;
 
-import org.lwjgl.opengl.GL30;
+import com.feldjoshuanoah.gameengine.render.backend.RenderBackend;
+import com.feldjoshuanoah.gameengine.render.backend.RenderContext;
 
 /**
  * Represents a vertex array.
@@ -27,31 +28,37 @@ public class VertexArray {
      */
     private final int id;
 
+    /**
+     * The render backend.
+     */
+    private final RenderBackend backend;
+
     /**
      * Create a new vertex array.
      */
     public VertexArray() {
-        id = GL30.glGenVertexArrays();
+        backend = RenderContext.getBackend();
+        id = backend.createVertexArray();
     }
 
     /**
      * Bind the vertex array.
      */
     public void bind() {
-        GL30.glBindVertexArray(id);
+        backend.bindVertexArray(id);
     }
 
     /**
      * Unbind the vertex array.
      */
     public void unbind() {
-        GL30.glBindVertexArray(0);
+        backend.bindVertexArray(0);
     }
 
     /**
      * Delete the vertex array.
      */
     public void delete() {
-        GL30.glDeleteVertexArrays(id);
+        backend.deleteVertexArray(id);
     }
 }
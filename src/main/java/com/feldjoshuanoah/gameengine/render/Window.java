@@ -16,6 +16,7 @@
 package com.feldjoshuanoah.gameengine.render;
 
 import com.feldjoshuanoah.gameengine.event.CallbackEventAdapter;
+import com.feldjoshuanoah.gameengine.render.backend.RenderContext;
 import java.nio.IntBuffer;
 import org.lwjgl.BufferUtils;
 import org.lwjgl.glfw.Callbacks;
@@ -34,6 +35,11 @@ public class Window {
      */
     private final long handle;
 
+    /**
+     * The buffer the size of the framebuffer is queried into.
+     */
+    private final IntBuffer framebufferSize;
+
     /**
      * Create a new window.
      *
@@ -48,6 +54,7 @@ public class Window {
         GLFW.glfwWindowHint(GLFW.GLFW_RESIZABLE, GLFW.GLFW_TRUE);
 
         handle = GLFW.glfwCreateWindow(width, height, title, monitor, MemoryUtil.NULL);
+        framebufferSize = BufferUtils.createIntBuffer(1);
         if (handle == MemoryUtil.NULL) {
             throw new IllegalStateException("Failed to create the GLFW window");
         }
@@ -70,8 +77,8 @@ public class Window {
 
         GL.createCapabilities();
 
-        GL11.glEnable(GL11.GL_BLEND);
-        GL11.glBlendFunc(GL11.GL_ONE, GL11.GL_ONE_MINUS_SRC_ALPHA);
+        RenderContext.getBackend().enable(GL11.GL_BLEND);
+        RenderContext.getBackend().blendFunc(GL11.GL_ONE, GL11.GL_ONE_MINUS_SRC_ALPHA);
     }
 
     /**
@@ -145,6 +152,26 @@ public class Window {
         return (float) width.get() / (float) height.get();
     }
 
+    /**
+     * Get the width, in pixels, of the framebuffer of the window.
+     *
+     * @return The width of the framebuffer.
+     */
+    public int getFramebufferWidth() {
+        GLFW.glfwGetFramebufferSize(handle, framebufferSize, null);
+        return framebufferSize.get(0);
+    }
+
+    /**
+     * Get the height, in pixels, of the framebuffer of the window.
+     *
+     * @return The height of the framebuffer.
+     */
+    public int getFramebufferHeight() {
+        GLFW.glfwGetFramebufferSize(handle, null, framebufferSize);
+        return framebufferSize.get(0);
+    }
+
     /**
      * Get the window handle.
      *
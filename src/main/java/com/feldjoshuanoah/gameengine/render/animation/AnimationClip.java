@@ -0,0 +1,125 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.render.animation;
+
+import com.feldjoshuanoah.gameengine.render.sprite.Sprite;
+import com.feldjoshuanoah.gameengine.render.sprite.Spritesheet;
+
+/**
+ * Represents an animation clip. The texture coordinates of all frames are precomputed into a
+ * flat table, eight floats per frame, so switching frames only copies texture coordinates.
+ */
+public class AnimationClip {
+
+    /**
+     * The number of floats in the texture coordinates of a frame.
+     */
+    public static final int FRAME_SIZE = 8;
+
+    /**
+     * The sprite of the first frame.
+     */
+    private final Sprite firstSprite;
+
+    /**
+     * The texture coordinates of the frames.
+     */
+    private final float[] textureCoordinates;
+
+    /**
+     * The number of frames.
+     */
+    private final int frameCount;
+
+    /**
+     * The duration of a frame, in seconds.
+     */
+    private final float frameDuration;
+
+    /**
+     * Whether the clip starts over after its last frame.
+     */
+    private final boolean looping;
+
+    /**
+     * Create a new animation clip.
+     *
+     * @param spritesheet The spritesheet the frames are taken from.
+     * @param frames The indices of the frame sprites on the spritesheet.
+     * @param frameDuration The duration of a frame, in seconds.
+     * @param looping Whether the clip starts over after its last frame.
+     */
+    public AnimationClip(final Spritesheet spritesheet, final int[] frames,
+            final float frameDuration, final boolean looping) {
+        if (frames.length == 0 || frameDuration <= 0.0f) {
+            throw new IllegalArgumentException("An animation clip needs frames and a duration");
+        }
+        this.frameDuration = frameDuration;
+        this.looping = looping;
+        frameCount = frames.length;
+        firstSprite = spritesheet.getSprite(frames[0]);
+        textureCoordinates = new float[frames.length * FRAME_SIZE];
+        for (int i = 0; i < frames.length; i++) {
+            System.arraycopy(spritesheet.getSprite(frames[i]).getTextureCoordinateArray(), 0,
+                    textureCoordinates, i * FRAME_SIZE, FRAME_SIZE);
+        }
+    }
+
+    /**
+     * Get the sprite of the first frame.
+     *
+     * @return The sprite.
+     */
+    public Sprite getFirstSprite() {
+        return firstSprite;
+    }
+
+    /**
+     * Get the texture coordinates of the frames. The returned table must not be modified.
+     *
+     * @return The texture coordinates, {@link #FRAME_SIZE} floats per frame.
+     */
+    public float[] getTextureCoordinates() {
+        return textureCoordinates;
+    }
+
+    /**
+     * Get the number of frames.
+     *
+     * @return The number of frames.
+     */
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Get the duration of a frame.
+     *
+     * @return The duration, in seconds.
+     */
+    public float getFrameDuration() {
+        return frameDuration;
+    }
+
+    /**
+     * Return {@code true} if the clip starts over after its last frame.
+     *
+     * @return {@code true} if the clip is looping.
+     */
+    public boolean isLooping() {
+        return looping;
+    }
+}
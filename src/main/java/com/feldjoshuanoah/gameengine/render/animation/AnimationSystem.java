@@ -0,0 +1,120 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.render.animation;
+
+import com.feldjoshuanoah.gameengine.entity.Entity;
+import com.feldjoshuanoah.gameengine.entity.component.AnimationComponent;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Represents the system that advances all animation components of a scene in one pass. When the
+ * frame of an animation changes, only the texture coordinates of its entity are marked dirty, so
+ * the render batch rewrites just those instead of the whole quad.
+ */
+public class AnimationSystem {
+
+    /**
+     * The initial number of animation components the system can hold.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * The animation components.
+     */
+    private AnimationComponent[] components;
+
+    /**
+     * The positions of the animation components in the array.
+     */
+    private final Map<AnimationComponent, Integer> indices;
+
+    /**
+     * The number of animation components.
+     */
+    private int size;
+
+    /**
+     * Create a new animation system.
+     */
+    public AnimationSystem() {
+        components = new AnimationComponent[INITIAL_CAPACITY];
+        indices = new HashMap<>();
+    }
+
+    /**
+     * Add an animation component.
+     *
+     * @param component The animation component to advance.
+     */
+    public void add(final AnimationComponent component) {
+        if (indices.containsKey(component)) {
+            return;
+        }
+        if (size == components.length) {
+            components = Arrays.copyOf(components, size * 2);
+        }
+        indices.put(component, size);
+        components[size++] = component;
+    }
+
+    /**
+     * Remove an animation component. The last animation component is moved into its place.
+     *
+     * @param component The animation component to stop advancing.
+     */
+    public void remove(final AnimationComponent component) {
+        final Integer index = indices.remove(component);
+        if (index == null) {
+            return;
+        }
+        final int last = --size;
+        if (index != last) {
+            components[index] = components[last];
+            indices.put(components[index], index);
+        }
+        components[last] = null;
+    }
+
+    /**
+     * Advance all animations by a time step.
+     *
+     * @param deltaTime The time step, in seconds.
+     */
+    public void update(final float deltaTime) {
+        for (int i = 0; i < size; i++) {
+            final AnimationComponent component = components[i];
+            if (component.advance(deltaTime)) {
+                final Entity entity = component.getEntity();
+                if (entity != null) {
+                    entity.setTextureCoordinates(component.getClip().getTextureCoordinates(),
+                            component.getFrame() * AnimationClip.FRAME_SIZE);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the number of animation components.
+     *
+     * @return The number of animation components.
+     */
+    public int getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,464 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.render.backend;
+
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL13;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL20;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL31;
+import org.lwjgl.opengl.GL32;
+import org.lwjgl.opengl.GL41;
+import org.lwjgl.opengl.GL43;
+import org.lwjgl.opengl.GLCapabilities;
+import org.lwjgl.system.MemoryStack;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Represents the render backend that forwards every command to the current OpenGL context.
+ */
+public class OpenGLBackend implements RenderBackend {
+
+    /**
+     * Create a new OpenGL backend.
+     */
+    public OpenGLBackend() {
+        // This is empty intentionally.
+    }
+
+    @Override
+    public int createBuffer() {
+        return GL15.glGenBuffers();
+    }
+
+    @Override
+    public void bindBuffer(final int target, final int buffer) {
+        GL15.glBindBuffer(target, buffer);
+    }
+
+    @Override
+    public void bindBufferBase(final int target, final int index, final int buffer) {
+        GL30.glBindBufferBase(target, index, buffer);
+    }
+
+    @Override
+    public void bufferData(final int target, final long size, final int usage) {
+        GL15.glBufferData(target, size, usage);
+    }
+
+    @Override
+    public void bufferData(final int target, final float[] data, final int usage) {
+        GL15.glBufferData(target, data, usage);
+    }
+
+    @Override
+    public void bufferData(final int target, final int[] data, final int usage) {
+        GL15.glBufferData(target, data, usage);
+    }
+
+    @Override
+    public void bufferData(final int target, final IntBuffer data, final int usage) {
+        GL15.glBufferData(target, data, usage);
+    }
+
+    @Override
+    public void bufferSubData(final int target, final long offset, final float[] data) {
+        GL15.glBufferSubData(target, offset, data);
+    }
+
+    @Override
+    public void bufferSubData(final int target, final long offset, final FloatBuffer data) {
+        GL15.glBufferSubData(target, offset, data);
+    }
+
+    @Override
+    public void deleteBuffer(final int buffer) {
+        GL15.glDeleteBuffers(buffer);
+    }
+
+    @Override
+    public int createVertexArray() {
+        return GL30.glGenVertexArrays();
+    }
+
+    @Override
+    public void bindVertexArray(final int vertexArray) {
+        GL30.glBindVertexArray(vertexArray);
+    }
+
+    @Override
+    public void deleteVertexArray(final int vertexArray) {
+        GL30.glDeleteVertexArrays(vertexArray);
+    }
+
+    @Override
+    public void enableVertexAttribArray(final int index) {
+        GL20.glEnableVertexAttribArray(index);
+    }
+
+    @Override
+    public void disableVertexAttribArray(final int index) {
+        GL20.glDisableVertexAttribArray(index);
+    }
+
+    @Override
+    public void vertexAttribPointer(final int index, final int size, final int type,
+            final boolean normalized, final int stride, final long offset) {
+        GL20.glVertexAttribPointer(index, size, type, normalized, stride, offset);
+    }
+
+    @Override
+    public int createProgram() {
+        return GL20.glCreateProgram();
+    }
+
+    @Override
+    public void linkProgram(final int program) {
+        GL20.glLinkProgram(program);
+    }
+
+    @Override
+    public int getProgrami(final int program, final int name) {
+        return GL20.glGetProgrami(program, name);
+    }
+
+    @Override
+    public String getProgramInfoLog(final int program) {
+        return GL20.glGetProgramInfoLog(program);
+    }
+
+    @Override
+    public void useProgram(final int program) {
+        GL20.glUseProgram(program);
+    }
+
+    @Override
+    public void deleteProgram(final int program) {
+        GL20.glDeleteProgram(program);
+    }
+
+    @Override
+    public boolean isProgramBinarySupported() {
+        final GLCapabilities capabilities = GL.getCapabilities();
+        return capabilities.OpenGL41 || capabilities.GL_ARB_get_program_binary;
+    }
+
+    @Override
+    public void programParameteri(final int program, final int name, final int value) {
+        GL41.glProgramParameteri(program, name, value);
+    }
+
+    @Override
+    public int getProgramBinary(final int program, final ByteBuffer binary) {
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            final IntBuffer format = stack.mallocInt(1);
+            GL41.glGetProgramBinary(program, null, format, binary);
+            return format.get(0);
+        }
+    }
+
+    @Override
+    public void programBinary(final int program, final int format, final ByteBuffer binary) {
+        GL41.glProgramBinary(program, format, binary);
+    }
+
+    @Override
+    public int createShader(final int type) {
+        return GL20.glCreateShader(type);
+    }
+
+    @Override
+    public void shaderSource(final int shader, final String source) {
+        GL20.glShaderSource(shader, source);
+    }
+
+    @Override
+    public void compileShader(final int shader) {
+        GL20.glCompileShader(shader);
+    }
+
+    @Override
+    public int getShaderi(final int shader, final int name) {
+        return GL20.glGetShaderi(shader, name);
+    }
+
+    @Override
+    public String getShaderInfoLog(final int shader) {
+        return GL20.glGetShaderInfoLog(shader);
+    }
+
+    @Override
+    public void attachShader(final int program, final int shader) {
+        GL20.glAttachShader(program, shader);
+    }
+
+    @Override
+    public void detachShader(final int program, final int shader) {
+        GL20.glDetachShader(program, shader);
+    }
+
+    @Override
+    public void deleteShader(final int shader) {
+        GL20.glDeleteShader(shader);
+    }
+
+    @Override
+    public int getUniformLocation(final int program, final String name) {
+        return GL20.glGetUniformLocation(program, name);
+    }
+
+    @Override
+    public int getUniformBlockIndex(final int program, final String name) {
+        return GL31.glGetUniformBlockIndex(program, name);
+    }
+
+    @Override
+    public void uniformBlockBinding(final int program, final int index, final int binding) {
+        GL31.glUniformBlockBinding(program, index, binding);
+    }
+
+    @Override
+    public void uniform1i(final int location, final int value) {
+        GL20.glUniform1i(location, value);
+    }
+
+    @Override
+    public void uniform1iv(final int location, final int[] value) {
+        GL20.glUniform1iv(location, value);
+    }
+
+    @Override
+    public void uniform1f(final int location, final float value) {
+        GL20.glUniform1f(location, value);
+    }
+
+    @Override
+    public void uniform2fv(final int location, final FloatBuffer value) {
+        GL20.glUniform2fv(location, value);
+    }
+
+    @Override
+    public void uniform2iv(final int location, final IntBuffer value) {
+        GL20.glUniform2iv(location, value);
+    }
+
+    @Override
+    public void uniform3fv(final int location, final FloatBuffer value) {
+        GL20.glUniform3fv(location, value);
+    }
+
+    @Override
+    public void uniform3iv(final int location, final IntBuffer value) {
+        GL20.glUniform3iv(location, value);
+    }
+
+    @Override
+    public void uniform4fv(final int location, final FloatBuffer value) {
+        GL20.glUniform4fv(location, value);
+    }
+
+    @Override
+    public void uniform4iv(final int location, final IntBuffer value) {
+        GL20.glUniform4iv(location, value);
+    }
+
+    @Override
+    public void uniformMatrix2fv(final int location, final FloatBuffer value) {
+        GL20.glUniformMatrix2fv(location, false, value);
+    }
+
+    @Override
+    public void uniformMatrix3fv(final int location, final FloatBuffer value) {
+        GL20.glUniformMatrix3fv(location, false, value);
+    }
+
+    @Override
+    public void uniformMatrix4fv(final int location, final FloatBuffer value) {
+        GL20.glUniformMatrix4fv(location, false, value);
+    }
+
+    @Override
+    public int createTexture() {
+        return GL11.glGenTextures();
+    }
+
+    @Override
+    public void activeTexture(final int unit) {
+        GL13.glActiveTexture(unit);
+    }
+
+    @Override
+    public void bindTexture(final int target, final int texture) {
+        GL11.glBindTexture(target, texture);
+    }
+
+    @Override
+    public void texParameteri(final int target, final int name, final int value) {
+        GL11.glTexParameteri(target, name, value);
+    }
+
+    @Override
+    public void texImage2D(final int target, final int level, final int internalFormat,
+            final int width, final int height, final int format, final int type,
+            final ByteBuffer pixels) {
+        GL11.glTexImage2D(target, level, internalFormat, width, height, 0, format, type, pixels);
+    }
+
+    @Override
+    public void deleteTexture(final int texture) {
+        GL11.glDeleteTextures(texture);
+    }
+
+    @Override
+    public int createFramebuffer() {
+        return GL30.glGenFramebuffers();
+    }
+
+    @Override
+    public void bindFramebuffer(final int target, final int framebuffer) {
+        GL30.glBindFramebuffer(target, framebuffer);
+    }
+
+    @Override
+    public void framebufferTexture2D(final int target, final int attachment,
+            final int textureTarget, final int texture, final int level) {
+        GL30.glFramebufferTexture2D(target, attachment, textureTarget, texture, level);
+    }
+
+    @Override
+    public int checkFramebufferStatus(final int target) {
+        return GL30.glCheckFramebufferStatus(target);
+    }
+
+    @Override
+    public void blitFramebuffer(final int sourceX0, final int sourceY0, final int sourceX1,
+            final int sourceY1, final int destinationX0, final int destinationY0,
+            final int destinationX1, final int destinationY1, final int mask, final int filter) {
+        GL30.glBlitFramebuffer(sourceX0, sourceY0, sourceX1, sourceY1, destinationX0,
+                destinationY0, destinationX1, destinationY1, mask, filter);
+    }
+
+    @Override
+    public void deleteFramebuffer(final int framebuffer) {
+        GL30.glDeleteFramebuffers(framebuffer);
+    }
+
+    @Override
+    public int createRenderbuffer() {
+        return GL30.glGenRenderbuffers();
+    }
+
+    @Override
+    public void bindRenderbuffer(final int target, final int renderbuffer) {
+        GL30.glBindRenderbuffer(target, renderbuffer);
+    }
+
+    @Override
+    public void renderbufferStorage(final int target, final int format, final int width,
+            final int height) {
+        GL30.glRenderbufferStorage(target, format, width, height);
+    }
+
+    @Override
+    public void framebufferRenderbuffer(final int target, final int attachment,
+            final int renderbufferTarget, final int renderbuffer) {
+        GL30.glFramebufferRenderbuffer(target, attachment, renderbufferTarget, renderbuffer);
+    }
+
+    @Override
+    public void deleteRenderbuffer(final int renderbuffer) {
+        GL30.glDeleteRenderbuffers(renderbuffer);
+    }
+
+    @Override
+    public String getString(final int name) {
+        return GL11.glGetString(name);
+    }
+
+    @Override
+    public void enable(final int capability) {
+        GL11.glEnable(capability);
+    }
+
+    @Override
+    public void disable(final int capability) {
+        GL11.glDisable(capability);
+    }
+
+    @Override
+    public void blendFunc(final int source, final int destination) {
+        GL11.glBlendFunc(source, destination);
+    }
+
+    @Override
+    public void clear(final int mask) {
+        GL11.glClear(mask);
+    }
+
+    @Override
+    public void depthFunc(final int function) {
+        GL11.glDepthFunc(function);
+    }
+
+    @Override
+    public void depthMask(final boolean flag) {
+        GL11.glDepthMask(flag);
+    }
+
+    @Override
+    public void depthRange(final double near, final double far) {
+        GL11.glDepthRange(near, far);
+    }
+
+    @Override
+    public void clearColor(final float red, final float green, final float blue,
+            final float alpha) {
+        GL11.glClearColor(red, green, blue, alpha);
+    }
+
+    @Override
+    public void viewport(final int x, final int y, final int width, final int height) {
+        GL11.glViewport(x, y, width, height);
+    }
+
+    @Override
+    public void drawElements(final int mode, final int count, final int type, final long offset) {
+        GL11.glDrawElements(mode, count, type, offset);
+    }
+
+    @Override
+    public void drawElementsBaseVertex(final int mode, final int count, final int type,
+            final long offset, final int baseVertex) {
+        GL32.glDrawElementsBaseVertex(mode, count, type, offset, baseVertex);
+    }
+
+    @Override
+    public boolean isMultiDrawIndirectSupported() {
+        final GLCapabilities capabilities = GL.getCapabilities();
+        return capabilities.OpenGL43 || capabilities.GL_ARB_multi_draw_indirect;
+    }
+
+    @Override
+    public void multiDrawElementsIndirect(final int mode, final int type, final long offset,
+            final int drawCount, final int stride) {
+        GL43.glMultiDrawElementsIndirect(mode, type, offset, drawCount, stride);
+    }
+}
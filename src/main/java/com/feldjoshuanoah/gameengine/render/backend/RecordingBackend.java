@@ -0,0 +1,719 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.render.backend;
+
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL30;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents a headless render backend that executes nothing and only records the issued
+ * commands, the number of draw calls and the number of uploaded bytes. It needs neither a window
+ * nor a GL context, so the CPU side of rendering can be run and measured anywhere. Every status
+ * query succeeds and every created object gets a new, positive id.
+ */
+public class RecordingBackend implements RenderBackend {
+
+    /**
+     * Represents a recorded command.
+     */
+    public enum Command {
+
+        /**
+         * A buffer was created.
+         */
+        CREATE_BUFFER,
+        /**
+         * A buffer was bound.
+         */
+        BIND_BUFFER,
+        /**
+         * A buffer data store was created.
+         */
+        BUFFER_DATA,
+        /**
+         * A buffer data store was updated.
+         */
+        BUFFER_SUB_DATA,
+        /**
+         * A buffer was deleted.
+         */
+        DELETE_BUFFER,
+        /**
+         * A vertex array was created.
+         */
+        CREATE_VERTEX_ARRAY,
+        /**
+         * A vertex array was bound.
+         */
+        BIND_VERTEX_ARRAY,
+        /**
+         * A vertex array was deleted.
+         */
+        DELETE_VERTEX_ARRAY,
+        /**
+         * A vertex attribute array was enabled or disabled, or its layout was defined.
+         */
+        VERTEX_ATTRIB,
+        /**
+         * A shader or shader program was created, compiled, linked, attached, detached or
+         * deleted.
+         */
+        SHADER,
+        /**
+         * A shader program was installed.
+         */
+        USE_PROGRAM,
+        /**
+         * A uniform variable was set.
+         */
+        UNIFORM,
+        /**
+         * A texture was created.
+         */
+        CREATE_TEXTURE,
+        /**
+         * A texture was bound or the active texture unit was selected.
+         */
+        BIND_TEXTURE,
+        /**
+         * A texture parameter was set.
+         */
+        TEXTURE_PARAMETER,
+        /**
+         * A texture image was specified.
+         */
+        TEXTURE_IMAGE,
+        /**
+         * A texture was deleted.
+         */
+        DELETE_TEXTURE,
+        /**
+         * A framebuffer was created.
+         */
+        CREATE_FRAMEBUFFER,
+        /**
+         * A framebuffer was bound or a texture or renderbuffer was attached to it.
+         */
+        BIND_FRAMEBUFFER,
+        /**
+         * Pixels were copied between framebuffers.
+         */
+        BLIT_FRAMEBUFFER,
+        /**
+         * A framebuffer was deleted.
+         */
+        DELETE_FRAMEBUFFER,
+        /**
+         * A renderbuffer was created.
+         */
+        CREATE_RENDERBUFFER,
+        /**
+         * A renderbuffer was bound or its storage was allocated.
+         */
+        RENDERBUFFER,
+        /**
+         * A renderbuffer was deleted.
+         */
+        DELETE_RENDERBUFFER,
+        /**
+         * A capability, the blend function, the depth function, mask or range, the clear color or
+         * the viewport was changed.
+         */
+        STATE,
+        /**
+         * Buffers were cleared.
+         */
+        CLEAR,
+        /**
+         * Primitives were drawn.
+         */
+        DRAW
+    }
+
+    /**
+     * The number of times each command was issued, indexed by the command ordinal.
+     */
+    private final long[] counts;
+
+    /**
+     * The issued commands, or {@code null} if they are not logged.
+     */
+    private final List<Command> log;
+
+    /**
+     * The id that is assigned to the next created object.
+     */
+    private int nextId;
+
+    /**
+     * The number of uploaded bytes.
+     */
+    private long uploadedBytes;
+
+    /**
+     * The number of drawn indices.
+     */
+    private long drawnIndices;
+
+    /**
+     * Whether multi-draw indirect is reported as supported.
+     */
+    private boolean multiDrawIndirectSupported;
+
+    /**
+     * Create a new recording backend that only counts commands.
+     */
+    public RecordingBackend() {
+        this(false);
+    }
+
+    /**
+     * Create a new recording backend.
+     *
+     * @param logCommands Whether every issued command is logged in order.
+     */
+    public RecordingBackend(final boolean logCommands) {
+        counts = new long[Command.values().length];
+        log = logCommands ? new ArrayList<>() : null;
+        nextId = 1;
+    }
+
+    /**
+     * Get the number of times a command was issued.
+     *
+     * @param command The command.
+     * @return The number of times the command was issued.
+     */
+    public long getCount(final Command command) {
+        return counts[command.ordinal()];
+    }
+
+    /**
+     * Get the number of draw calls.
+     *
+     * @return The number of draw calls.
+     */
+    public long getDrawCalls() {
+        return getCount(Command.DRAW);
+    }
+
+    /**
+     * Get the number of drawn indices.
+     *
+     * @return The number of drawn indices.
+     */
+    public long getDrawnIndices() {
+        return drawnIndices;
+    }
+
+    /**
+     * Get the number of bytes uploaded into buffers and textures.
+     *
+     * @return The number of uploaded bytes.
+     */
+    public long getUploadedBytes() {
+        return uploadedBytes;
+    }
+
+    /**
+     * Set whether multi-draw indirect is reported as supported, so that both submission paths
+     * can be recorded. It is not supported by default. The indices drawn by a multi-draw are not
+     * counted, since the draw commands are only known to the buffer.
+     *
+     * @param multiDrawIndirectSupported Whether multi-draw indirect is supported.
+     */
+    public void setMultiDrawIndirectSupported(final boolean multiDrawIndirectSupported) {
+        this.multiDrawIndirectSupported = multiDrawIndirectSupported;
+    }
+
+    /**
+     * Get the issued commands in order.
+     *
+     * @return The issued commands, or an empty list if commands are not logged.
+     */
+    public List<Command> getCommands() {
+        return log == null ? List.of() : Collections.unmodifiableList(log);
+    }
+
+    /**
+     * Reset all counters and the command log, for example at the start of a frame. Object ids
+     * keep increasing.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        if (log != null) {
+            log.clear();
+        }
+        uploadedBytes = 0;
+        drawnIndices = 0;
+    }
+
+    /**
+     * Record a command.
+     *
+     * @param command The command.
+     */
+    private void record(final Command command) {
+        counts[command.ordinal()]++;
+        if (log != null) {
+            log.add(command);
+        }
+    }
+
+    /**
+     * Record a command and create a new object id.
+     *
+     * @param command The command.
+     * @return The object id.
+     */
+    private int create(final Command command) {
+        record(command);
+        return nextId++;
+    }
+
+    /**
+     * Record a command that uploads data.
+     *
+     * @param command The command.
+     * @param bytes The number of uploaded bytes.
+     */
+    private void upload(final Command command, final long bytes) {
+        record(command);
+        uploadedBytes += bytes;
+    }
+
+    @Override
+    public int createBuffer() {
+        return create(Command.CREATE_BUFFER);
+    }
+
+    @Override
+    public void bindBuffer(final int target, final int buffer) {
+        record(Command.BIND_BUFFER);
+    }
+
+    @Override
+    public void bindBufferBase(final int target, final int index, final int buffer) {
+        record(Command.BIND_BUFFER);
+    }
+
+    @Override
+    public void bufferData(final int target, final long size, final int usage) {
+        record(Command.BUFFER_DATA);
+    }
+
+    @Override
+    public void bufferData(final int target, final float[] data, final int usage) {
+        upload(Command.BUFFER_DATA, (long) data.length * Float.BYTES);
+    }
+
+    @Override
+    public void bufferData(final int target, final int[] data, final int usage) {
+        upload(Command.BUFFER_DATA, (long) data.length * Integer.BYTES);
+    }
+
+    @Override
+    public void bufferData(final int target, final IntBuffer data, final int usage) {
+        upload(Command.BUFFER_DATA, (long) data.remaining() * Integer.BYTES);
+    }
+
+    @Override
+    public void bufferSubData(final int target, final long offset, final float[] data) {
+        upload(Command.BUFFER_SUB_DATA, (long) data.length * Float.BYTES);
+    }
+
+    @Override
+    public void bufferSubData(final int target, final long offset, final FloatBuffer data) {
+        upload(Command.BUFFER_SUB_DATA, (long) data.remaining() * Float.BYTES);
+    }
+
+    @Override
+    public void deleteBuffer(final int buffer) {
+        record(Command.DELETE_BUFFER);
+    }
+
+    @Override
+    public int createVertexArray() {
+        return create(Command.CREATE_VERTEX_ARRAY);
+    }
+
+    @Override
+    public void bindVertexArray(final int vertexArray) {
+        record(Command.BIND_VERTEX_ARRAY);
+    }
+
+    @Override
+    public void deleteVertexArray(final int vertexArray) {
+        record(Command.DELETE_VERTEX_ARRAY);
+    }
+
+    @Override
+    public void enableVertexAttribArray(final int index) {
+        record(Command.VERTEX_ATTRIB);
+    }
+
+    @Override
+    public void disableVertexAttribArray(final int index) {
+        record(Command.VERTEX_ATTRIB);
+    }
+
+    @Override
+    public void vertexAttribPointer(final int index, final int size, final int type,
+            final boolean normalized, final int stride, final long offset) {
+        record(Command.VERTEX_ATTRIB);
+    }
+
+    @Override
+    public int createProgram() {
+        return create(Command.SHADER);
+    }
+
+    @Override
+    public void linkProgram(final int program) {
+        record(Command.SHADER);
+    }
+
+    @Override
+    public int getProgrami(final int program, final int name) {
+        return GL11.GL_TRUE;
+    }
+
+    @Override
+    public String getProgramInfoLog(final int program) {
+        return "";
+    }
+
+    @Override
+    public void useProgram(final int program) {
+        record(Command.USE_PROGRAM);
+    }
+
+    @Override
+    public void deleteProgram(final int program) {
+        record(Command.SHADER);
+    }
+
+    @Override
+    public boolean isProgramBinarySupported() {
+        return false;
+    }
+
+    @Override
+    public void programParameteri(final int program, final int name, final int value) {
+        record(Command.SHADER);
+    }
+
+    @Override
+    public int getProgramBinary(final int program, final ByteBuffer binary) {
+        record(Command.SHADER);
+        return 0;
+    }
+
+    @Override
+    public void programBinary(final int program, final int format, final ByteBuffer binary) {
+        record(Command.SHADER);
+    }
+
+    @Override
+    public int createShader(final int type) {
+        return create(Command.SHADER);
+    }
+
+    @Override
+    public void shaderSource(final int shader, final String source) {
+        record(Command.SHADER);
+    }
+
+    @Override
+    public void compileShader(final int shader) {
+        record(Command.SHADER);
+    }
+
+    @Override
+    public int getShaderi(final int shader, final int name) {
+        return GL11.GL_TRUE;
+    }
+
+    @Override
+    public String getShaderInfoLog(final int shader) {
+        return "";
+    }
+
+    @Override
+    public void attachShader(final int program, final int shader) {
+        record(Command.SHADER);
+    }
+
+    @Override
+    public void detachShader(final int program, final int shader) {
+        record(Command.SHADER);
+    }
+
+    @Override
+    public void deleteShader(final int shader) {
+        record(Command.SHADER);
+    }
+
+    @Override
+    public int getUniformLocation(final int program, final String name) {
+        return 0;
+    }
+
+    @Override
+    public int getUniformBlockIndex(final int program, final String name) {
+        return 0;
+    }
+
+    @Override
+    public void uniformBlockBinding(final int program, final int index, final int binding) {
+        record(Command.UNIFORM);
+    }
+
+    @Override
+    public void uniform1i(final int location, final int value) {
+        record(Command.UNIFORM);
+    }
+
+    @Override
+    public void uniform1iv(final int location, final int[] value) {
+        record(Command.UNIFORM);
+    }
+
+    @Override
+    public void uniform1f(final int location, final float value) {
+        record(Command.UNIFORM);
+    }
+
+    @Override
+    public void uniform2fv(final int location, final FloatBuffer value) {
+        record(Command.UNIFORM);
+    }
+
+    @Override
+    public void uniform2iv(final int location, final IntBuffer value) {
+        record(Command.UNIFORM);
+    }
+
+    @Override
+    public void uniform3fv(final int location, final FloatBuffer value) {
+        record(Command.UNIFORM);
+    }
+
+    @Override
+    public void uniform3iv(final int location, final IntBuffer value) {
+        record(Command.UNIFORM);
+    }
+
+    @Override
+    public void uniform4fv(final int location, final FloatBuffer value) {
+        record(Command.UNIFORM);
+    }
+
+    @Override
+    public void uniform4iv(final int location, final IntBuffer value) {
+        record(Command.UNIFORM);
+    }
+
+    @Override
+    public void uniformMatrix2fv(final int location, final FloatBuffer value) {
+        record(Command.UNIFORM);
+    }
+
+    @Override
+    public void uniformMatrix3fv(final int location, final FloatBuffer value) {
+        record(Command.UNIFORM);
+    }
+
+    @Override
+    public void uniformMatrix4fv(final int location, final FloatBuffer value) {
+        record(Command.UNIFORM);
+    }
+
+    @Override
+    public int createTexture() {
+        return create(Command.CREATE_TEXTURE);
+    }
+
+    @Override
+    public void activeTexture(final int unit) {
+        record(Command.BIND_TEXTURE);
+    }
+
+    @Override
+    public void bindTexture(final int target, final int texture) {
+        record(Command.BIND_TEXTURE);
+    }
+
+    @Override
+    public void texParameteri(final int target, final int name, final int value) {
+        record(Command.TEXTURE_PARAMETER);
+    }
+
+    @Override
+    public void texImage2D(final int target, final int level, final int internalFormat,
+            final int width, final int height, final int format, final int type,
+            final ByteBuffer pixels) {
+        upload(Command.TEXTURE_IMAGE, pixels == null ? 0 : pixels.remaining());
+    }
+
+    @Override
+    public void deleteTexture(final int texture) {
+        record(Command.DELETE_TEXTURE);
+    }
+
+    @Override
+    public int createFramebuffer() {
+        return create(Command.CREATE_FRAMEBUFFER);
+    }
+
+    @Override
+    public void bindFramebuffer(final int target, final int framebuffer) {
+        record(Command.BIND_FRAMEBUFFER);
+    }
+
+    @Override
+    public void framebufferTexture2D(final int target, final int attachment,
+            final int textureTarget, final int texture, final int level) {
+        record(Command.BIND_FRAMEBUFFER);
+    }
+
+    @Override
+    public int checkFramebufferStatus(final int target) {
+        return GL30.GL_FRAMEBUFFER_COMPLETE;
+    }
+
+    @Override
+    public void blitFramebuffer(final int sourceX0, final int sourceY0, final int sourceX1,
+            final int sourceY1, final int destinationX0, final int destinationY0,
+            final int destinationX1, final int destinationY1, final int mask, final int filter) {
+        record(Command.BLIT_FRAMEBUFFER);
+    }
+
+    @Override
+    public void deleteFramebuffer(final int framebuffer) {
+        record(Command.DELETE_FRAMEBUFFER);
+    }
+
+    @Override
+    public int createRenderbuffer() {
+        return create(Command.CREATE_RENDERBUFFER);
+    }
+
+    @Override
+    public void bindRenderbuffer(final int target, final int renderbuffer) {
+        record(Command.RENDERBUFFER);
+    }
+
+    @Override
+    public void renderbufferStorage(final int target, final int format, final int width,
+            final int height) {
+        record(Command.RENDERBUFFER);
+    }
+
+    @Override
+    public void framebufferRenderbuffer(final int target, final int attachment,
+            final int renderbufferTarget, final int renderbuffer) {
+        record(Command.BIND_FRAMEBUFFER);
+    }
+
+    @Override
+    public void deleteRenderbuffer(final int renderbuffer) {
+        record(Command.DELETE_RENDERBUFFER);
+    }
+
+    @Override
+    public String getString(final int name) {
+        return RecordingBackend.class.getSimpleName();
+    }
+
+    @Override
+    public void enable(final int capability) {
+        record(Command.STATE);
+    }
+
+    @Override
+    public void disable(final int capability) {
+        record(Command.STATE);
+    }
+
+    @Override
+    public void blendFunc(final int source, final int destination) {
+        record(Command.STATE);
+    }
+
+    @Override
+    public void clear(final int mask) {
+        record(Command.CLEAR);
+    }
+
+    @Override
+    public void depthFunc(final int function) {
+        record(Command.STATE);
+    }
+
+    @Override
+    public void depthMask(final boolean flag) {
+        record(Command.STATE);
+    }
+
+    @Override
+    public void depthRange(final double near, final double far) {
+        record(Command.STATE);
+    }
+
+    @Override
+    public void clearColor(final float red, final float green, final float blue,
+            final float alpha) {
+        record(Command.STATE);
+    }
+
+    @Override
+    public void viewport(final int x, final int y, final int width, final int height) {
+        record(Command.STATE);
+    }
+
+    @Override
+    public void drawElements(final int mode, final int count, final int type, final long offset) {
+        record(Command.DRAW);
+        drawnIndices += count;
+    }
+
+    @Override
+    public void drawElementsBaseVertex(final int mode, final int count, final int type,
+            final long offset, final int baseVertex) {
+        record(Command.DRAW);
+        drawnIndices += count;
+    }
+
+    @Override
+    public boolean isMultiDrawIndirectSupported() {
+        return multiDrawIndirectSupported;
+    }
+
+    @Override
+    public void multiDrawElementsIndirect(final int mode, final int type, final long offset,
+            final int drawCount, final int stride) {
+        record(Command.DRAW);
+    }
+}
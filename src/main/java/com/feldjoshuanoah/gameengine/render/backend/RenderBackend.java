@@ -0,0 +1,706 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.render.backend;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Represents a render backend, which executes the graphics commands used by the engine. The
+ * commands mirror their OpenGL counterparts and take OpenGL constants.
+ */
+public interface RenderBackend {
+
+    /**
+     * Create a buffer.
+     *
+     * @return The buffer id.
+     */
+    int createBuffer();
+
+    /**
+     * Bind a buffer to a target.
+     *
+     * @param target The target.
+     * @param buffer The buffer id, or {@code 0} to unbind.
+     */
+    void bindBuffer(int target, int buffer);
+
+    /**
+     * Bind a buffer to an indexed binding point of a target.
+     *
+     * @param target The target.
+     * @param index The binding point.
+     * @param buffer The buffer id.
+     */
+    void bindBufferBase(int target, int index, int buffer);
+
+    /**
+     * Allocate an uninitialized data store for the buffer bound to a target.
+     *
+     * @param target The target.
+     * @param size The size, in bytes.
+     * @param usage The expected usage pattern.
+     */
+    void bufferData(int target, long size, int usage);
+
+    /**
+     * Create a data store with the given floats for the buffer bound to a target.
+     *
+     * @param target The target.
+     * @param data The data.
+     * @param usage The expected usage pattern.
+     */
+    void bufferData(int target, float[] data, int usage);
+
+    /**
+     * Create a data store with the given ints for the buffer bound to a target.
+     *
+     * @param target The target.
+     * @param data The data.
+     * @param usage The expected usage pattern.
+     */
+    void bufferData(int target, int[] data, int usage);
+
+    /**
+     * Create a data store with the ints between the position and the limit of the given buffer
+     * for the buffer bound to a target.
+     *
+     * @param target The target.
+     * @param data The data.
+     * @param usage The expected usage pattern.
+     */
+    void bufferData(int target, IntBuffer data, int usage);
+
+    /**
+     * Update a subset of the data store of the buffer bound to a target.
+     *
+     * @param target The target.
+     * @param offset The offset, in bytes.
+     * @param data The data.
+     */
+    void bufferSubData(int target, long offset, float[] data);
+
+    /**
+     * Update a subset of the data store of the buffer bound to a target.
+     *
+     * @param target The target.
+     * @param offset The offset, in bytes.
+     * @param data The data between the position and the limit of the buffer.
+     */
+    void bufferSubData(int target, long offset, FloatBuffer data);
+
+    /**
+     * Delete a buffer.
+     *
+     * @param buffer The buffer id.
+     */
+    void deleteBuffer(int buffer);
+
+    /**
+     * Create a vertex array.
+     *
+     * @return The vertex array id.
+     */
+    int createVertexArray();
+
+    /**
+     * Bind a vertex array.
+     *
+     * @param vertexArray The vertex array id, or {@code 0} to unbind.
+     */
+    void bindVertexArray(int vertexArray);
+
+    /**
+     * Delete a vertex array.
+     *
+     * @param vertexArray The vertex array id.
+     */
+    void deleteVertexArray(int vertexArray);
+
+    /**
+     * Enable a vertex attribute array.
+     *
+     * @param index The attribute index.
+     */
+    void enableVertexAttribArray(int index);
+
+    /**
+     * Disable a vertex attribute array.
+     *
+     * @param index The attribute index.
+     */
+    void disableVertexAttribArray(int index);
+
+    /**
+     * Define the layout of a vertex attribute in the bound array buffer.
+     *
+     * @param index The attribute index.
+     * @param size The number of components.
+     * @param type The component type.
+     * @param normalized Whether fixed-point values are normalized.
+     * @param stride The byte offset between consecutive vertices.
+     * @param offset The byte offset of the attribute within a vertex.
+     */
+    void vertexAttribPointer(int index, int size, int type, boolean normalized, int stride,
+            long offset);
+
+    /**
+     * Create a shader program.
+     *
+     * @return The program handle.
+     */
+    int createProgram();
+
+    /**
+     * Link a shader program.
+     *
+     * @param program The program handle.
+     */
+    void linkProgram(int program);
+
+    /**
+     * Get a parameter of a shader program.
+     *
+     * @param program The program handle.
+     * @param name The parameter name.
+     * @return The parameter value.
+     */
+    int getProgrami(int program, int name);
+
+    /**
+     * Get the information log of a shader program.
+     *
+     * @param program The program handle.
+     * @return The information log.
+     */
+    String getProgramInfoLog(int program);
+
+    /**
+     * Install a shader program as part of the current rendering state.
+     *
+     * @param program The program handle, or {@code 0} to uninstall.
+     */
+    void useProgram(int program);
+
+    /**
+     * Delete a shader program.
+     *
+     * @param program The program handle.
+     */
+    void deleteProgram(int program);
+
+    /**
+     * Check whether shader program binaries can be retrieved and loaded.
+     *
+     * @return {@code true} if program binaries are supported.
+     */
+    boolean isProgramBinarySupported();
+
+    /**
+     * Set a parameter of a shader program.
+     *
+     * @param program The program handle.
+     * @param name The parameter name.
+     * @param value The parameter value.
+     */
+    void programParameteri(int program, int name, int value);
+
+    /**
+     * Retrieve the binary representation of a linked shader program. The buffer must have room
+     * for {@code GL_PROGRAM_BINARY_LENGTH} bytes.
+     *
+     * @param program The program handle.
+     * @param binary The buffer to store the binary in.
+     * @return The format of the binary.
+     */
+    int getProgramBinary(int program, ByteBuffer binary);
+
+    /**
+     * Load a shader program from a binary previously retrieved with
+     * {@link #getProgramBinary(int, ByteBuffer)}. Whether the binary was accepted is reported by
+     * the link status of the program.
+     *
+     * @param program The program handle.
+     * @param format The format of the binary.
+     * @param binary The binary.
+     */
+    void programBinary(int program, int format, ByteBuffer binary);
+
+    /**
+     * Create a shader.
+     *
+     * @param type The shader type.
+     * @return The shader handle.
+     */
+    int createShader(int type);
+
+    /**
+     * Replace the source code of a shader.
+     *
+     * @param shader The shader handle.
+     * @param source The source code.
+     */
+    void shaderSource(int shader, String source);
+
+    /**
+     * Compile a shader.
+     *
+     * @param shader The shader handle.
+     */
+    void compileShader(int shader);
+
+    /**
+     * Get a parameter of a shader.
+     *
+     * @param shader The shader handle.
+     * @param name The parameter name.
+     * @return The parameter value.
+     */
+    int getShaderi(int shader, int name);
+
+    /**
+     * Get the information log of a shader.
+     *
+     * @param shader The shader handle.
+     * @return The information log.
+     */
+    String getShaderInfoLog(int shader);
+
+    /**
+     * Attach a shader to a shader program.
+     *
+     * @param program The program handle.
+     * @param shader The shader handle.
+     */
+    void attachShader(int program, int shader);
+
+    /**
+     * Detach a shader from a shader program.
+     *
+     * @param program The program handle.
+     * @param shader The shader handle.
+     */
+    void detachShader(int program, int shader);
+
+    /**
+     * Delete a shader.
+     *
+     * @param shader The shader handle.
+     */
+    void deleteShader(int shader);
+
+    /**
+     * Get the location of a uniform variable.
+     *
+     * @param program The program handle.
+     * @param name The name of the uniform variable.
+     * @return The location, or {@code -1} if there is no such uniform variable.
+     */
+    int getUniformLocation(int program, String name);
+
+    /**
+     * Get the index of a uniform block of a shader program.
+     *
+     * @param program The program handle.
+     * @param name The name of the uniform block.
+     * @return The index, or {@code GL_INVALID_INDEX} if the block does not exist.
+     */
+    int getUniformBlockIndex(int program, String name);
+
+    /**
+     * Assign a binding point to a uniform block of a shader program.
+     *
+     * @param program The program handle.
+     * @param index The index of the uniform block.
+     * @param binding The binding point.
+     */
+    void uniformBlockBinding(int program, int index, int binding);
+
+    /**
+     * Specify the value of an int uniform variable of the current program.
+     *
+     * @param location The location.
+     * @param value The value.
+     */
+    void uniform1i(int location, int value);
+
+    /**
+     * Specify the values of an int array uniform variable of the current program.
+     *
+     * @param location The location.
+     * @param value The values.
+     */
+    void uniform1iv(int location, int[] value);
+
+    /**
+     * Specify the value of a float uniform variable of the current program.
+     *
+     * @param location The location.
+     * @param value The value.
+     */
+    void uniform1f(int location, float value);
+
+    /**
+     * Specify the value of a vec2 uniform variable of the current program.
+     *
+     * @param location The location.
+     * @param value The value.
+     */
+    void uniform2fv(int location, FloatBuffer value);
+
+    /**
+     * Specify the value of an ivec2 uniform variable of the current program.
+     *
+     * @param location The location.
+     * @param value The value.
+     */
+    void uniform2iv(int location, IntBuffer value);
+
+    /**
+     * Specify the value of a vec3 uniform variable of the current program.
+     *
+     * @param location The location.
+     * @param value The value.
+     */
+    void uniform3fv(int location, FloatBuffer value);
+
+    /**
+     * Specify the value of an ivec3 uniform variable of the current program.
+     *
+     * @param location The location.
+     * @param value The value.
+     */
+    void uniform3iv(int location, IntBuffer value);
+
+    /**
+     * Specify the value of a vec4 uniform variable of the current program.
+     *
+     * @param location The location.
+     * @param value The value.
+     */
+    void uniform4fv(int location, FloatBuffer value);
+
+    /**
+     * Specify the value of an ivec4 uniform variable of the current program.
+     *
+     * @param location The location.
+     * @param value The value.
+     */
+    void uniform4iv(int location, IntBuffer value);
+
+    /**
+     * Specify the value of a mat2 uniform variable of the current program.
+     *
+     * @param location The location.
+     * @param value The value, in column-major order.
+     */
+    void uniformMatrix2fv(int location, FloatBuffer value);
+
+    /**
+     * Specify the value of a mat3 uniform variable of the current program.
+     *
+     * @param location The location.
+     * @param value The value, in column-major order.
+     */
+    void uniformMatrix3fv(int location, FloatBuffer value);
+
+    /**
+     * Specify the value of a mat4 uniform variable of the current program.
+     *
+     * @param location The location.
+     * @param value The value, in column-major order.
+     */
+    void uniformMatrix4fv(int location, FloatBuffer value);
+
+    /**
+     * Create a texture.
+     *
+     * @return The texture id.
+     */
+    int createTexture();
+
+    /**
+     * Select the active texture unit.
+     *
+     * @param unit The texture unit, for example {@code GL_TEXTURE0}.
+     */
+    void activeTexture(int unit);
+
+    /**
+     * Bind a texture to a target of the active texture unit.
+     *
+     * @param target The target.
+     * @param texture The texture id, or {@code 0} to unbind.
+     */
+    void bindTexture(int target, int texture);
+
+    /**
+     * Set a parameter of the texture bound to a target.
+     *
+     * @param target The target.
+     * @param name The parameter name.
+     * @param value The parameter value.
+     */
+    void texParameteri(int target, int name, int value);
+
+    /**
+     * Specify the image of the texture bound to a target.
+     *
+     * @param target The target.
+     * @param level The level of detail.
+     * @param internalFormat The internal format.
+     * @param width The width.
+     * @param height The height.
+     * @param format The format of the pixel data.
+     * @param type The type of the pixel data.
+     * @param pixels The pixel data, or {@code null} to allocate the image without initializing it.
+     */
+    void texImage2D(int target, int level, int internalFormat, int width, int height, int format,
+            int type, ByteBuffer pixels);
+
+    /**
+     * Delete a texture.
+     *
+     * @param texture The texture id.
+     */
+    void deleteTexture(int texture);
+
+    /**
+     * Create a framebuffer.
+     *
+     * @return The framebuffer id.
+     */
+    int createFramebuffer();
+
+    /**
+     * Bind a framebuffer to a target.
+     *
+     * @param target The target.
+     * @param framebuffer The framebuffer id, or {@code 0} for the default framebuffer.
+     */
+    void bindFramebuffer(int target, int framebuffer);
+
+    /**
+     * Attach a texture to the framebuffer bound to a target.
+     *
+     * @param target The target.
+     * @param attachment The attachment point.
+     * @param textureTarget The texture target.
+     * @param texture The texture id.
+     * @param level The mipmap level.
+     */
+    void framebufferTexture2D(int target, int attachment, int textureTarget, int texture,
+            int level);
+
+    /**
+     * Check the completeness of the framebuffer bound to a target.
+     *
+     * @param target The target.
+     * @return The completeness status.
+     */
+    int checkFramebufferStatus(int target);
+
+    /**
+     * Copy a rectangle of pixels from the read framebuffer to the draw framebuffer.
+     *
+     * @param sourceX0 The left edge of the source rectangle.
+     * @param sourceY0 The bottom edge of the source rectangle.
+     * @param sourceX1 The right edge of the source rectangle.
+     * @param sourceY1 The top edge of the source rectangle.
+     * @param destinationX0 The left edge of the destination rectangle.
+     * @param destinationY0 The bottom edge of the destination rectangle.
+     * @param destinationX1 The right edge of the destination rectangle.
+     * @param destinationY1 The top edge of the destination rectangle.
+     * @param mask The buffers to copy.
+     * @param filter The interpolation used if the rectangles differ in size.
+     */
+    void blitFramebuffer(int sourceX0, int sourceY0, int sourceX1, int sourceY1,
+            int destinationX0, int destinationY0, int destinationX1, int destinationY1, int mask,
+            int filter);
+
+    /**
+     * Delete a framebuffer.
+     *
+     * @param framebuffer The framebuffer id.
+     */
+    void deleteFramebuffer(int framebuffer);
+
+    /**
+     * Create a renderbuffer.
+     *
+     * @return The renderbuffer id.
+     */
+    int createRenderbuffer();
+
+    /**
+     * Bind a renderbuffer to a target.
+     *
+     * @param target The target.
+     * @param renderbuffer The renderbuffer id, or {@code 0} to unbind.
+     */
+    void bindRenderbuffer(int target, int renderbuffer);
+
+    /**
+     * Allocate the storage of the renderbuffer bound to a target.
+     *
+     * @param target The target.
+     * @param format The internal format.
+     * @param width The width.
+     * @param height The height.
+     */
+    void renderbufferStorage(int target, int format, int width, int height);
+
+    /**
+     * Attach a renderbuffer to the framebuffer bound to a target.
+     *
+     * @param target The target.
+     * @param attachment The attachment point.
+     * @param renderbufferTarget The renderbuffer target.
+     * @param renderbuffer The renderbuffer id.
+     */
+    void framebufferRenderbuffer(int target, int attachment, int renderbufferTarget,
+            int renderbuffer);
+
+    /**
+     * Delete a renderbuffer.
+     *
+     * @param renderbuffer The renderbuffer id.
+     */
+    void deleteRenderbuffer(int renderbuffer);
+
+    /**
+     * Get a string describing the current context.
+     *
+     * @param name The string name, such as {@code GL_RENDERER}.
+     * @return The string.
+     */
+    String getString(int name);
+
+    /**
+     * Enable a capability.
+     *
+     * @param capability The capability.
+     */
+    void enable(int capability);
+
+    /**
+     * Disable a capability.
+     *
+     * @param capability The capability.
+     */
+    void disable(int capability);
+
+    /**
+     * Specify the blend function.
+     *
+     * @param source The source factor.
+     * @param destination The destination factor.
+     */
+    void blendFunc(int source, int destination);
+
+    /**
+     * Specify the function used to compare the depth of a fragment with the depth buffer.
+     *
+     * @param function The comparison function.
+     */
+    void depthFunc(int function);
+
+    /**
+     * Enable or disable writing into the depth buffer.
+     *
+     * @param flag Whether the depth buffer is written.
+     */
+    void depthMask(boolean flag);
+
+    /**
+     * Specify the mapping of normalized device depth to window depth.
+     *
+     * @param near The window depth of the near clipping plane.
+     * @param far The window depth of the far clipping plane.
+     */
+    void depthRange(double near, double far);
+
+    /**
+     * Clear buffers to their preset values.
+     *
+     * @param mask The buffers to clear.
+     */
+    void clear(int mask);
+
+    /**
+     * Specify the values the color buffers are cleared to.
+     *
+     * @param red The red component.
+     * @param green The green component.
+     * @param blue The blue component.
+     * @param alpha The alpha component.
+     */
+    void clearColor(float red, float green, float blue, float alpha);
+
+    /**
+     * Set the viewport.
+     *
+     * @param x The left edge of the viewport.
+     * @param y The bottom edge of the viewport.
+     * @param width The width of the viewport.
+     * @param height The height of the viewport.
+     */
+    void viewport(int x, int y, int width, int height);
+
+    /**
+     * Render primitives from the bound element array buffer.
+     *
+     * @param mode The primitive mode.
+     * @param count The number of indices.
+     * @param type The index type.
+     * @param offset The byte offset into the element array buffer.
+     */
+    void drawElements(int mode, int count, int type, long offset);
+
+    /**
+     * Render primitives from the bound element array buffer, adding a constant to every index.
+     *
+     * @param mode The primitive mode.
+     * @param count The number of indices.
+     * @param type The index type.
+     * @param offset The byte offset into the element array buffer.
+     * @param baseVertex The constant added to every index.
+     */
+    void drawElementsBaseVertex(int mode, int count, int type, long offset, int baseVertex);
+
+    /**
+     * Check whether several indexed draws can be submitted at once from a buffer of draw
+     * commands.
+     *
+     * @return {@code true} if multi-draw indirect is supported.
+     */
+    boolean isMultiDrawIndirectSupported();
+
+    /**
+     * Render primitives from the bound element array buffer for every draw command in the bound
+     * draw indirect buffer.
+     *
+     * @param mode The primitive mode.
+     * @param type The index type.
+     * @param offset The byte offset of the first draw command in the draw indirect buffer.
+     * @param drawCount The number of draw commands.
+     * @param stride The distance, in bytes, between two draw commands, or {@code 0} if they are
+     *               tightly packed.
+     */
+    void multiDrawElementsIndirect(int mode, int type, long offset, int drawCount, int stride);
+}
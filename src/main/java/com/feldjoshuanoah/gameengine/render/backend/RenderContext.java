@@ -0,0 +1,53 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.render.backend;
+
+/**
+ * Holds the render backend that is used by all rendering classes.
+ */
+public final class RenderContext {
+
+    /**
+     * The render backend.
+     */
+    private static RenderBackend backend = new OpenGLBackend();
+
+    /**
+     * Not accessible.
+     */
+    private RenderContext() {
+        // This is empty intentionally.
+    }
+
+    /**
+     * Get the render backend.
+     *
+     * @return The render backend.
+     */
+    public static RenderBackend getBackend() {
+        return backend;
+    }
+
+    /**
+     * Set the render backend. This has to happen before any GL object is created, since objects
+     * created by one backend cannot be used with another.
+     *
+     * @param backend The render backend.
+     */
+    public static void setBackend(final RenderBackend backend) {
+        RenderContext.backend = backend;
+    }
+}
@@ -15,7 +15,8 @@
  */
 package com.feldjoshuanoah.gameengine.render.buffer;
 
-import org.lwjgl.opengl.GL30;
+import com.feldjoshuanoah.gameengine.render.backend.RenderBackend;
+import com.feldjoshuanoah.gameengine.render.backend.RenderContext;
 
 /**
  * Represents a buffer.
@@ -27,6 +28,11 @@ public abstract class AbstractBuffer {
      */
     protected final int id;
 
+    /**
+     * The render backend.
+     */
+    protected final RenderBackend backend;
+
     /**
      * Create a new buffer.
      *
@@ -34,6 +40,7 @@ public abstract class AbstractBuffer {
      */
     public AbstractBuffer(final int id) {
         this.id = id;
+        backend = RenderContext.getBackend();
     }
 
     /**
@@ -50,6 +57,6 @@ public abstract class AbstractBuffer {
      * Delete the buffer.
      */
     public void delete() {
-        GL30.glDeleteBuffers(id);
+        backend.deleteBuffer(id);
     }
 }
@@ -15,6 +15,7 @@
  */
 package com.feldjoshuanoah.gameengine.render.buffer;
 
+import com.feldjoshuanoah.gameengine.render.backend.RenderContext;
 import org.lwjgl.opengl.GL30;
 
 /**
@@ -28,18 +29,18 @@ public class IndexBuffer extends AbstractBuffer {
      * @param indices The indices to be stored in the buffer.
      */
     public IndexBuffer(final int[] indices) {
-        super(GL30.glGenBuffers());
-        GL30.glBindBuffer(GL30.GL_ELEMENT_ARRAY_BUFFER, id);
-        GL30.glBufferData(GL30.GL_ELEMENT_ARRAY_BUFFER, indices, GL30.GL_STATIC_DRAW);
+        super(RenderContext.getBackend().createBuffer());
+        backend.bindBuffer(GL30.GL_ELEMENT_ARRAY_BUFFER, id);
+        backend.bufferData(GL30.GL_ELEMENT_ARRAY_BUFFER, indices, GL30.GL_STATIC_DRAW);
     }
 
     @Override
     public void bind() {
-        GL30.glBindBuffer(GL30.GL_ELEMENT_ARRAY_BUFFER, id);
+        backend.bindBuffer(GL30.GL_ELEMENT_ARRAY_BUFFER, id);
     }
 
     @Override
     public void unbind() {
-        GL30.glBindBuffer(GL30.GL_ELEMENT_ARRAY_BUFFER, 0);
+        backend.bindBuffer(GL30.GL_ELEMENT_ARRAY_BUFFER, 0);
     }
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.render.buffer;
+
+import com.feldjoshuanoah.gameengine.render.backend.RenderContext;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL40;
+
+import java.nio.IntBuffer;
+
+/**
+ * Represents a draw indirect buffer holding the draw commands of a multi-draw.
+ */
+public class IndirectBuffer extends AbstractBuffer {
+
+    /**
+     * The number of ints in an indexed draw command: the index count, the instance count, the
+     * first index, the base vertex and the base instance.
+     */
+    public static final int COMMAND_SIZE = 5;
+
+    /**
+     * Create a new draw indirect buffer.
+     */
+    public IndirectBuffer() {
+        super(RenderContext.getBackend().createBuffer());
+    }
+
+    @Override
+    public void bind() {
+        backend.bindBuffer(GL40.GL_DRAW_INDIRECT_BUFFER, id);
+    }
+
+    @Override
+    public void unbind() {
+        backend.bindBuffer(GL40.GL_DRAW_INDIRECT_BUFFER, 0);
+    }
+
+    /**
+     * Replace the data store of the bound draw indirect buffer. The previous data store is
+     * orphaned, so draws that still read from it are not waited for.
+     *
+     * @param commands The draw commands, between the position and the limit of the buffer.
+     */
+    public void setData(final IntBuffer commands) {
+        backend.bufferData(GL40.GL_DRAW_INDIRECT_BUFFER, commands, GL15.GL_STREAM_DRAW);
+    }
+}
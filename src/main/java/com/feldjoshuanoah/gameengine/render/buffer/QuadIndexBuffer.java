@@ -0,0 +1,106 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.render.buffer;
+
+import com.feldjoshuanoah.gameengine.render.backend.RenderContext;
+import org.lwjgl.opengl.GL30;
+
+/**
+ * Represents the index buffer that is shared by everything that draws quads. It holds the same
+ * index pattern for every quad and grows on demand, keeping its buffer id, so vertex arrays that
+ * reference it stay valid.
+ */
+public final class QuadIndexBuffer extends AbstractBuffer {
+
+    /**
+     * The number of vertices used for a quad.
+     */
+    private static final int QUAD_VERTICES = 4;
+
+    /**
+     * The base indices for a quad.
+     */
+    private static final int[] BASE_INDICES = new int[] { 0, 3, 1, 1, 3, 2 };
+
+    /**
+     * The shared instance.
+     */
+    private static QuadIndexBuffer instance;
+
+    /**
+     * The number of quads the buffer holds indices for.
+     */
+    private int capacity;
+
+    /**
+     * Create a new quad index buffer.
+     */
+    private QuadIndexBuffer() {
+        super(RenderContext.getBackend().createBuffer());
+    }
+
+    /**
+     * Get the shared quad index buffer, creating it if necessary.
+     *
+     * @return The shared quad index buffer.
+     */
+    public static QuadIndexBuffer getInstance() {
+        if (instance == null) {
+            instance = new QuadIndexBuffer();
+        }
+        return instance;
+    }
+
+    /**
+     * Grow the buffer, if necessary, so it holds indices for at least the specified number of
+     * quads. The buffer is left bound.
+     *
+     * @param quads The number of quads.
+     */
+    public void ensureCapacity(final int quads) {
+        bind();
+        if (quads <= capacity) {
+            return;
+        }
+        capacity = Math.max(quads, capacity * 2);
+        final int[] indices = new int[BASE_INDICES.length * capacity];
+        for (int i = 0; i < capacity; i++) {
+            for (int j = 0; j < BASE_INDICES.length; j++) {
+                indices[BASE_INDICES.length * i + j] = QUAD_VERTICES * i + BASE_INDICES[j];
+            }
+        }
+        backend.bufferData(GL30.GL_ELEMENT_ARRAY_BUFFER, indices, GL30.GL_STATIC_DRAW);
+    }
+
+    @Override
+    public void bind() {
+        backend.bindBuffer(GL30.GL_ELEMENT_ARRAY_BUFFER, id);
+    }
+
+    @Override
+    public void unbind() {
+        backend.bindBuffer(GL30.GL_ELEMENT_ARRAY_BUFFER, 0);
+    }
+
+    @Override
+    public void delete() {
+        super.delete();
+        capacity = 0;
+        if (instance == this) {
+            instance = null;
+        }
+    }
+}
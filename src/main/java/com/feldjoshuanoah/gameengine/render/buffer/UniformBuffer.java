@@ -0,0 +1,89 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.render.buffer;
+
+import com.feldjoshuanoah.gameengine.render.backend.RenderContext;
+import org.lwjgl.opengl.GL31;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Represents a uniform buffer that backs a uniform block of every program bound to the same
+ * binding point.
+ */
+public class UniformBuffer extends AbstractBuffer {
+
+    /**
+     * The binding point.
+     */
+    private final int binding;
+
+    /**
+     * Create a new uniform buffer.
+     *
+     * @param size The size of the buffer, in floats.
+     * @param binding The binding point.
+     */
+    public UniformBuffer(final int size, final int binding) {
+        super(RenderContext.getBackend().createBuffer());
+        this.binding = binding;
+        bind();
+        backend.bufferData(GL31.GL_UNIFORM_BUFFER, (long) size * Float.BYTES,
+                GL31.GL_DYNAMIC_DRAW);
+        unbind();
+    }
+
+    /**
+     * Get the binding point of the uniform buffer.
+     *
+     * @return The binding point.
+     */
+    public int getBinding() {
+        return binding;
+    }
+
+    /**
+     * Bind the uniform buffer to its binding point, so that the uniform blocks of all programs
+     * that use the binding point read from it.
+     */
+    public void bindBase() {
+        backend.bindBufferBase(GL31.GL_UNIFORM_BUFFER, binding, id);
+    }
+
+    @Override
+    public void bind() {
+        backend.bindBuffer(GL31.GL_UNIFORM_BUFFER, id);
+    }
+
+    @Override
+    public void unbind() {
+        backend.bindBuffer(GL31.GL_UNIFORM_BUFFER, 0);
+    }
+
+    /**
+     * Updates a subset of the data store of this uniform buffer.
+     *
+     * @param offset The offset into the uniform buffer's data store where data replacement will
+     *               begin, measured in bytes.
+     * @param data The new data, between the position and the limit of the buffer, that will be
+     *             copied into the data store.
+     */
+    public void setSubData(final long offset, final FloatBuffer data) {
+        bind();
+        backend.bufferSubData(GL31.GL_UNIFORM_BUFFER, offset, data);
+        unbind();
+    }
+}
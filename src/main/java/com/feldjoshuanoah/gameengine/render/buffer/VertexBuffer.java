@@ -16,8 +16,10 @@
 package com.feldjoshuanoah.gameengine.render.buffer;
 
 import com.feldjoshuanoah.gameengine.render.Shader;
+import com.feldjoshuanoah.gameengine.render.backend.RenderContext;
 import org.lwjgl.opengl.GL30;
 
+import java.nio.FloatBuffer;
 import java.util.Arrays;
 import java.util.stream.IntStream;
 
@@ -38,14 +40,14 @@ public class VertexBuffer extends AbstractBuffer {
      * @param layout The buffer layout.
      */
     public VertexBuffer(final float[] vertices, final Shader.DataType[] layout) {
-        super(GL30.glGenBuffers());
-        GL30.glBindBuffer(GL30.GL_ARRAY_BUFFER, id);
-        GL30.glBufferData(GL30.GL_ARRAY_BUFFER, vertices, GL30.GL_STATIC_DRAW);
+        super(RenderContext.getBackend().createBuffer());
+        backend.bindBuffer(GL30.GL_ARRAY_BUFFER, id);
+        backend.bufferData(GL30.GL_ARRAY_BUFFER, vertices, GL30.GL_STATIC_DRAW);
         elements = layout.length;
         final int stride = Arrays.stream(layout).mapToInt(Shader.DataType::getByteSize).sum();
         for (int i = 0; i < elements; i++) {
-            GL30.glEnableVertexAttribArray(i);
-            GL30.glVertexAttribPointer(i, layout[i].getSize(), layout[i].getType(), false, stride,
+            backend.enableVertexAttribArray(i);
+            backend.vertexAttribPointer(i, layout[i].getSize(), layout[i].getType(), false, stride,
                     IntStream.range(0, i).map(j -> layout[j].getByteSize()).sum());
         }
     }
@@ -56,26 +58,26 @@ public class VertexBuffer extends AbstractBuffer {
      * @param layout The buffer layout.
      */
     public VertexBuffer(final int size, final Shader.DataType[] layout) {
-        super(GL30.glGenBuffers());
-        GL30.glBindBuffer(GL30.GL_ARRAY_BUFFER, id);
-        GL30.glBufferData(GL30.GL_ARRAY_BUFFER, (long) size * Float.BYTES, GL30.GL_DYNAMIC_DRAW);
+        super(RenderContext.getBackend().createBuffer());
+        backend.bindBuffer(GL30.GL_ARRAY_BUFFER, id);
+        backend.bufferData(GL30.GL_ARRAY_BUFFER, (long) size * Float.BYTES, GL30.GL_DYNAMIC_DRAW);
         elements = layout.length;
         final int stride = Arrays.stream(layout).mapToInt(Shader.DataType::getByteSize).sum();
         for (int i = 0; i < elements; i++) {
-            GL30.glEnableVertexAttribArray(i);
-            GL30.glVertexAttribPointer(i, layout[i].getSize(), layout[i].getType(), false, stride,
+            backend.enableVertexAttribArray(i);
+            backend.vertexAttribPointer(i, layout[i].getSize(), layout[i].getType(), false, stride,
                     IntStream.range(0, i).map(j -> layout[j].getByteSize()).sum());
         }
     }
 
     @Override
     public void bind() {
-        GL30.glBindBuffer(GL30.GL_ARRAY_BUFFER, id);
+        backend.bindBuffer(GL30.GL_ARRAY_BUFFER, id);
     }
 
     @Override
     public void unbind() {
-        GL30.glBindBuffer(GL30.GL_ARRAY_BUFFER, 0);
+        backend.bindBuffer(GL30.GL_ARRAY_BUFFER, 0);
     }
 
     /**
@@ -86,7 +88,19 @@ public class VertexBuffer extends AbstractBuffer {
      * @param vertices The new vertices that will be copied into the data store.
      */
     public void setSubData(final int offset, final float[] vertices) {
-        GL30.glBufferSubData(GL30.GL_ARRAY_BUFFER, offset, vertices);
+        backend.bufferSubData(GL30.GL_ARRAY_BUFFER, offset, vertices);
+    }
+
+    /**
+     * Updates a subset of the data store of this vertex buffer.
+     *
+     * @param offset The offset into the vertex buffer's data store where data replacement will
+     *               begin, measured in bytes.
+     * @param vertices The new vertices, between the position and the limit of the buffer, that
+     *                 will be copied into the data store.
+     */
+    public void setSubData(final long offset, final FloatBuffer vertices) {
+        backend.bufferSubData(GL30.GL_ARRAY_BUFFER, offset, vertices);
     }
 
     /**
@@ -94,7 +108,7 @@ public class VertexBuffer extends AbstractBuffer {
      */
     public void enableVertexAttribArrays() {
         for (int i = 0; i < elements; i++) {
-            GL30.glEnableVertexAttribArray(i);
+            backend.enableVertexAttribArray(i);
         }
     }
 
@@ -103,7 +117,7 @@ public class VertexBuffer extends AbstractBuffer {
      */
     public void disableVertexAttribArrays() {
         for (int i = 0; i < elements; i++) {
-            GL30.glDisableVertexAttribArray(i);
+            backend.disableVertexAttribArray(i);
         }
     }
 }
@@ -0,0 +1,433 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.render.particle;
+
+import com.feldjoshuanoah.gameengine.render.Drawable;
+import com.feldjoshuanoah.gameengine.render.QuadMesh;
+import com.feldjoshuanoah.gameengine.render.Shader;
+import com.feldjoshuanoah.gameengine.render.SortKey;
+import com.feldjoshuanoah.gameengine.render.backend.RenderBackend;
+import com.feldjoshuanoah.gameengine.render.backend.RenderContext;
+import com.feldjoshuanoah.gameengine.render.sprite.Sprite;
+import org.joml.Vector2f;
+import org.lwjgl.opengl.GL13;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a particle system. The particles are stored in fixed-capacity parallel arrays and
+ * updated in tight loops. Dead particles are removed by moving the last live particle into their
+ * place, so the live particles always occupy the front of the arrays and nothing is allocated
+ * while the system runs. The particles are drawn as quads in chunks of {@link #CHUNK_CAPACITY}.
+ */
+public class ParticleSystem implements Drawable {
+
+    /**
+     * The number of particles drawn with a single draw call.
+     */
+    public static final int CHUNK_CAPACITY = 16384;
+
+    /**
+     * The texture slots.
+     */
+    private static final int[] TEXTURE_SLOTS = new int[] { 0, 1, 2, 3, 4, 5, 6, 7 };
+
+    /**
+     * The texture slot the sprite is bound to.
+     */
+    private static final int TEXTURE_ID = 1;
+
+    /**
+     * The number of vertices used for a quad.
+     */
+    private static final int QUAD_VERTICES = 4;
+
+    /**
+     * The render backend.
+     */
+    private final RenderBackend backend;
+
+    /**
+     * The shader.
+     */
+    private final Shader shader;
+
+    /**
+     * The sprite drawn for every particle, or {@code null} for plain colored quads.
+     */
+    private final Sprite sprite;
+
+    /**
+     * The texture coordinates of the sprite.
+     */
+    private final float[] textureCoordinates;
+
+    /**
+     * The maximum number of live particles.
+     */
+    private final int capacity;
+
+    /**
+     * The x-coordinates of the particles.
+     */
+    private final float[] x;
+
+    /**
+     * The y-coordinates of the particles.
+     */
+    private final float[] y;
+
+    /**
+     * The horizontal velocities of the particles.
+     */
+    private final float[] velocityX;
+
+    /**
+     * The vertical velocities of the particles.
+     */
+    private final float[] velocityY;
+
+    /**
+     * The remaining lifetimes of the particles, in seconds.
+     */
+    private final float[] life;
+
+    /**
+     * The inverse total lifetimes of the particles.
+     */
+    private final float[] inverseLifetime;
+
+    /**
+     * The red components of the particle colors.
+     */
+    private final float[] red;
+
+    /**
+     * The green components of the particle colors.
+     */
+    private final float[] green;
+
+    /**
+     * The blue components of the particle colors.
+     */
+    private final float[] blue;
+
+    /**
+     * The alpha components of the particle colors.
+     */
+    private final float[] alpha;
+
+    /**
+     * The number of live particles.
+     */
+    private int size;
+
+    /**
+     * The acceleration applied to every particle.
+     */
+    private final Vector2f acceleration;
+
+    /**
+     * The width and height of a particle.
+     */
+    private float particleSize;
+
+    /**
+     * Whether the particles fade out over their lifetime.
+     */
+    private boolean fading;
+
+    /**
+     * The vertex data of the chunk being filled.
+     */
+    private final float[] vertices;
+
+    /**
+     * The quad meshes the chunks are drawn with.
+     */
+    private final List<QuadMesh> meshes;
+
+    /**
+     * The sort key.
+     */
+    private long sortKey;
+
+    /**
+     * Create a new particle system that draws plain colored quads.
+     *
+     * @param capacity The maximum number of live particles.
+     * @param shader The shader to use.
+     */
+    public ParticleSystem(final int capacity, final Shader shader) {
+        this(capacity, shader, null);
+    }
+
+    /**
+     * Create a new particle system.
+     *
+     * @param capacity The maximum number of live particles.
+     * @param shader The shader to use.
+     * @param sprite The sprite drawn for every particle, or {@code null} for plain colored quads.
+     */
+    public ParticleSystem(final int capacity, final Shader shader, final Sprite sprite) {
+        this.capacity = capacity;
+        this.shader = shader;
+        this.sprite = sprite;
+        backend = RenderContext.getBackend();
+        textureCoordinates = sprite == null ? new float[QuadMesh.QUAD_TEXTURE_COORDINATES]
+                : sprite.getTextureCoordinateArray();
+        x = new float[capacity];
+        y = new float[capacity];
+        velocityX = new float[capacity];
+        velocityY = new float[capacity];
+        life = new float[capacity];
+        inverseLifetime = new float[capacity];
+        red = new float[capacity];
+        green = new float[capacity];
+        blue = new float[capacity];
+        alpha = new float[capacity];
+        acceleration = new Vector2f();
+        particleSize = 1.0f;
+        fading = true;
+        vertices = new float[Math.min(capacity, CHUNK_CAPACITY) * QuadMesh.QUAD_SIZE];
+        meshes = new ArrayList<>();
+        setLayer(0);
+    }
+
+    /**
+     * Emit a particle.
+     *
+     * @param x The x-coordinate.
+     * @param y The y-coordinate.
+     * @param velocityX The horizontal velocity.
+     * @param velocityY The vertical velocity.
+     * @param lifetime The lifetime, in seconds.
+     * @param red The red component of the color.
+     * @param green The green component of the color.
+     * @param blue The blue component of the color.
+     * @param alpha The alpha component of the color.
+     * @return {@code true} if the particle was emitted, {@code false} if the system is full.
+     */
+    public boolean emit(final float x, final float y, final float velocityX,
+            final float velocityY, final float lifetime, final float red, final float green,
+            final float blue, final float alpha) {
+        if (size == capacity || lifetime <= 0.0f) {
+            return false;
+        }
+        this.x[size] = x;
+        this.y[size] = y;
+        this.velocityX[size] = velocityX;
+        this.velocityY[size] = velocityY;
+        life[size] = lifetime;
+        inverseLifetime[size] = 1.0f / lifetime;
+        this.red[size] = red;
+        this.green[size] = green;
+        this.blue[size] = blue;
+        this.alpha[size] = alpha;
+        size++;
+        return true;
+    }
+
+    /**
+     * Advance the particles by a time step and remove the dead ones.
+     *
+     * @param deltaTime The time step, in seconds.
+     */
+    public void update(final float deltaTime) {
+        int count = size;
+        int i = 0;
+        while (i < count) {
+            final float remaining = life[i] - deltaTime;
+            if (remaining > 0.0f) {
+                life[i] = remaining;
+                i++;
+            } else {
+                count--;
+                move(count, i);
+            }
+        }
+        size = count;
+
+        final float deltaVelocityX = acceleration.x() * deltaTime;
+        final float deltaVelocityY = acceleration.y() * deltaTime;
+        for (int j = 0; j < count; j++) {
+            velocityX[j] += deltaVelocityX;
+            velocityY[j] += deltaVelocityY;
+        }
+        for (int j = 0; j < count; j++) {
+            x[j] += velocityX[j] * deltaTime;
+            y[j] += velocityY[j] * deltaTime;
+        }
+    }
+
+    /**
+     * Remove all particles.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Get the number of live particles.
+     *
+     * @return The number of live particles.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Get the maximum number of live particles.
+     *
+     * @return The capacity.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Set the acceleration applied to every particle, such as gravity.
+     *
+     * @param acceleration The acceleration.
+     */
+    public void setAcceleration(final Vector2f acceleration) {
+        this.acceleration.set(acceleration);
+    }
+
+    /**
+     * Set the width and height of a particle.
+     *
+     * @param particleSize The size.
+     */
+    public void setParticleSize(final float particleSize) {
+        this.particleSize = particleSize;
+    }
+
+    /**
+     * Set whether the particles fade out over their lifetime.
+     *
+     * @param fading Whether the particles fade out.
+     */
+    public void setFading(final boolean fading) {
+        this.fading = fading;
+    }
+
+    /**
+     * Set the layer of the particle system.
+     *
+     * @param layer The layer.
+     */
+    public void setLayer(final int layer) {
+        sortKey = SortKey.pack(layer, true, shader.getHandle(),
+                sprite == null ? 0 : sprite.getTexture().getId(), 0);
+    }
+
+    @Override
+    public long getSortKey() {
+        return sortKey;
+    }
+
+    @Override
+    public void render() {
+        if (size == 0) {
+            return;
+        }
+        shader.bind();
+        if (sprite != null) {
+            backend.activeTexture(GL13.GL_TEXTURE0 + TEXTURE_ID);
+            sprite.getTexture().bind();
+        }
+        shader.uniform1iv("u_Textures", TEXTURE_SLOTS);
+        final int chunkCapacity = vertices.length / QuadMesh.QUAD_SIZE;
+        for (int start = 0, chunk = 0; start < size; start += chunkCapacity, chunk++) {
+            final int end = Math.min(size, start + chunkCapacity);
+            fill(start, end);
+            if (chunk == meshes.size()) {
+                meshes.add(new QuadMesh(chunkCapacity));
+            }
+            final QuadMesh mesh = meshes.get(chunk);
+            mesh.clear();
+            mesh.addQuads(vertices, 0, end - start);
+            mesh.upload();
+            mesh.draw();
+        }
+        if (sprite != null) {
+            sprite.getTexture().unbind();
+        }
+        shader.unbind();
+    }
+
+    /**
+     * Delete the GL objects of the particle system. They are recreated when the particle system
+     * is rendered again.
+     */
+    public void delete() {
+        meshes.forEach(QuadMesh::delete);
+        meshes.clear();
+    }
+
+    /**
+     * Write the quads of a range of particles into the vertex data of the current chunk.
+     *
+     * @param start The first particle.
+     * @param end The particle after the last particle.
+     */
+    private void fill(final int start, final int end) {
+        final float half = particleSize * 0.5f;
+        final int textureId = sprite == null ? 0 : TEXTURE_ID;
+        int offset = 0;
+        for (int i = start; i < end; i++) {
+            final float left = x[i] - half;
+            final float right = x[i] + half;
+            final float bottom = y[i] - half;
+            final float top = y[i] + half;
+            final float particleAlpha = fading ? alpha[i] * life[i] * inverseLifetime[i]
+                    : alpha[i];
+            for (int j = 0; j < QUAD_VERTICES; j++) {
+                vertices[offset] = j < 2 ? right : left;
+                vertices[offset + 1] = j == 0 || j == 3 ? top : bottom;
+                vertices[offset + 2] = red[i];
+                vertices[offset + 3] = green[i];
+                vertices[offset + 4] = blue[i];
+                vertices[offset + 5] = particleAlpha;
+                vertices[offset + 6] = textureCoordinates[2 * j];
+                vertices[offset + 7] = textureCoordinates[2 * j + 1];
+                vertices[offset + 8] = textureId;
+                offset += QuadMesh.QUAD_SIZE / QUAD_VERTICES;
+            }
+        }
+    }
+
+    /**
+     * Move a particle to another position in the arrays, overwriting the particle there.
+     *
+     * @param from The position of the particle to move.
+     * @param to The position to move the particle to.
+     */
+    private void move(final int from, final int to) {
+        x[to] = x[from];
+        y[to] = y[from];
+        velocityX[to] = velocityX[from];
+        velocityY[to] = velocityY[from];
+        life[to] = life[from];
+        inverseLifetime[to] = inverseLifetime[from];
+        red[to] = red[from];
+        green[to] = green[from];
+        blue[to] = blue[from];
+        alpha[to] = alpha[from];
+    }
+}
@@ -16,9 +16,11 @@
 package com.feldjoshuanoah.gameengine.render.scene;
 
 import com.feldjoshuanoah.gameengine.entity.Entity;
+import com.feldjoshuanoah.gameengine.entity.component.AnimationComponent;
 import com.feldjoshuanoah.gameengine.render.Camera;
 import com.feldjoshuanoah.gameengine.render.Renderer;
 import com.feldjoshuanoah.gameengine.render.Shader;
+import com.feldjoshuanoah.gameengine.render.animation.AnimationSystem;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -43,6 +45,11 @@ public abstract class AbstractScene {
      */
     private final Renderer renderer;
 
+    /**
+     * The animation system.
+     */
+    private final AnimationSystem animationSystem;
+
     /**
      * Create a new scene.
      *
@@ -52,7 +59,8 @@ public abstract class AbstractScene {
     public AbstractScene(final Camera camera, final Shader shader) {
         this.camera = camera;
         entities = new ArrayList<>();
-        renderer = new Renderer(shader);
+        renderer = new Renderer(shader, camera);
+        animationSystem = new AnimationSystem();
     }
 
     /**
@@ -84,6 +92,15 @@ public abstract class AbstractScene {
         entities.forEach(Entity::update);
     }
 
+    /**
+     * Advance the animations of the entities.
+     *
+     * @param deltaTime The time step, in seconds.
+     */
+    public void updateAnimations(final float deltaTime) {
+        animationSystem.update(deltaTime);
+    }
+
     /**
      * Get the camera.
      *
@@ -94,13 +111,37 @@ public abstract class AbstractScene {
     }
 
     /**
-     * Add an entity to the scene.
+     * Get the renderer.
+     *
+     * @return The renderer.
+     */
+    public Renderer getRenderer() {
+        return renderer;
+    }
+
+    /**
+     * Get the animation system.
+     *
+     * @return The animation system.
+     */
+    public AnimationSystem getAnimationSystem() {
+        return animationSystem;
+    }
+
+    /**
+     * Add an entity to the scene. If the entity has an animation component, it is advanced by
+     * the animation system of the scene.
      *
      * @param entity The entity to add.
      */
     public void addEntity(final Entity entity) {
         entities.add(entity);
         renderer.add(entity);
+        final AnimationComponent animationComponent = entity.getComponent(
+                AnimationComponent.class);
+        if (animationComponent != null) {
+            animationSystem.add(animationComponent);
+        }
     }
 
     /**
@@ -110,5 +151,11 @@ public abstract class AbstractScene {
      */
     public void removeEntity(final Entity entity) {
         entities.remove(entity);
+        renderer.remove(entity);
+        final AnimationComponent animationComponent = entity.getComponent(
+                AnimationComponent.class);
+        if (animationComponent != null) {
+            animationSystem.remove(animationComponent);
+        }
     }
 }
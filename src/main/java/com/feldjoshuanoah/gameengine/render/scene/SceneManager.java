@@ -42,13 +42,14 @@ public final class SceneManager {
     }
 
     /**
-     * Set the active scene.
+     * Set the active scene. The previous scene is destroyed and its renderer is deleted.
      *
      * @param scene The active scene.
      */
     public void setScene(final AbstractScene scene) {
         if (this.scene != null) {
             this.scene.destroy();
+            this.scene.getRenderer().delete();
         }
         scene.create();
         this.scene = scene;
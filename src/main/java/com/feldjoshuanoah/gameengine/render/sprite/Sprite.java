@@ -31,6 +31,11 @@ public class Sprite {
      */
     private final Vector2f[] textureCoordinates;
 
+    /**
+     * The texture coordinates as consecutive u and v pairs.
+     */
+    private final float[] textureCoordinateArray;
+
     /**
      * Create a new sprite with the given texture.
      *
@@ -44,6 +49,7 @@ public class Sprite {
                 new Vector2f(0.0f, 0.0f),
                 new Vector2f(0.0f, 1.0f)
         };
+        textureCoordinateArray = flatten(textureCoordinates);
     }
 
     /**
@@ -55,6 +61,7 @@ public class Sprite {
     public Sprite(final Texture texture, final Vector2f[] textureCoordinates) {
         this.texture = texture;
         this.textureCoordinates = textureCoordinates.clone();
+        textureCoordinateArray = flatten(textureCoordinates);
     }
 
     /**
@@ -74,4 +81,30 @@ public class Sprite {
     public Vector2f[] getTextureCoordinates() {
         return textureCoordinates.clone();
     }
+
+    /**
+     * Get the texture coordinates as consecutive u and v pairs, in the same corner order as
+     * {@link #getTextureCoordinates}. The array is shared and must not be modified, so reading it
+     * does not allocate.
+     *
+     * @return The texture coordinates.
+     */
+    public float[] getTextureCoordinateArray() {
+        return textureCoordinateArray;
+    }
+
+    /**
+     * Copy texture coordinates into consecutive u and v pairs.
+     *
+     * @param textureCoordinates The texture coordinates.
+     * @return The flat texture coordinates.
+     */
+    private static float[] flatten(final Vector2f[] textureCoordinates) {
+        final float[] array = new float[textureCoordinates.length * 2];
+        for (int i = 0; i < textureCoordinates.length; i++) {
+            array[2 * i] = textureCoordinates[i].x();
+            array[2 * i + 1] = textureCoordinates[i].y();
+        }
+        return array;
+    }
 }
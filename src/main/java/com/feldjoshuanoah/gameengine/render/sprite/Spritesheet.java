@@ -25,6 +25,11 @@ import java.util.List;
  */
 public class Spritesheet {
 
+    /**
+     * The texture.
+     */
+    private final Texture texture;
+
     /**
      * The sprites on the spritesheet.
      */
@@ -41,6 +46,7 @@ public class Spritesheet {
      */
     public Spritesheet(final Texture texture, final int width, final int height, final int count,
                        final int spacing) {
+        this.texture = texture;
         sprites = new ArrayList<>();
 
         int x = 0;
@@ -73,4 +79,22 @@ public class Spritesheet {
     public Sprite getSprite(final int index) {
         return sprites.get(index);
     }
+
+    /**
+     * Get the texture of the spritesheet.
+     *
+     * @return The texture.
+     */
+    public Texture getTexture() {
+        return texture;
+    }
+
+    /**
+     * Get the number of sprites on the spritesheet.
+     *
+     * @return The number of sprites.
+     */
+    public int getSize() {
+        return sprites.size();
+    }
 }
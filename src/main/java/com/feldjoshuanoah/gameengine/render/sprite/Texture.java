@@ -15,6 +15,8 @@
  */
 package com.feldjoshuanoah.gameengine.render.sprite;
 
+import com.feldjoshuanoah.gameengine.render.backend.RenderBackend;
+import com.feldjoshuanoah.gameengine.render.backend.RenderContext;
 import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.stb.STBImage;
@@ -27,6 +29,11 @@ import java.nio.IntBuffer;
  */
 public class Texture {
 
+    /**
+     * The render backend.
+     */
+    private final RenderBackend backend;
+
     /**
      * The texture id.
      */
@@ -42,18 +49,19 @@ public class Texture {
      */
     private final int height;
 
+    /**
+     * Whether the texture contains partially transparent pixels.
+     */
+    private final boolean translucent;
+
     /**
      * Create a new texture.
      *
      * @param file The texture file.
      */
     public Texture(final String file) {
-        id = GL11.glGenTextures();
-        GL11.glBindTexture(GL11.GL_TEXTURE_2D, id);
-        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_S, GL11.GL_REPEAT);
-        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, GL11.GL_REPEAT);
-        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_NEAREST);
-        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_NEAREST);
+        backend = RenderContext.getBackend();
+        id = createTexture(backend);
         final IntBuffer width = BufferUtils.createIntBuffer(1);
         final IntBuffer height = BufferUtils.createIntBuffer(1);
         final IntBuffer channels = BufferUtils.createIntBuffer(1);
@@ -62,24 +70,120 @@ public class Texture {
         this.width = width.get(0);
         this.height = height.get(0);
         if (image != null) {
-            GL11.glTexImage2D(GL11.GL_TEXTURE_2D, 0, GL11.GL_RGBA, width.get(0), height.get(0), 0,
+            backend.texImage2D(GL11.GL_TEXTURE_2D, 0, GL11.GL_RGBA, width.get(0), height.get(0),
                     GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, image);
+            translucent = channels.get(0) == 4 && hasPartialAlpha(image);
             STBImage.stbi_image_free(image);
+        } else {
+            translucent = false;
         }
     }
 
+    /**
+     * Create a new texture from RGBA pixels, such as a glyph atlas generated at runtime.
+     *
+     * @param width The width.
+     * @param height The height.
+     * @param pixels The RGBA pixels, row by row.
+     */
+    public Texture(final int width, final int height, final ByteBuffer pixels) {
+        backend = RenderContext.getBackend();
+        id = createTexture(backend);
+        this.width = width;
+        this.height = height;
+        backend.texImage2D(GL11.GL_TEXTURE_2D, 0, GL11.GL_RGBA, width, height, GL11.GL_RGBA,
+                GL11.GL_UNSIGNED_BYTE, pixels);
+        translucent = hasPartialAlpha(pixels);
+    }
+
+    /**
+     * Create a new texture with uninitialized content, such as the color buffer of a render
+     * target. The texture is treated as translucent, since its content is not known.
+     *
+     * @param width The width.
+     * @param height The height.
+     */
+    public Texture(final int width, final int height) {
+        backend = RenderContext.getBackend();
+        id = createTexture(backend);
+        this.width = width;
+        this.height = height;
+        backend.texImage2D(GL11.GL_TEXTURE_2D, 0, GL11.GL_RGBA, width, height, GL11.GL_RGBA,
+                GL11.GL_UNSIGNED_BYTE, null);
+        translucent = true;
+    }
+
+    /**
+     * Create a texture object, bind it and set its parameters.
+     *
+     * @param backend The render backend.
+     * @return The texture id.
+     */
+    private static int createTexture(final RenderBackend backend) {
+        final int id = backend.createTexture();
+        backend.bindTexture(GL11.GL_TEXTURE_2D, id);
+        backend.texParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_S, GL11.GL_REPEAT);
+        backend.texParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, GL11.GL_REPEAT);
+        backend.texParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_NEAREST);
+        backend.texParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_NEAREST);
+        return id;
+    }
+
+    /**
+     * Return {@code true} if an RGBA image contains alpha values other than fully opaque or fully
+     * transparent.
+     *
+     * @param image The RGBA image.
+     * @return {@code true} if the image contains partially transparent pixels.
+     */
+    private static boolean hasPartialAlpha(final ByteBuffer image) {
+        for (int i = 3; i < image.limit(); i += 4) {
+            final int alpha = image.get(i) & 0xFF;
+            if (alpha != 0 && alpha != 0xFF) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Bind the texture.
      */
     public void bind() {
-        GL11.glBindTexture(GL11.GL_TEXTURE_2D, id);
+        backend.bindTexture(GL11.GL_TEXTURE_2D, id);
     }
 
     /**
      * Unbind the texture.
      */
     public void unbind() {
-        GL11.glBindTexture(GL11.GL_TEXTURE_2D, 0);
+        backend.bindTexture(GL11.GL_TEXTURE_2D, 0);
+    }
+
+    /**
+     * Delete the texture. The texture must not be used afterwards.
+     */
+    public void delete() {
+        backend.deleteTexture(id);
+    }
+
+    /**
+     * Get the texture id.
+     *
+     * @return The texture id.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Return {@code true} if the texture contains partially transparent pixels and therefore has
+     * to be blended with what is behind it.
+     *
+     * @return {@code true} if the texture contains partially transparent pixels.
+     */
+    public boolean isTranslucent() {
+        return translucent;
     }
 
     /**
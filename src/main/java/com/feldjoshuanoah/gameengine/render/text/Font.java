@@ -0,0 +1,318 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.render.text;
+
+import com.feldjoshuanoah.gameengine.render.QuadMesh;
+import com.feldjoshuanoah.gameengine.render.sprite.Texture;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.stb.STBTTAlignedQuad;
+import org.lwjgl.stb.STBTTBakedChar;
+import org.lwjgl.stb.STBTTFontinfo;
+import org.lwjgl.stb.STBTruetype;
+import org.lwjgl.system.MemoryStack;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Represents a font whose printable ASCII glyphs are baked into a texture atlas with
+ * stb_truetype. The glyph metrics are copied into flat arrays once, so laying out text does not
+ * touch native memory.
+ */
+public class Font {
+
+    /**
+     * The first baked character.
+     */
+    private static final int FIRST_CHARACTER = 32;
+
+    /**
+     * The number of baked characters.
+     */
+    private static final int CHARACTER_COUNT = 95;
+
+    /**
+     * The character drawn in place of characters without a glyph.
+     */
+    private static final char FALLBACK_CHARACTER = '?';
+
+    /**
+     * The width and height of the smallest atlas that is tried.
+     */
+    private static final int INITIAL_ATLAS_SIZE = 256;
+
+    /**
+     * The width and height of the largest atlas that is tried.
+     */
+    private static final int MAX_ATLAS_SIZE = 4096;
+
+    /**
+     * The number of floats in the metrics of a glyph.
+     */
+    private static final int GLYPH_SIZE = 5;
+
+    /**
+     * The number of bytes in an RGBA pixel.
+     */
+    private static final int PIXEL_SIZE = 4;
+
+    /**
+     * The glyph atlas.
+     */
+    private final Texture texture;
+
+    /**
+     * The metrics of the glyphs: the horizontal and vertical offset of the bottom left corner from
+     * the pen position on the baseline, the width, the height and the advance.
+     */
+    private final float[] glyphs;
+
+    /**
+     * The texture coordinates of the glyphs, in the corner order of a {@link QuadMesh}.
+     */
+    private final float[] textureCoordinates;
+
+    /**
+     * The distance between two baselines.
+     */
+    private final float lineHeight;
+
+    /**
+     * Create a new font.
+     *
+     * @param file The TrueType font file.
+     * @param size The height of the font, in pixels.
+     * @throws IllegalArgumentException If the file cannot be read, or the glyphs do not fit into
+     *         the largest atlas.
+     */
+    public Font(final String file, final float size) {
+        final ByteBuffer data = read(file);
+        glyphs = new float[CHARACTER_COUNT * GLYPH_SIZE];
+        textureCoordinates = new float[CHARACTER_COUNT * QuadMesh.QUAD_TEXTURE_COORDINATES];
+        lineHeight = calculateLineHeight(data, size);
+
+        final STBTTBakedChar.Buffer bakedCharacters = STBTTBakedChar.malloc(CHARACTER_COUNT);
+        int atlasSize = INITIAL_ATLAS_SIZE;
+        ByteBuffer bitmap = BufferUtils.createByteBuffer(atlasSize * atlasSize);
+        int result;
+        while ((result = STBTruetype.stbtt_BakeFontBitmap(data, size, bitmap, atlasSize,
+                atlasSize, FIRST_CHARACTER, bakedCharacters)) <= 0 && atlasSize < MAX_ATLAS_SIZE) {
+            atlasSize *= 2;
+            bitmap = BufferUtils.createByteBuffer(atlasSize * atlasSize);
+        }
+        if (result <= 0) {
+            bakedCharacters.free();
+            throw new IllegalArgumentException("Unable to fit font " + file + " at size " + size
+                    + " into a " + MAX_ATLAS_SIZE + "x" + MAX_ATLAS_SIZE + " atlas");
+        }
+        copyGlyphs(bakedCharacters, atlasSize);
+        bakedCharacters.free();
+
+        final ByteBuffer pixels = BufferUtils.createByteBuffer(bitmap.capacity() * PIXEL_SIZE);
+        for (int i = 0; i < bitmap.capacity(); i++) {
+            final byte coverage = bitmap.get(i);
+            pixels.put(coverage).put(coverage).put(coverage).put(coverage);
+        }
+        pixels.flip();
+        texture = new Texture(atlasSize, atlasSize, pixels);
+    }
+
+    /**
+     * Get the glyph atlas.
+     *
+     * @return The texture.
+     */
+    public Texture getTexture() {
+        return texture;
+    }
+
+    /**
+     * Get the distance between two baselines.
+     *
+     * @return The line height, in pixels.
+     */
+    public float getLineHeight() {
+        return lineHeight;
+    }
+
+    /**
+     * Calculate the width of the widest line of a string.
+     *
+     * @param text The string.
+     * @return The width, in pixels.
+     */
+    public float getWidth(final CharSequence text) {
+        float width = 0.0f;
+        float lineWidth = 0.0f;
+        for (int i = 0; i < text.length(); i++) {
+            final char character = text.charAt(i);
+            if (character == '\n') {
+                lineWidth = 0.0f;
+            } else {
+                lineWidth += getAdvance(getGlyph(character));
+                width = Math.max(width, lineWidth);
+            }
+        }
+        return width;
+    }
+
+    /**
+     * Get the glyph of a character.
+     *
+     * @param character The character.
+     * @return The glyph, which is the fallback glyph if the font has no glyph for the character.
+     */
+    int getGlyph(final char character) {
+        final int glyph = character - FIRST_CHARACTER;
+        return glyph >= 0 && glyph < CHARACTER_COUNT ? glyph
+                : FALLBACK_CHARACTER - FIRST_CHARACTER;
+    }
+
+    /**
+     * Get the horizontal offset of the bottom left corner of a glyph from the pen position.
+     *
+     * @param glyph The glyph.
+     * @return The horizontal offset, in pixels.
+     */
+    float getOffsetX(final int glyph) {
+        return glyphs[glyph * GLYPH_SIZE];
+    }
+
+    /**
+     * Get the vertical offset of the bottom left corner of a glyph from the baseline.
+     *
+     * @param glyph The glyph.
+     * @return The vertical offset, in pixels.
+     */
+    float getOffsetY(final int glyph) {
+        return glyphs[glyph * GLYPH_SIZE + 1];
+    }
+
+    /**
+     * Get the width of a glyph.
+     *
+     * @param glyph The glyph.
+     * @return The width, in pixels.
+     */
+    float getGlyphWidth(final int glyph) {
+        return glyphs[glyph * GLYPH_SIZE + 2];
+    }
+
+    /**
+     * Get the height of a glyph.
+     *
+     * @param glyph The glyph.
+     * @return The height, in pixels.
+     */
+    float getGlyphHeight(final int glyph) {
+        return glyphs[glyph * GLYPH_SIZE + 3];
+    }
+
+    /**
+     * Get the distance the pen moves after a glyph.
+     *
+     * @param glyph The glyph.
+     * @return The advance, in pixels.
+     */
+    float getAdvance(final int glyph) {
+        return glyphs[glyph * GLYPH_SIZE + 4];
+    }
+
+    /**
+     * Get the texture coordinates of the glyphs, {@link QuadMesh#QUAD_TEXTURE_COORDINATES} floats
+     * per glyph.
+     *
+     * @return The texture coordinates.
+     */
+    float[] getTextureCoordinates() {
+        return textureCoordinates;
+    }
+
+    /**
+     * Copy the metrics and texture coordinates of the baked glyphs into the flat arrays. The
+     * y-axis of stb_truetype points down, so the glyphs are flipped to the y-up world.
+     *
+     * @param bakedCharacters The baked characters.
+     * @param atlasSize The width and height of the atlas.
+     */
+    private void copyGlyphs(final STBTTBakedChar.Buffer bakedCharacters, final int atlasSize) {
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            final FloatBuffer x = stack.mallocFloat(1);
+            final FloatBuffer y = stack.mallocFloat(1);
+            final STBTTAlignedQuad quad = STBTTAlignedQuad.malloc(stack);
+            for (int i = 0; i < CHARACTER_COUNT; i++) {
+                x.put(0, 0.0f);
+                y.put(0, 0.0f);
+                STBTruetype.stbtt_GetBakedQuad(bakedCharacters, atlasSize, atlasSize, i, x, y,
+                        quad, true);
+                final int offset = i * GLYPH_SIZE;
+                glyphs[offset] = quad.x0();
+                glyphs[offset + 1] = -quad.y1();
+                glyphs[offset + 2] = quad.x1() - quad.x0();
+                glyphs[offset + 3] = quad.y1() - quad.y0();
+                glyphs[offset + 4] = x.get(0);
+                final float[] coordinates = new float[] {
+                        quad.s1(), quad.t0(), quad.s1(), quad.t1(),
+                        quad.s0(), quad.t1(), quad.s0(), quad.t0()
+                };
+                System.arraycopy(coordinates, 0, textureCoordinates,
+                        i * QuadMesh.QUAD_TEXTURE_COORDINATES, coordinates.length);
+            }
+        }
+    }
+
+    /**
+     * Calculate the distance between two baselines from the vertical metrics of the font.
+     *
+     * @param data The font file content.
+     * @param size The height of the font, in pixels.
+     * @return The line height, in pixels.
+     */
+    private static float calculateLineHeight(final ByteBuffer data, final float size) {
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            final STBTTFontinfo info = STBTTFontinfo.malloc(stack);
+            if (!STBTruetype.stbtt_InitFont(info, data)) {
+                return size;
+            }
+            final IntBuffer ascent = stack.mallocInt(1);
+            final IntBuffer descent = stack.mallocInt(1);
+            final IntBuffer lineGap = stack.mallocInt(1);
+            STBTruetype.stbtt_GetFontVMetrics(info, ascent, descent, lineGap);
+            return (ascent.get(0) - descent.get(0) + lineGap.get(0))
+                    * STBTruetype.stbtt_ScaleForPixelHeight(info, size);
+        }
+    }
+
+    /**
+     * Read a font file into a direct buffer.
+     *
+     * @param file The font file.
+     * @return The file content.
+     * @throws IllegalArgumentException If the file cannot be read.
+     */
+    private static ByteBuffer read(final String file) {
+        try {
+            final byte[] bytes = Files.readAllBytes(Path.of(file));
+            return BufferUtils.createByteBuffer(bytes.length).put(bytes).flip();
+        } catch (final IOException exception) {
+            throw new IllegalArgumentException("Unable to read font " + file, exception);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.render.text;
+
+import com.feldjoshuanoah.gameengine.render.QuadMesh;
+import org.joml.Vector2f;
+import org.joml.Vector4f;
+
+/**
+ * Represents a string drawn with a font. The quads of the string are generated when it is first
+ * rendered after a change and cached until the next change, so unchanged text costs nothing to
+ * lay out. Texts are drawn by adding them to a {@link TextBatch} of the same font.
+ */
+public class Text {
+
+    /**
+     * The font.
+     */
+    private final Font font;
+
+    /**
+     * The string.
+     */
+    private String string;
+
+    /**
+     * The position of the pen on the baseline of the first line.
+     */
+    private final Vector2f position;
+
+    /**
+     * The color.
+     */
+    private final Vector4f color;
+
+    /**
+     * The factor the font size is multiplied with.
+     */
+    private float scale;
+
+    /**
+     * The generated vertex data.
+     */
+    private float[] vertices;
+
+    /**
+     * The number of generated quads.
+     */
+    private int quads;
+
+    /**
+     * Whether the text changed since the quads were last generated.
+     */
+    private boolean dirty;
+
+    /**
+     * Create a new white text at the origin.
+     *
+     * @param font The font.
+     * @param string The string.
+     */
+    public Text(final Font font, final String string) {
+        this.font = font;
+        this.string = string;
+        position = new Vector2f();
+        color = new Vector4f(1.0f, 1.0f, 1.0f, 1.0f);
+        scale = 1.0f;
+        vertices = new float[0];
+        dirty = true;
+    }
+
+    /**
+     * Get the font.
+     *
+     * @return The font.
+     */
+    public Font getFont() {
+        return font;
+    }
+
+    /**
+     * Get the string.
+     *
+     * @return The string.
+     */
+    public String getString() {
+        return string;
+    }
+
+    /**
+     * Set the string. Setting an equal string keeps the cached quads.
+     *
+     * @param string The string.
+     */
+    public void setString(final String string) {
+        if (!this.string.equals(string)) {
+            this.string = string;
+            dirty = true;
+        }
+    }
+
+    /**
+     * Get the position of the pen on the baseline of the first line.
+     *
+     * @return The position.
+     */
+    public Vector2f getPosition() {
+        return new Vector2f(position);
+    }
+
+    /**
+     * Set the position of the pen on the baseline of the first line.
+     *
+     * @param position The position.
+     */
+    public void setPosition(final Vector2f position) {
+        if (!this.position.equals(position)) {
+            this.position.set(position);
+            dirty = true;
+        }
+    }
+
+    /**
+     * Get the color.
+     *
+     * @return The color.
+     */
+    public Vector4f getColor() {
+        return new Vector4f(color);
+    }
+
+    /**
+     * Set the color.
+     *
+     * @param color The color.
+     */
+    public void setColor(final Vector4f color) {
+        if (!this.color.equals(color)) {
+            this.color.set(color);
+            dirty = true;
+        }
+    }
+
+    /**
+     * Get the factor the font size is multiplied with.
+     *
+     * @return The scale.
+     */
+    public float getScale() {
+        return scale;
+    }
+
+    /**
+     * Set the factor the font size is multiplied with.
+     *
+     * @param scale The scale.
+     */
+    public void setScale(final float scale) {
+        if (this.scale != scale) {
+            this.scale = scale;
+            dirty = true;
+        }
+    }
+
+    /**
+     * Return {@code true} if the text changed since the quads were last generated.
+     *
+     * @return {@code true} if the text is dirty.
+     */
+    boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Get the generated vertex data.
+     *
+     * @return The vertex data, {@link QuadMesh#QUAD_SIZE} floats per quad.
+     */
+    float[] getVertices() {
+        return vertices;
+    }
+
+    /**
+     * Get the number of generated quads.
+     *
+     * @return The number of quads.
+     */
+    int getQuads() {
+        return quads;
+    }
+
+    /**
+     * Generate the quads of the text.
+     *
+     * @param textureId The texture slot the glyph atlas is bound to.
+     */
+    void build(final int textureId) {
+        if (vertices.length < string.length() * QuadMesh.QUAD_SIZE) {
+            vertices = new float[string.length() * QuadMesh.QUAD_SIZE];
+        }
+        quads = 0;
+        float x = position.x();
+        float y = position.y();
+        for (int i = 0; i < string.length(); i++) {
+            final char character = string.charAt(i);
+            if (character == '\n') {
+                x = position.x();
+                y -= font.getLineHeight() * scale;
+                continue;
+            }
+            final int glyph = font.getGlyph(character);
+            final float width = font.getGlyphWidth(glyph) * scale;
+            final float height = font.getGlyphHeight(glyph) * scale;
+            if (width > 0.0f && height > 0.0f) {
+                QuadMesh.writeQuad(vertices, quads * QuadMesh.QUAD_SIZE,
+                        x + font.getOffsetX(glyph) * scale, y + font.getOffsetY(glyph) * scale,
+                        width, height, color.x(), color.y(), color.z(), color.w(),
+                        font.getTextureCoordinates(),
+                        glyph * QuadMesh.QUAD_TEXTURE_COORDINATES, textureId);
+                quads++;
+            }
+            x += font.getAdvance(glyph) * scale;
+        }
+        dirty = false;
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.render.text;
+
+import com.feldjoshuanoah.gameengine.render.Drawable;
+import com.feldjoshuanoah.gameengine.render.QuadMesh;
+import com.feldjoshuanoah.gameengine.render.Shader;
+import com.feldjoshuanoah.gameengine.render.SortKey;
+import com.feldjoshuanoah.gameengine.render.backend.RenderBackend;
+import com.feldjoshuanoah.gameengine.render.backend.RenderContext;
+import org.lwjgl.opengl.GL13;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a batch of texts of the same font that are drawn with a single draw call. The
+ * quads of all texts are kept in one vertex buffer, which is only refilled when a text is added,
+ * removed or changed. Only the changed texts are laid out again.
+ */
+public class TextBatch implements Drawable {
+
+    /**
+     * The number of quads the batch can hold initially.
+     */
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * The texture slots.
+     */
+    private static final int[] TEXTURE_SLOTS = new int[] { 0, 1, 2, 3, 4, 5, 6, 7 };
+
+    /**
+     * The texture slot the glyph atlas is bound to.
+     */
+    private static final int TEXTURE_ID = 1;
+
+    /**
+     * The render backend.
+     */
+    private final RenderBackend backend;
+
+    /**
+     * The font.
+     */
+    private final Font font;
+
+    /**
+     * The shader.
+     */
+    private final Shader shader;
+
+    /**
+     * The texts.
+     */
+    private final List<Text> texts;
+
+    /**
+     * The quads of all texts.
+     */
+    private QuadMesh mesh;
+
+    /**
+     * Whether a text was added or removed since the quads were last uploaded.
+     */
+    private boolean changed;
+
+    /**
+     * The sort key.
+     */
+    private long sortKey;
+
+    /**
+     * Create a new text batch.
+     *
+     * @param font The font of the texts.
+     * @param shader The shader to use.
+     */
+    public TextBatch(final Font font, final Shader shader) {
+        this.font = font;
+        this.shader = shader;
+        backend = RenderContext.getBackend();
+        texts = new ArrayList<>();
+        mesh = new QuadMesh(INITIAL_CAPACITY);
+        setLayer(0);
+    }
+
+    /**
+     * Add a text.
+     *
+     * @param text The text to draw.
+     */
+    public void add(final Text text) {
+        if (text.getFont() != font) {
+            throw new IllegalArgumentException("The text uses a different font than the batch");
+        }
+        texts.add(text);
+        changed = true;
+    }
+
+    /**
+     * Remove a text.
+     *
+     * @param text The text to stop drawing.
+     */
+    public void remove(final Text text) {
+        changed |= texts.remove(text);
+    }
+
+    /**
+     * Set the layer of the text batch.
+     *
+     * @param layer The layer.
+     */
+    public void setLayer(final int layer) {
+        sortKey = SortKey.pack(layer, true, shader.getHandle(), font.getTexture().getId(), 0);
+    }
+
+    @Override
+    public long getSortKey() {
+        return sortKey;
+    }
+
+    @Override
+    public void render() {
+        int quads = 0;
+        for (final Text text : texts) {
+            if (text.isDirty()) {
+                text.build(TEXTURE_ID);
+                changed = true;
+            }
+            quads += text.getQuads();
+        }
+        if (changed) {
+            upload(quads);
+            changed = false;
+        }
+
+        shader.bind();
+        backend.activeTexture(GL13.GL_TEXTURE0 + TEXTURE_ID);
+        font.getTexture().bind();
+        shader.uniform1iv("u_Textures", TEXTURE_SLOTS);
+        mesh.draw();
+        font.getTexture().unbind();
+        shader.unbind();
+    }
+
+    /**
+     * Delete the GL objects of the text batch. The text batch must not be used afterwards.
+     */
+    public void delete() {
+        mesh.delete();
+    }
+
+    /**
+     * Copy the quads of all texts into the vertex buffer, growing it if necessary.
+     *
+     * @param quads The total number of quads.
+     */
+    private void upload(final int quads) {
+        if (quads > mesh.getCapacity()) {
+            mesh.delete();
+            mesh = new QuadMesh(Math.max(quads, mesh.getCapacity() * 2));
+        }
+        mesh.clear();
+        for (final Text text : texts) {
+            mesh.addQuads(text.getVertices(), 0, text.getQuads());
+        }
+        mesh.upload();
+    }
+}
@@ -0,0 +1,414 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.render.tilemap;
+
+import com.feldjoshuanoah.gameengine.render.Camera;
+import com.feldjoshuanoah.gameengine.render.Drawable;
+import com.feldjoshuanoah.gameengine.render.QuadMesh;
+import com.feldjoshuanoah.gameengine.render.Shader;
+import com.feldjoshuanoah.gameengine.render.SortKey;
+import com.feldjoshuanoah.gameengine.render.backend.RenderBackend;
+import com.feldjoshuanoah.gameengine.render.backend.RenderContext;
+import com.feldjoshuanoah.gameengine.render.sprite.Spritesheet;
+import com.feldjoshuanoah.gameengine.render.sprite.Texture;
+import org.joml.Vector2f;
+import org.joml.Vector3f;
+import org.lwjgl.opengl.GL13;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Represents a tilemap. The tiles are stored as indices into a spritesheet and rendered in
+ * chunks of {@link #CHUNK_SIZE} by {@link #CHUNK_SIZE} tiles. The quads of a chunk are only
+ * rebuilt when one of its tiles changes, and only the chunks overlapping the camera are drawn.
+ * Chunks that have not been visible for a while release their GL objects, so even very large
+ * tilemaps only keep the geometry around the camera in memory.
+ */
+public class Tilemap implements Drawable {
+
+    /**
+     * The tile index of an empty tile.
+     */
+    public static final int EMPTY = -1;
+
+    /**
+     * The width and height of a chunk, in tiles.
+     */
+    public static final int CHUNK_SIZE = 32;
+
+    /**
+     * The number of consecutive frames a chunk has to stay invisible before it is deleted.
+     */
+    private static final int UNUSED_CHUNK_FRAMES = 60;
+
+    /**
+     * The texture slots.
+     */
+    private static final int[] TEXTURE_SLOTS = new int[] { 0, 1, 2, 3, 4, 5, 6, 7 };
+
+    /**
+     * The texture slot the spritesheet is bound to.
+     */
+    private static final int TEXTURE_ID = 1;
+
+    /**
+     * The render backend.
+     */
+    private final RenderBackend backend;
+
+    /**
+     * The spritesheet.
+     */
+    private final Spritesheet spritesheet;
+
+    /**
+     * The shader.
+     */
+    private final Shader shader;
+
+    /**
+     * The camera that determines the visible chunks.
+     */
+    private final Camera camera;
+
+    /**
+     * The width of the tilemap, in tiles.
+     */
+    private final int width;
+
+    /**
+     * The height of the tilemap, in tiles.
+     */
+    private final int height;
+
+    /**
+     * The width of a tile.
+     */
+    private final float tileWidth;
+
+    /**
+     * The height of a tile.
+     */
+    private final float tileHeight;
+
+    /**
+     * The tile indices, row by row from the bottom.
+     */
+    private final int[] tiles;
+
+    /**
+     * The texture coordinates of the sprites on the spritesheet, eight floats per sprite.
+     */
+    private final float[] textureCoordinates;
+
+    /**
+     * The number of chunks in a row.
+     */
+    private final int chunksX;
+
+    /**
+     * The number of chunks in a column.
+     */
+    private final int chunksY;
+
+    /**
+     * The chunks, or {@code null} for chunks that have not been built.
+     */
+    private final TilemapChunk[] chunks;
+
+    /**
+     * The number of non-empty tiles in every chunk.
+     */
+    private final int[] chunkTiles;
+
+    /**
+     * The chunks that have been built.
+     */
+    private final List<TilemapChunk> builtChunks;
+
+    /**
+     * The position of the bottom left corner of the tilemap.
+     */
+    private final Vector2f position;
+
+    /**
+     * The minimum corner of the visible area.
+     */
+    private final Vector3f min;
+
+    /**
+     * The maximum corner of the visible area.
+     */
+    private final Vector3f max;
+
+    /**
+     * The sort key.
+     */
+    private long sortKey;
+
+    /**
+     * The number of rendered frames.
+     */
+    private long frame;
+
+    /**
+     * Create a new empty tilemap.
+     *
+     * @param spritesheet The spritesheet the tile indices refer to.
+     * @param width The width of the tilemap, in tiles.
+     * @param height The height of the tilemap, in tiles.
+     * @param tileWidth The width of a tile.
+     * @param tileHeight The height of a tile.
+     * @param shader The shader to use.
+     * @param camera The camera that determines the visible chunks.
+     */
+    public Tilemap(final Spritesheet spritesheet, final int width, final int height,
+            final float tileWidth, final float tileHeight, final Shader shader,
+            final Camera camera) {
+        this.spritesheet = spritesheet;
+        this.width = width;
+        this.height = height;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.shader = shader;
+        this.camera = camera;
+        backend = RenderContext.getBackend();
+        tiles = new int[width * height];
+        Arrays.fill(tiles, EMPTY);
+        textureCoordinates = new float[spritesheet.getSize() * QuadMesh.QUAD_TEXTURE_COORDINATES];
+        for (int i = 0; i < spritesheet.getSize(); i++) {
+            System.arraycopy(spritesheet.getSprite(i).getTextureCoordinateArray(), 0,
+                    textureCoordinates, i * QuadMesh.QUAD_TEXTURE_COORDINATES,
+                    QuadMesh.QUAD_TEXTURE_COORDINATES);
+        }
+        chunksX = (width + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        chunksY = (height + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        chunks = new TilemapChunk[chunksX * chunksY];
+        chunkTiles = new int[chunksX * chunksY];
+        builtChunks = new ArrayList<>();
+        position = new Vector2f();
+        min = new Vector3f();
+        max = new Vector3f();
+        setLayer(0);
+    }
+
+    /**
+     * Get the tile index at the specified position.
+     *
+     * @param x The column of the tile.
+     * @param y The row of the tile, counted from the bottom.
+     * @return The tile index, or {@link #EMPTY}.
+     */
+    public int getTile(final int x, final int y) {
+        return tiles[index(x, y)];
+    }
+
+    /**
+     * Set the tile index at the specified position. Only the chunk containing the tile is
+     * rebuilt.
+     *
+     * @param x The column of the tile.
+     * @param y The row of the tile, counted from the bottom.
+     * @param tile The index of the sprite on the spritesheet, or {@link #EMPTY}.
+     */
+    public void setTile(final int x, final int y, final int tile) {
+        if (tile < EMPTY || tile >= spritesheet.getSize()) {
+            throw new IllegalArgumentException("Invalid tile index " + tile);
+        }
+        final int index = index(x, y);
+        final int previous = tiles[index];
+        if (previous == tile) {
+            return;
+        }
+        tiles[index] = tile;
+        final int chunk = y / CHUNK_SIZE * chunksX + x / CHUNK_SIZE;
+        if (previous == EMPTY) {
+            chunkTiles[chunk]++;
+        } else if (tile == EMPTY) {
+            chunkTiles[chunk]--;
+        }
+        if (chunks[chunk] != null) {
+            chunks[chunk].setDirty(true);
+        }
+    }
+
+    /**
+     * Get the width of the tilemap.
+     *
+     * @return The width, in tiles.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Get the height of the tilemap.
+     *
+     * @return The height, in tiles.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Get the position of the bottom left corner of the tilemap.
+     *
+     * @return The position.
+     */
+    public Vector2f getPosition() {
+        return new Vector2f(position);
+    }
+
+    /**
+     * Set the position of the bottom left corner of the tilemap. All built chunks are rebuilt.
+     *
+     * @param position The position.
+     */
+    public void setPosition(final Vector2f position) {
+        this.position.set(position);
+        builtChunks.forEach(chunk -> chunk.setDirty(true));
+    }
+
+    /**
+     * Set the layer of the tilemap.
+     *
+     * @param layer The layer.
+     */
+    public void setLayer(final int layer) {
+        final Texture texture = spritesheet.getTexture();
+        sortKey = SortKey.pack(layer, texture.isTranslucent(), shader.getHandle(),
+                texture.getId(), 0);
+    }
+
+    @Override
+    public long getSortKey() {
+        return sortKey;
+    }
+
+    @Override
+    public void render() {
+        frame++;
+        camera.getBounds(min, max);
+        final float chunkWidth = tileWidth * CHUNK_SIZE;
+        final float chunkHeight = tileHeight * CHUNK_SIZE;
+        final int firstX = Math.max(0, (int) Math.floor((min.x() - position.x()) / chunkWidth));
+        final int firstY = Math.max(0, (int) Math.floor((min.y() - position.y()) / chunkHeight));
+        final int lastX = Math.min(chunksX - 1,
+                (int) Math.floor((max.x() - position.x()) / chunkWidth));
+        final int lastY = Math.min(chunksY - 1,
+                (int) Math.floor((max.y() - position.y()) / chunkHeight));
+
+        if (firstX <= lastX && firstY <= lastY) {
+            shader.bind();
+            backend.activeTexture(GL13.GL_TEXTURE0 + TEXTURE_ID);
+            spritesheet.getTexture().bind();
+            shader.uniform1iv("u_Textures", TEXTURE_SLOTS);
+            for (int y = firstY; y <= lastY; y++) {
+                for (int x = firstX; x <= lastX; x++) {
+                    final int index = y * chunksX + x;
+                    if (chunkTiles[index] == 0 && chunks[index] == null) {
+                        continue;
+                    }
+                    TilemapChunk chunk = chunks[index];
+                    if (chunk == null) {
+                        chunk = new TilemapChunk(index, CHUNK_SIZE * CHUNK_SIZE);
+                        chunks[index] = chunk;
+                        builtChunks.add(chunk);
+                    }
+                    if (chunk.isDirty()) {
+                        build(chunk);
+                    }
+                    chunk.setLastVisibleFrame(frame);
+                    chunk.getMesh().draw();
+                }
+            }
+            spritesheet.getTexture().unbind();
+            shader.unbind();
+        }
+        releaseUnusedChunks();
+    }
+
+    /**
+     * Delete the GL objects of all chunks. The chunks are rebuilt when the tilemap is rendered
+     * again.
+     */
+    public void delete() {
+        builtChunks.forEach(chunk -> {
+            chunk.delete();
+            chunks[chunk.getIndex()] = null;
+        });
+        builtChunks.clear();
+    }
+
+    /**
+     * Rebuild the quads of a chunk from its tiles.
+     *
+     * @param chunk The chunk.
+     */
+    private void build(final TilemapChunk chunk) {
+        final QuadMesh mesh = chunk.getMesh();
+        mesh.clear();
+        final int startX = chunk.getIndex() % chunksX * CHUNK_SIZE;
+        final int startY = chunk.getIndex() / chunksX * CHUNK_SIZE;
+        final int endX = Math.min(width, startX + CHUNK_SIZE);
+        final int endY = Math.min(height, startY + CHUNK_SIZE);
+        for (int y = startY; y < endY; y++) {
+            for (int x = startX; x < endX; x++) {
+                final int tile = tiles[y * width + x];
+                if (tile != EMPTY) {
+                    mesh.addQuad(position.x() + x * tileWidth, position.y() + y * tileHeight,
+                            tileWidth, tileHeight, 1.0f, 1.0f, 1.0f, 1.0f, textureCoordinates,
+                            tile * QuadMesh.QUAD_TEXTURE_COORDINATES, TEXTURE_ID);
+                }
+            }
+        }
+        mesh.upload();
+        chunk.setDirty(false);
+    }
+
+    /**
+     * Delete the chunks that have not been visible for a while.
+     */
+    private void releaseUnusedChunks() {
+        for (int i = builtChunks.size() - 1; i >= 0; i--) {
+            final TilemapChunk chunk = builtChunks.get(i);
+            if (frame - chunk.getLastVisibleFrame() >= UNUSED_CHUNK_FRAMES) {
+                chunk.delete();
+                chunks[chunk.getIndex()] = null;
+                final TilemapChunk last = builtChunks.remove(builtChunks.size() - 1);
+                if (last != chunk) {
+                    builtChunks.set(i, last);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the position of a tile in the tile array.
+     *
+     * @param x The column of the tile.
+     * @param y The row of the tile, counted from the bottom.
+     * @return The position in the tile array.
+     */
+    private int index(final int x, final int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            throw new IndexOutOfBoundsException("Tile " + x + ", " + y + " is out of bounds");
+        }
+        return y * width + x;
+    }
+}
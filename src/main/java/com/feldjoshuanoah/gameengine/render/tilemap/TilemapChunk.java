@@ -0,0 +1,117 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.render.tilemap;
+
+import com.feldjoshuanoah.gameengine.render.QuadMesh;
+
+/**
+ * Represents a chunk of a tilemap, holding the prebuilt quads of its tiles.
+ */
+class TilemapChunk {
+
+    /**
+     * The index of the chunk in the tilemap.
+     */
+    private final int index;
+
+    /**
+     * The quads of the tiles.
+     */
+    private final QuadMesh mesh;
+
+    /**
+     * Whether a tile changed since the quads were last built.
+     */
+    private boolean dirty;
+
+    /**
+     * The last frame in which the chunk was visible.
+     */
+    private long lastVisibleFrame;
+
+    /**
+     * Create a new chunk.
+     *
+     * @param index The index of the chunk in the tilemap.
+     * @param capacity The number of tiles in the chunk.
+     */
+    TilemapChunk(final int index, final int capacity) {
+        this.index = index;
+        mesh = new QuadMesh(capacity);
+        dirty = true;
+    }
+
+    /**
+     * Get the index of the chunk in the tilemap.
+     *
+     * @return The index.
+     */
+    int getIndex() {
+        return index;
+    }
+
+    /**
+     * Get the quads of the tiles.
+     *
+     * @return The quad mesh.
+     */
+    QuadMesh getMesh() {
+        return mesh;
+    }
+
+    /**
+     * Return {@code true} if a tile changed since the quads were last built.
+     *
+     * @return {@code true} if the chunk is dirty.
+     */
+    boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Set whether a tile changed since the quads were last built.
+     *
+     * @param dirty Whether the chunk is dirty.
+     */
+    void setDirty(final boolean dirty) {
+        this.dirty = dirty;
+    }
+
+    /**
+     * Get the last frame in which the chunk was visible.
+     *
+     * @return The frame.
+     */
+    long getLastVisibleFrame() {
+        return lastVisibleFrame;
+    }
+
+    /**
+     * Set the last frame in which the chunk was visible.
+     *
+     * @param lastVisibleFrame The frame.
+     */
+    void setLastVisibleFrame(final long lastVisibleFrame) {
+        this.lastVisibleFrame = lastVisibleFrame;
+    }
+
+    /**
+     * Delete the GL objects of the chunk.
+     */
+    void delete() {
+        mesh.delete();
+    }
+}
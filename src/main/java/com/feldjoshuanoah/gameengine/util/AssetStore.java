@@ -15,9 +15,12 @@
  */
 package com.feldjoshuanoah.gameengine.util;
 
+import com.feldjoshuanoah.gameengine.render.ProgramBinaryCache;
 import com.feldjoshuanoah.gameengine.render.Shader;
 import com.feldjoshuanoah.gameengine.render.sprite.Texture;
+import com.feldjoshuanoah.gameengine.render.text.Font;
 
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -26,6 +29,17 @@ import java.util.Map;
  */
 public final class AssetStore {
 
+    /**
+     * The system property that overrides the directory of the program binary cache.
+     */
+    private static final String SHADER_CACHE_PROPERTY = "gameengine.shaderCache";
+
+    /**
+     * The program binary cache for the shaders.
+     */
+    private static final ProgramBinaryCache SHADER_CACHE = new ProgramBinaryCache(
+            Path.of(System.getProperty(SHADER_CACHE_PROPERTY, ".cache/shaders")));
+
     /**
      * The shaders.
      */
@@ -36,6 +50,11 @@ public final class AssetStore {
      */
     private static final Map<String, Texture> TEXTURES = new HashMap<>();
 
+    /**
+     * The fonts.
+     */
+    private static final Map<String, Font> FONTS = new HashMap<>();
+
     /**
      * Not accessible.
      */
@@ -45,7 +64,8 @@ public final class AssetStore {
 
     /**
      * Get the shader to which the specified name is mapped. If the shader does not exist in the
-     * asset store, it is first created and then added to the store.
+     * asset store, it is first created and then added to the store. Created shaders are loaded
+     * from the program binary cache when possible.
      *
      * @param name The name of the shader.
      * @return The shader to which the specified name is mapped.
@@ -55,7 +75,7 @@ public final class AssetStore {
             return SHADERS.get(name);
         }
         final Shader shader = new Shader(ResourceUtils.getContent(name + "_v.glsl"),
-                ResourceUtils.getContent(name + "_f.glsl"));
+                ResourceUtils.getContent(name + "_f.glsl"), SHADER_CACHE);
         SHADERS.put(name, shader);
         return shader;
     }
@@ -75,4 +95,22 @@ public final class AssetStore {
         TEXTURES.put(name, texture);
         return texture;
     }
+
+    /**
+     * Get the font to which the specified name and size are mapped. If the font does not exist
+     * in the asset store, its glyphs are first baked and then added to the store.
+     *
+     * @param name The name of the font.
+     * @param size The height of the font, in pixels.
+     * @return The font to which the specified name and size are mapped.
+     */
+    public static Font getFont(final String name, final int size) {
+        final String key = name + ':' + size;
+        if (FONTS.containsKey(key)) {
+            return FONTS.get(key);
+        }
+        final Font font = new Font(ResourceUtils.getAbsolutePath(name + ".ttf"), size);
+        FONTS.put(key, font);
+        return font;
+    }
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.event;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Tests registering the event metrics on the platform MBean server.
+ */
+class EventMetricsTest {
+
+    /**
+     * The metrics of a second event manager can be registered once the first ones are
+     * unregistered.
+     *
+     * @throws JMException If the object name is malformed.
+     */
+    @Test
+    void metricsOfSuccessiveManagersCanBeRegistered() throws JMException {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName name = new ObjectName("com.feldjoshuanoah.gameengine:type=EventMetrics");
+        final EventMetrics first = new EventManager(1).getMetrics();
+        final EventMetrics second = new EventManager(1).getMetrics();
+
+        first.registerMBean();
+        first.registerMBean();
+        assertTrue(first.isMBeanRegistered());
+        second.registerMBean();
+        assertFalse(second.isMBeanRegistered());
+
+        first.unregisterMBean();
+        assertFalse(server.isRegistered(name));
+        second.registerMBean();
+        assertTrue(second.isMBeanRegistered());
+        assertTrue(server.isRegistered(name));
+
+        second.unregisterMBean();
+        second.unregisterMBean();
+        assertFalse(server.isRegistered(name));
+    }
+}
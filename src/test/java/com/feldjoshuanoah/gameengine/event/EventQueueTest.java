@@ -0,0 +1,159 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.feldjoshuanoah.gameengine.event.input.keyboard.KeyPressEvent;
+import com.feldjoshuanoah.gameengine.event.input.mouse.CursorMoveEvent;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests the event queue in pooled mode.
+ */
+class EventQueueTest {
+
+    /**
+     * The number of records posted in a burst.
+     */
+    private static final int BURST = 10_000;
+
+    /**
+     * Dispatching a burst of callbacks through a pooled queue allocates nothing once the
+     * dispatch table has been built.
+     */
+    @Test
+    void pooledBurstDoesNotAllocate() {
+        final EventManager manager = new EventManager(1);
+        final InputListener listener = new InputListener();
+        manager.register(listener);
+        final EventQueue queue = new EventQueue(manager);
+        queue.setQueued(true);
+        queue.setPooled(true);
+        postBurst(queue);
+        listener.count = 0;
+
+        final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long before = threads.getCurrentThreadAllocatedBytes();
+        postBurst(queue);
+        final long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        manager.shutdown();
+
+        assertEquals(4 * BURST, listener.count);
+        assertTrue(allocated < BURST, "A burst allocated " + allocated + " bytes");
+    }
+
+    /**
+     * Asynchronous handlers receive a copy of every pooled event, so the events keep their data
+     * after the queue reuses the pooled event.
+     */
+    @Test
+    void asyncHandlersReceiveCopies() {
+        final EventManager manager = new EventManager(1);
+        final AsyncKeyListener listener = new AsyncKeyListener();
+        manager.register(listener);
+        final EventQueue queue = new EventQueue(manager);
+        queue.setPooled(true);
+        for (int key = 0; key < BURST; key++) {
+            queue.post(EventQueue.KEY_PRESS, key, 0.0, 0.0, 0.0);
+        }
+        manager.shutdown();
+
+        assertEquals(BURST, listener.events.size());
+        for (int key = 0; key < BURST; key++) {
+            assertEquals(key, listener.events.get(key).getKey());
+        }
+        assertNotSame(listener.events.get(0), listener.events.get(1));
+    }
+
+    /**
+     * Post a burst of interleaved cursor moves and key presses, draining the queue every few
+     * hundred records like a frame would.
+     *
+     * @param queue The queue.
+     */
+    private static void postBurst(final EventQueue queue) {
+        for (int i = 0; i < BURST; i++) {
+            queue.post(EventQueue.CURSOR_MOVE, i, i, i - 1, i - 1);
+            queue.post(EventQueue.KEY_PRESS, i, 0.0, 0.0, 0.0);
+            queue.post(EventQueue.CURSOR_MOVE, i, i, i - 1, i - 1);
+            queue.post(EventQueue.KEY_PRESS, i, 0.0, 0.0, 0.0);
+            if (i % 100 == 99) {
+                queue.drain();
+            }
+        }
+        queue.drain();
+    }
+
+    /**
+     * Represents a listener that counts the cursor moves and key presses.
+     */
+    static final class InputListener implements Listener {
+
+        /**
+         * The number of handled events.
+         */
+        private int count;
+
+        /**
+         * Handle a cursor move.
+         *
+         * @param event The event.
+         */
+        @EventHandler
+        public void onCursorMove(final CursorMoveEvent event) {
+            count++;
+        }
+
+        /**
+         * Handle a key press.
+         *
+         * @param event The event.
+         */
+        @EventHandler
+        public void onKeyPress(final KeyPressEvent event) {
+            count++;
+        }
+    }
+
+    /**
+     * Represents a listener that keeps every key press it receives on a background thread.
+     */
+    static final class AsyncKeyListener implements Listener {
+
+        /**
+         * The received key presses, in order.
+         */
+        private final List<KeyPressEvent> events = new ArrayList<>();
+
+        /**
+         * Keep a key press.
+         *
+         * @param event The event.
+         */
+        @EventHandler(async = true)
+        public void onKeyPress(final KeyPressEvent event) {
+            events.add(event);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.feldjoshuanoah.gameengine.event.window.WindowCloseEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests the listener mailboxes.
+ */
+class ListenerMailboxTest {
+
+    /**
+     * An error thrown by a handler must neither lose the backlog count nor keep the mailbox
+     * scheduled, so the next delivery still runs.
+     */
+    @Test
+    void errorDoesNotStallMailbox() {
+        final List<Runnable> tasks = new ArrayList<>();
+        final AtomicInteger backlog = new AtomicInteger();
+        final ListenerMailbox mailbox = new ListenerMailbox(tasks::add, backlog);
+        final AtomicInteger handled = new AtomicInteger();
+
+        mailbox.post(event -> {
+            throw new AssertionError("Handler failure");
+        }, new WindowCloseEvent());
+        mailbox.post(event -> handled.incrementAndGet(), new WindowCloseEvent());
+        assertEquals(1, tasks.size());
+        try {
+            tasks.remove(0).run();
+        } catch (final AssertionError error) {
+            // The error reaches the thread of the executor.
+        }
+        assertEquals(1, tasks.size(), "The remaining delivery was not scheduled again");
+        tasks.remove(0).run();
+        assertEquals(1, handled.get());
+        assertEquals(0, backlog.get());
+
+        mailbox.post(event -> handled.incrementAndGet(), new WindowCloseEvent());
+        assertEquals(1, tasks.size(), "The mailbox stayed scheduled");
+        tasks.remove(0).run();
+        assertEquals(2, handled.get());
+        assertEquals(0, backlog.get());
+    }
+
+    /**
+     * Posting after the executor has been shut down drops the delivery instead of throwing into
+     * the code that fired the event.
+     */
+    @Test
+    void rejectedDeliveryIsDropped() {
+        final AtomicInteger backlog = new AtomicInteger();
+        final Executor rejecting = task -> {
+            throw new RejectedExecutionException("Shut down");
+        };
+        final ListenerMailbox mailbox = new ListenerMailbox(rejecting, backlog);
+        final AtomicInteger handled = new AtomicInteger();
+
+        mailbox.post(event -> handled.incrementAndGet(), new WindowCloseEvent());
+        mailbox.post(event -> handled.incrementAndGet(), new WindowCloseEvent());
+        assertEquals(0, handled.get());
+        assertEquals(0, backlog.get());
+    }
+
+    /**
+     * Firing an asynchronous handler after the event manager has been shut down does not throw.
+     */
+    @Test
+    void fireAfterShutdownIsDropped() {
+        final EventManager manager = new EventManager(1);
+        final AsyncListener listener = new AsyncListener();
+        manager.register(listener);
+        manager.shutdown();
+
+        manager.fire(new WindowCloseEvent());
+        assertEquals(0, manager.getAsyncBacklog());
+        assertEquals(0, listener.count.get());
+    }
+
+    /**
+     * Represents a listener with an asynchronous handler.
+     */
+    static final class AsyncListener implements Listener {
+
+        /**
+         * The number of handled events.
+         */
+        private final AtomicInteger count = new AtomicInteger();
+
+        /**
+         * Handle a window close event on a background thread.
+         *
+         * @param event The event.
+         */
+        @EventHandler(async = true)
+        public void onWindowClose(final WindowCloseEvent event) {
+            count.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.feldjoshuanoah.gameengine.event.window.WindowCloseEvent;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Tests the registered listeners that are created reflectively.
+ */
+class RegisteredListenerTest {
+
+    /**
+     * The number of listeners registered after the first one.
+     */
+    private static final int LISTENERS = 100;
+
+    /**
+     * Registering more listeners of a class must reuse the executors generated for the first one
+     * instead of spinning new classes for every registration.
+     */
+    @Test
+    void executorsAreGeneratedOncePerClass() {
+        final EventManager manager = new EventManager();
+        manager.register(new CountingListener());
+        final ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+        final long loaded = classLoading.getTotalLoadedClassCount();
+        final CountingListener[] listeners = new CountingListener[LISTENERS];
+        for (int i = 0; i < LISTENERS; i++) {
+            listeners[i] = new CountingListener();
+            manager.register(listeners[i]);
+        }
+        assertTrue(classLoading.getTotalLoadedClassCount() - loaded < LISTENERS / 2,
+                "Registering listeners loaded a class each");
+
+        manager.fire(new WindowCloseEvent());
+        for (final CountingListener listener : listeners) {
+            assertEquals(1, listener.count);
+        }
+    }
+
+    /**
+     * Represents a listener that counts the window close events.
+     */
+    static final class CountingListener implements Listener {
+
+        /**
+         * The number of handled events.
+         */
+        private int count;
+
+        /**
+         * Handle a window close event.
+         *
+         * @param event The event.
+         */
+        @EventHandler
+        public void onWindowClose(final WindowCloseEvent event) {
+            count++;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.feldjoshuanoah.gameengine.event.EventHandler;
+import com.feldjoshuanoah.gameengine.event.EventManager;
+import com.feldjoshuanoah.gameengine.event.EventQueue;
+import com.feldjoshuanoah.gameengine.event.Listener;
+import com.feldjoshuanoah.gameengine.event.input.keyboard.KeyEvent;
+import com.feldjoshuanoah.gameengine.event.input.mouse.ButtonEvent;
+import com.feldjoshuanoah.gameengine.event.input.mouse.CursorMoveEvent;
+import com.feldjoshuanoah.gameengine.event.input.mouse.ScrollEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests recording input to a log and playing it back.
+ */
+class InputReplayTest {
+
+    /**
+     * The number of recorded ticks.
+     */
+    private static final int TICKS = 4;
+
+    /**
+     * The log file.
+     */
+    private Path file;
+
+    /**
+     * Create the log file.
+     *
+     * @throws IOException If the file cannot be created.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("input", ".log");
+    }
+
+    /**
+     * Delete the log file.
+     *
+     * @throws IOException If the file cannot be deleted.
+     */
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * A replay fires the same events as the recording, in the same ticks.
+     */
+    @Test
+    void replayMatchesRecording() {
+        final List<String> recorded = record();
+
+        final List<String> replayed = new ArrayList<>();
+        final EventQueue queue = createQueue(replayed);
+        try (InputReplay replay = new InputReplay(file)) {
+            for (int tick = 0; !replay.isFinished(); tick++) {
+                replayed.add("tick " + tick);
+                replay.replayTick(queue, null);
+                queue.drain();
+            }
+            assertEquals(TICKS, replay.getTick());
+        }
+        assertEquals(recorded, replayed);
+    }
+
+    /**
+     * A log whose last record was cut off is rejected.
+     *
+     * @throws IOException If the log cannot be truncated.
+     */
+    @Test
+    void truncatedLogIsRejected() throws IOException {
+        record();
+        final byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+
+        assertThrows(IllegalArgumentException.class, () -> new InputReplay(file));
+    }
+
+    /**
+     * A log with an unknown record type or an unknown header is rejected.
+     *
+     * @throws IOException If the log cannot be changed.
+     */
+    @Test
+    void corruptLogIsRejected() throws IOException {
+        record();
+        final byte[] bytes = Files.readAllBytes(file);
+        // The first record starts with its tick delta, a single byte, followed by its type.
+        bytes[InputRecorder.HEADER_SIZE + 1] = (byte) EventQueue.TYPE_COUNT;
+        Files.write(file, bytes);
+        assertThrows(IllegalArgumentException.class, () -> new InputReplay(file));
+
+        Files.write(file, ByteBuffer.allocate(InputRecorder.HEADER_SIZE).putInt(0).array());
+        assertThrows(IllegalArgumentException.class, () -> new InputReplay(file));
+
+        Files.write(file, new byte[0]);
+        assertThrows(IllegalArgumentException.class, () -> new InputReplay(file));
+    }
+
+    /**
+     * Record a short sequence of input with tick boundaries to the log file.
+     *
+     * @return The events fired while recording, with a marker at the start of every tick.
+     */
+    private List<String> record() {
+        final List<String> fired = new ArrayList<>();
+        final EventQueue queue = createQueue(fired);
+        try (InputRecorder recorder = new InputRecorder(file)) {
+            queue.setRecorder(recorder);
+            for (int tick = 0; tick < TICKS; tick++) {
+                fired.add("tick " + tick);
+                switch (tick) {
+                    case 0 -> {
+                        queue.post(EventQueue.KEY_PRESS, 65.0, 30.0, 1.0, 0.0);
+                        queue.post(EventQueue.CURSOR_MOVE, 1.5, 2.5, 0.0, 0.0);
+                        queue.post(EventQueue.CURSOR_MOVE, 3.25, -4.0, 1.5, 2.5);
+                    }
+                    case 2 -> {
+                        queue.post(EventQueue.SCROLL, 0.0, -1.0);
+                        queue.post(EventQueue.BUTTON_PRESS, 1.0, 0.0);
+                        queue.post(EventQueue.KEY_RELEASE, 65.0, 30.0, 1.0, 0.0);
+                        queue.post(EventQueue.BUTTON_RELEASE, 1.0, 0.0);
+                    }
+                    default -> {
+                        // Nothing happens in the other ticks.
+                    }
+                }
+                queue.drain();
+                recorder.advance();
+            }
+        }
+        assertTrue(fired.size() > TICKS);
+        return fired;
+    }
+
+    /**
+     * Create an event queue in queued mode that describes every fired event.
+     *
+     * @param fired The list the descriptions are added to.
+     * @return The event queue.
+     */
+    private static EventQueue createQueue(final List<String> fired) {
+        final EventManager manager = new EventManager(1);
+        manager.register(new DescribingListener(fired));
+        final EventQueue queue = new EventQueue(manager);
+        queue.setQueued(true);
+        return queue;
+    }
+
+    /**
+     * Represents a listener that describes the input events it receives.
+     */
+    static final class DescribingListener implements Listener {
+
+        /**
+         * The descriptions of the received events, in order.
+         */
+        private final List<String> fired;
+
+        /**
+         * Create a new describing listener.
+         *
+         * @param fired The list the descriptions are added to.
+         */
+        DescribingListener(final List<String> fired) {
+            this.fired = fired;
+        }
+
+        /**
+         * Describe a key event.
+         *
+         * @param event The event.
+         */
+        @EventHandler
+        public void onKey(final KeyEvent event) {
+            fired.add(event.getClass().getSimpleName() + " " + event.getKey() + " "
+                    + event.getScanCode() + " " + event.getMods());
+        }
+
+        /**
+         * Describe a button event.
+         *
+         * @param event The event.
+         */
+        @EventHandler
+        public void onButton(final ButtonEvent event) {
+            fired.add(event.getClass().getSimpleName() + " " + event.getButton() + " "
+                    + event.getMods());
+        }
+
+        /**
+         * Describe a cursor move.
+         *
+         * @param event The event.
+         */
+        @EventHandler
+        public void onCursorMove(final CursorMoveEvent event) {
+            fired.add("CursorMoveEvent " + event.getX() + " " + event.getY() + " "
+                    + event.getPreviousX() + " " + event.getPreviousY());
+        }
+
+        /**
+         * Describe a scroll.
+         *
+         * @param event The event.
+         */
+        @EventHandler
+        public void onScroll(final ScrollEvent event) {
+            fired.add("ScrollEvent " + event.getXOffset() + " " + event.getYOffset());
+        }
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.render;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.feldjoshuanoah.gameengine.entity.Entity;
+import com.feldjoshuanoah.gameengine.entity.component.ColorComponent;
+import com.feldjoshuanoah.gameengine.entity.component.SpriteComponent;
+import com.feldjoshuanoah.gameengine.render.backend.RecordingBackend;
+import com.feldjoshuanoah.gameengine.render.backend.RenderBackend;
+import com.feldjoshuanoah.gameengine.render.backend.RenderContext;
+import com.feldjoshuanoah.gameengine.render.sprite.Sprite;
+import com.feldjoshuanoah.gameengine.render.sprite.Texture;
+import org.joml.Vector2f;
+import org.joml.Vector4f;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+/**
+ * Tests the render batches against a recording backend.
+ */
+class RenderBatchTest {
+
+    /**
+     * The number of textures a render batch can hold.
+     */
+    private static final int TEXTURES = 7;
+
+    /**
+     * The number of frames the allocation of the quad fill is measured over.
+     */
+    private static final int FRAMES = 1_000;
+
+    /**
+     * The backend that was current before the test.
+     */
+    private RenderBackend previous;
+
+    /**
+     * The recording backend.
+     */
+    private VertexDataBackend backend;
+
+    /**
+     * The render batch under test.
+     */
+    private RenderBatch batch;
+
+    /**
+     * Make a recording backend current and create a render batch on it.
+     */
+    @BeforeEach
+    void setUp() {
+        previous = RenderContext.getBackend();
+        backend = new VertexDataBackend();
+        RenderContext.setBackend(backend);
+        batch = new RenderBatch(16, new Shader("", ""));
+    }
+
+    /**
+     * Restore the previous backend.
+     */
+    @AfterEach
+    void tearDown() {
+        RenderContext.setBackend(previous);
+    }
+
+    /**
+     * A texture that is no longer used by any slot frees its texture slot for the next texture,
+     * while the other textures keep their texture slots.
+     */
+    @Test
+    void unusedTexturesAreReleased() {
+        final Texture[] textures = new Texture[TEXTURES];
+        for (int i = 0; i < TEXTURES; i++) {
+            textures[i] = new Texture(1, 1);
+            batch.addEntity(createEntity(textures[i]));
+        }
+        assertTrue(batch.isTextureStoreFull());
+
+        final Texture replacement = new Texture(1, 1);
+        batch.setEntity(2, createEntity(replacement));
+        assertFalse(batch.containsTexture(textures[2]));
+        assertSame(replacement, batch.getTextures().get(2));
+        for (int i = 0; i < TEXTURES; i++) {
+            if (i != 2) {
+                assertSame(textures[i], batch.getTextures().get(i));
+            }
+        }
+
+        batch.truncate(4);
+        assertEquals(4, batch.getTextures().size());
+        batch.remove(1);
+        assertNull(batch.getTextures().get(1));
+        assertFalse(batch.isTextureStoreFull());
+    }
+
+    /**
+     * A quad with a new texture is rejected once the texture store is full, unless it replaces
+     * the only quad using a texture.
+     */
+    @Test
+    void fullTextureStoreRejectsQuad() {
+        final Vector2f position = new Vector2f();
+        final Vector2f scale = new Vector2f(1.0f, 1.0f);
+        final Vector4f color = new Vector4f(1.0f, 1.0f, 1.0f, 1.0f);
+        for (int i = 0; i < TEXTURES; i++) {
+            batch.addQuad(position, scale, color, new Sprite(new Texture(1, 1)));
+        }
+        final Sprite sprite = new Sprite(new Texture(1, 1));
+        assertThrows(IllegalStateException.class,
+                () -> batch.addQuad(position, scale, color, sprite));
+        assertEquals(TEXTURES, batch.getSize());
+        assertFalse(batch.containsTexture(sprite.getTexture()));
+
+        batch.addQuad(position, scale, color, new Sprite(batch.getTextures().get(0)));
+        assertThrows(IllegalStateException.class,
+                () -> batch.setQuad(0, position, scale, color, sprite));
+        batch.setQuad(1, position, scale, color, sprite);
+        assertSame(sprite.getTexture(), batch.getTextures().get(1));
+    }
+
+    /**
+     * Placing the entity that already occupies a slot does not rewrite or upload its quad.
+     */
+    @Test
+    void unchangedSlotIsNotUploaded() {
+        final Entity first = createEntity(null);
+        final Entity second = createEntity(null);
+        batch.setEntity(0, first);
+        batch.setEntity(1, second);
+        batch.prepare();
+        backend.reset();
+
+        batch.setEntity(0, first);
+        batch.setEntity(1, second);
+        batch.truncate(2);
+        batch.prepare();
+        assertEquals(0, backend.getUploadedBytes());
+
+        batch.setEntity(1, first);
+        batch.truncate(2);
+        batch.prepare();
+        assertTrue(backend.getUploadedBytes() > 0);
+    }
+
+    /**
+     * Dropping the texture coordinate table of an entity writes the texture coordinates of its
+     * sprite into the quad again.
+     */
+    @Test
+    void droppedTextureCoordinateTableRestoresSprite() {
+        final Entity entity = createEntity(new Texture(1, 1));
+        final float[] sprite = entity.getComponent(SpriteComponent.class).getSprite()
+                .getTextureCoordinateArray();
+        final float[] table = new float[sprite.length];
+        Arrays.fill(table, 0.5f);
+        batch.addEntity(entity);
+        batch.prepare();
+
+        entity.setTextureCoordinates(table, 0);
+        batch.prepare();
+        assertEquals(0.5f, backend.getTextureCoordinate());
+
+        entity.setTextureCoordinates(null, 0);
+        batch.prepare();
+        assertEquals(sprite[0], backend.getTextureCoordinate());
+    }
+
+    /**
+     * Rewriting and uploading the quads of changed entities allocates nothing, since it runs for
+     * every changed quad in every frame.
+     */
+    @Test
+    void quadFillDoesNotAllocate() {
+        final Texture texture = new Texture(1, 1);
+        final Entity[] entities = new Entity[16];
+        for (int i = 0; i < entities.length; i++) {
+            entities[i] = createEntity(i % 2 == 0 ? texture : null);
+            entities[i].addComponent(new ColorComponent(new Vector4f(1.0f, 0.5f, 0.5f, 1.0f)));
+            batch.addEntity(entities[i]);
+        }
+        renderFrames(entities);
+
+        final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long before = threads.getCurrentThreadAllocatedBytes();
+        renderFrames(entities);
+        final long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertTrue(backend.getUploadedBytes() > 0);
+        assertTrue(allocated < FRAMES, "The quad fill allocated " + allocated + " bytes");
+    }
+
+    /**
+     * Mark every entity as changed and render the batch, once per frame.
+     *
+     * @param entities The entities in the batch.
+     */
+    private void renderFrames(final Entity[] entities) {
+        for (int frame = 0; frame < FRAMES; frame++) {
+            for (final Entity entity : entities) {
+                entity.setDirty(true);
+            }
+            batch.render();
+        }
+    }
+
+    /**
+     * Create an entity.
+     *
+     * @param texture The texture of its sprite, or {@code null} if it is untextured.
+     * @return The entity.
+     */
+    private static Entity createEntity(final Texture texture) {
+        final Entity entity = new Entity(new Transform(new Vector2f(),
+                new Vector2f(1.0f, 1.0f)), 0);
+        if (texture != null) {
+            entity.addComponent(new SpriteComponent(new Sprite(texture)));
+        }
+        return entity;
+    }
+
+    /**
+     * Represents a recording backend that remembers the first texture coordinate of the last
+     * vertex upload.
+     */
+    private static final class VertexDataBackend extends RecordingBackend {
+
+        /**
+         * The first texture coordinate of the last vertex upload.
+         */
+        private float textureCoordinate;
+
+        @Override
+        public void bufferSubData(final int target, final long offset, final FloatBuffer data) {
+            super.bufferSubData(target, offset, data);
+            textureCoordinate = data.get(data.position() + 7);
+        }
+
+        /**
+         * Get the first texture coordinate of the last vertex upload.
+         *
+         * @return The texture coordinate.
+         */
+        private float getTextureCoordinate() {
+            return textureCoordinate;
+        }
+    }
+}
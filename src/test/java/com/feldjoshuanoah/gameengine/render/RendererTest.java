@@ -0,0 +1,218 @@
+/*
+ * Copyright 2022 Joshua Feld
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.feldjoshuanoah.gameengine.render;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.feldjoshuanoah.gameengine.entity.Entity;
+import com.feldjoshuanoah.gameengine.entity.component.ColorComponent;
+import com.feldjoshuanoah.gameengine.render.backend.RecordingBackend;
+import com.feldjoshuanoah.gameengine.render.backend.RenderBackend;
+import com.feldjoshuanoah.gameengine.render.backend.RenderContext;
+import org.joml.Vector2f;
+import org.joml.Vector4f;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests the renderer against a recording backend.
+ */
+class RendererTest {
+
+    /**
+     * The backend that was current before the test.
+     */
+    private RenderBackend previous;
+
+    /**
+     * The recording backend.
+     */
+    private DepthMaskBackend backend;
+
+    /**
+     * The renderer under test.
+     */
+    private Renderer renderer;
+
+    /**
+     * Make a recording backend current and create a renderer on it.
+     */
+    @BeforeEach
+    void setUp() {
+        previous = RenderContext.getBackend();
+        backend = new DepthMaskBackend();
+        RenderContext.setBackend(backend);
+        renderer = createRenderer();
+    }
+
+    /**
+     * Restore the previous backend.
+     */
+    @AfterEach
+    void tearDown() {
+        RenderContext.setBackend(previous);
+    }
+
+    /**
+     * Opaque and translucent entities of the same layer must not share a render batch with depth
+     * layering, so only the opaque quads write depth.
+     */
+    @Test
+    void depthLayeringMasksTranslucentEntities() {
+        renderer.setDepthLayering(true);
+        for (int i = 0; i < 4; i++) {
+            renderer.add(createEntity(i % 2 == 0 ? 1.0f : 0.5f));
+        }
+        backend.reset();
+        renderer.render();
+
+        assertEquals(List.of(true, false), backend.drawMasks);
+    }
+
+    /**
+     * Opaque and translucent render batches must not be merged into one multi-draw batch with
+     * depth layering, so only the opaque quads write depth.
+     */
+    @Test
+    void depthLayeringMasksTranslucentEntitiesWithMultiDraw() {
+        backend.setMultiDrawIndirectSupported(true);
+        renderer = createRenderer();
+        renderer.setDepthLayering(true);
+        for (int i = 0; i < 4; i++) {
+            renderer.add(createEntity(i % 2 == 0 ? 1.0f : 0.5f));
+        }
+        backend.reset();
+        renderer.render();
+
+        assertEquals(List.of(true, false), backend.drawMasks);
+    }
+
+    /**
+     * Translucent entities on different layers are drawn in layer order with depth writes
+     * disabled, after the opaque entities of all layers were drawn together.
+     */
+    @Test
+    void depthLayeringDrawsOpaqueEntitiesFirst() {
+        renderer.setDepthLayering(true);
+        renderer.add(createEntity(0.5f, 2));
+        renderer.add(createEntity(1.0f, 2));
+        renderer.add(createEntity(0.5f, 1));
+        renderer.add(createEntity(1.0f, 1));
+        backend.reset();
+        renderer.render();
+
+        assertEquals(List.of(true, false, false), backend.drawMasks);
+    }
+
+    /**
+     * The opaque entities of all layers are drawn first with multi-draw, and the translucent
+     * render batches that follow them are merged without writing depth.
+     */
+    @Test
+    void depthLayeringDrawsOpaqueEntitiesFirstWithMultiDraw() {
+        backend.setMultiDrawIndirectSupported(true);
+        renderer = createRenderer();
+        renderer.setDepthLayering(true);
+        renderer.add(createEntity(0.5f, 2));
+        renderer.add(createEntity(1.0f, 2));
+        renderer.add(createEntity(0.5f, 1));
+        renderer.add(createEntity(1.0f, 1));
+        backend.reset();
+        renderer.render();
+
+        assertEquals(List.of(true, false), backend.drawMasks);
+    }
+
+    /**
+     * Create a renderer on the recording backend.
+     *
+     * @return The renderer.
+     */
+    private static Renderer createRenderer() {
+        return new Renderer(new Shader("", ""), new Camera(0.0f, 1.0f, 1.0f, 0.0f, -1.0f, 1.0f));
+    }
+
+    /**
+     * Create an entity on layer zero with a color of the given alpha.
+     *
+     * @param alpha The alpha.
+     * @return The entity.
+     */
+    private static Entity createEntity(final float alpha) {
+        return createEntity(alpha, 0);
+    }
+
+    /**
+     * Create an entity with a color of the given alpha.
+     *
+     * @param alpha The alpha.
+     * @param z The layer.
+     * @return The entity.
+     */
+    private static Entity createEntity(final float alpha, final int z) {
+        final Entity entity = new Entity(new Transform(new Vector2f(),
+                new Vector2f(1.0f, 1.0f)), z);
+        entity.addComponent(new ColorComponent(new Vector4f(1.0f, 1.0f, 1.0f, alpha)));
+        return entity;
+    }
+
+    /**
+     * Represents a recording backend that remembers the depth mask of every draw call, including
+     * multi-draw calls.
+     */
+    private static final class DepthMaskBackend extends RecordingBackend {
+
+        /**
+         * The depth mask at every draw call since the last reset.
+         */
+        private final List<Boolean> drawMasks = new ArrayList<>();
+
+        /**
+         * The current depth mask.
+         */
+        private boolean depthMask = true;
+
+        @Override
+        public void depthMask(final boolean flag) {
+            super.depthMask(flag);
+            depthMask = flag;
+        }
+
+        @Override
+        public void drawElements(final int mode, final int count, final int type,
+                final long offset) {
+            super.drawElements(mode, count, type, offset);
+            drawMasks.add(depthMask);
+        }
+
+        @Override
+        public void multiDrawElementsIndirect(final int mode, final int type, final long offset,
+                final int drawCount, final int stride) {
+            super.multiDrawElementsIndirect(mode, type, offset, drawCount, stride);
+            drawMasks.add(depthMask);
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            drawMasks.clear();
+        }
+    }
+}